@@ -0,0 +1,282 @@
+package org.gty.chord.loader;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.gty.chord.client.ChordNetworkClient;
+import org.gty.chord.client.ChordRingClient;
+import org.gty.chord.loader.config.ChordBulkLoaderProperties;
+import org.gty.chord.model.NodeInfoVo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+
+/**
+ * streams keys from a file or stdin into the ring.
+ *
+ * keys are buffered in chunks and sorted by ring position, so owner ranges are looked
+ * up once per run of keys instead of once per key. each run is cut into batches that
+ * are written to their owners concurrently, with at most max-in-flight-batches
+ * outstanding. keys an owner refuses, because membership changed since the ring map
+ * was built, are re-routed against a refreshed map and retried.
+ */
+@Service
+public class ChordBulkLoader implements ApplicationContextAware {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChordBulkLoader.class);
+
+    private static final String STDIN = "-";
+    private static final long REPORT_INTERVAL_SECONDS = 1L;
+    private static final long MIN_RING_REFRESH_INTERVAL_MILLIS = 1_000L;
+
+    private final ChordBulkLoaderProperties properties;
+    private final ChordNetworkClient client;
+    private final ChordRingClient ringClient;
+
+    private ApplicationContext ctx;
+
+    private NodeInfoVo entryNode;
+    private long ringSize;
+    private volatile long lastRingRefreshMillis;
+
+    public ChordBulkLoader(ChordBulkLoaderProperties properties,
+                           ChordNetworkClient client,
+                           ChordRingClient ringClient) {
+        this.properties = properties;
+        this.client = client;
+        this.ringClient = ringClient;
+    }
+
+    @Override
+    public void setApplicationContext(@Nonnull ApplicationContext ctx) throws BeansException {
+        this.ctx = ctx;
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        LoadProgress progress = new LoadProgress();
+
+        try {
+            load(progress);
+        } catch (RuntimeException ex) {
+            logger.error("bulk load aborted", ex);
+            progress.onFailed(1);
+        }
+
+        logger.info("{}", progress.summary());
+
+        int exitCode = SpringApplication.exit(ctx, () -> progress.getFailed() == 0 ? 0 : 1);
+        System.exit(exitCode);
+    }
+
+    private void load(LoadProgress progress) {
+        entryNode = client.queryNodeInfo(properties.getNodeAddress(), properties.getNodePort());
+        ringSize = 1L << client.queryNodeState(entryNode, null).getFingerRingSizeBits();
+
+        refreshRing();
+        logger.info("loading into a ring of {} nodes through {}", ringClient.getRing().size(), entryNode);
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("chord-bulk-loader-reporter")
+            .setDaemon(true)
+            .build());
+        reporter.scheduleAtFixedRate(() -> logger.info("{}", progress.intervalReport()),
+            REPORT_INTERVAL_SECONDS, REPORT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+        ExecutorService writers = Executors.newFixedThreadPool(properties.getMaxInFlightBatches(), new ThreadFactoryBuilder()
+            .setNameFormat("chord-bulk-loader-writer-%d")
+            .setDaemon(true)
+            .build());
+
+        BatchWindow window = new BatchWindow(writers, progress);
+
+        try (BufferedReader reader = openInput()) {
+            List<Long> chunk = new ArrayList<>();
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+
+                chunk.add(toRingPosition(trimmed));
+                progress.onRead();
+
+                if (chunk.size() >= properties.getSortChunkSize()) {
+                    dispatch(chunk, 0, window);
+                    chunk = new ArrayList<>();
+                }
+            }
+
+            dispatch(chunk, 0, window);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            window.awaitAll();
+            writers.shutdown();
+            reporter.shutdownNow();
+        }
+    }
+
+    /**
+     * sorts keys by ring position and cuts them into per-owner batches.
+     */
+    private void dispatch(List<Long> keys, int attempt, BatchWindow window) {
+        keys.sort(null);
+
+        NodeInfoVo currentOwner = null;
+        List<Long> batch = new ArrayList<>();
+
+        for (Long key : keys) {
+            NodeInfoVo owner = ringClient.ownerOf(key);
+
+            if (!batch.isEmpty()
+                && (!Objects.equals(owner.getNodeId(), currentOwner.getNodeId()) || batch.size() >= properties.getBatchSize())) {
+                window.submit(currentOwner, batch, attempt);
+                batch = new ArrayList<>();
+            }
+
+            currentOwner = owner;
+            batch.add(key);
+        }
+
+        if (!batch.isEmpty()) {
+            window.submit(currentOwner, batch, attempt);
+        }
+    }
+
+    private void write(NodeInfoVo owner, List<Long> batch, int attempt, BatchWindow window, LoadProgress progress) {
+        Collection<Long> refused;
+
+        try {
+            Collection<Long> response = client.assignOwnedKeySet(owner, batch);
+            refused = response == null ? List.of() : response;
+        } catch (RestClientException ex) {
+            logger.warn("batch of {} keys to {} failed: {}", batch.size(), owner, ex.getMessage());
+            refused = batch;
+        }
+
+        progress.onBatchWritten(batch.size() - refused.size());
+
+        if (refused.isEmpty()) {
+            return;
+        }
+
+        if (attempt >= properties.getMaxRetries()) {
+            logger.error("giving up on {} keys after {} attempts", refused.size(), attempt + 1);
+            progress.onFailed(refused.size());
+            return;
+        }
+
+        progress.onRedirected(refused.size());
+        refreshRing();
+        dispatch(new ArrayList<>(refused), attempt + 1, window);
+    }
+
+    private void refreshRing() {
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (now - lastRingRefreshMillis < MIN_RING_REFRESH_INTERVAL_MILLIS) {
+                return;
+            }
+
+            ringClient.bootstrap(entryNode);
+            lastRingRefreshMillis = now;
+        }
+    }
+
+    private BufferedReader openInput() throws IOException {
+        if (STDIN.equals(properties.getInputFile())) {
+            return new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        }
+
+        return Files.newBufferedReader(Path.of(properties.getInputFile()), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * numeric keys already on the ring are used as they are, anything else is hashed onto it.
+     */
+    private long toRingPosition(String key) {
+        try {
+            long value = Long.parseLong(key);
+            if (value >= 0L && value < ringSize) {
+                return value;
+            }
+        } catch (NumberFormatException ex) {
+            // not a ring position, hash it below
+        }
+
+        return new BigInteger(1, DigestUtils.sha1(key))
+            .mod(BigInteger.valueOf(ringSize))
+            .longValueExact();
+    }
+
+    /**
+     * bounds first attempts to max-in-flight-batches outstanding batches.
+     * retries skip the bound, they are few and must not wait on the writers they run on.
+     */
+    private class BatchWindow {
+
+        private final ExecutorService writers;
+        private final LoadProgress progress;
+        private final Semaphore inFlight;
+        private final Phaser outstanding;
+
+        private BatchWindow(ExecutorService writers, LoadProgress progress) {
+            this.writers = writers;
+            this.progress = progress;
+
+            inFlight = new Semaphore(properties.getMaxInFlightBatches());
+            outstanding = new Phaser(1);
+        }
+
+        private void submit(NodeInfoVo owner, List<Long> batch, int attempt) {
+            boolean windowed = attempt == 0;
+
+            if (windowed) {
+                inFlight.acquireUninterruptibly();
+            }
+            outstanding.register();
+
+            writers.execute(() -> {
+                try {
+                    write(owner, batch, attempt, this, progress);
+                } catch (RuntimeException ex) {
+                    logger.error("batch of {} keys to {} failed", batch.size(), owner, ex);
+                    progress.onFailed(batch.size());
+                } finally {
+                    if (windowed) {
+                        inFlight.release();
+                    }
+                    outstanding.arriveAndDeregister();
+                }
+            });
+        }
+
+        private void awaitAll() {
+            outstanding.arriveAndAwaitAdvance();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.gty.chord.loader;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LoadProgress {
+
+    private final Instant startedAt;
+
+    private final LongAdder read;
+    private final LongAdder written;
+    private final LongAdder redirected;
+    private final LongAdder failed;
+    private final LongAdder batches;
+
+    private long lastWritten;
+    private Instant lastReportedAt;
+
+    public LoadProgress() {
+        startedAt = Instant.now();
+        lastReportedAt = startedAt;
+
+        read = new LongAdder();
+        written = new LongAdder();
+        redirected = new LongAdder();
+        failed = new LongAdder();
+        batches = new LongAdder();
+    }
+
+    public void onRead() {
+        read.increment();
+    }
+
+    public void onBatchWritten(int writtenKeys) {
+        batches.increment();
+        written.add(writtenKeys);
+    }
+
+    public void onRedirected(int keys) {
+        redirected.add(keys);
+    }
+
+    public void onFailed(int keys) {
+        failed.add(keys);
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * keys per second written since the previous call
+     */
+    public synchronized String intervalReport() {
+        Instant now = Instant.now();
+        long currentWritten = written.sum();
+
+        double rate = ratePerSecond(currentWritten - lastWritten, Duration.between(lastReportedAt, now));
+
+        lastWritten = currentWritten;
+        lastReportedAt = now;
+
+        return String.format("%,.0f keys/s, read %,d, written %,d, redirected %,d, failed %,d",
+            rate, read.sum(), currentWritten, redirected.sum(), failed.sum());
+    }
+
+    public String summary() {
+        Duration elapsed = Duration.between(startedAt, Instant.now());
+        long totalWritten = written.sum();
+
+        return String.format("wrote %,d of %,d keys in %,d batches within %.3f s (%,.0f keys/s), redirected %,d, failed %,d",
+            totalWritten, read.sum(), batches.sum(), elapsed.toMillis() / 1_000.0,
+            ratePerSecond(totalWritten, elapsed), redirected.sum(), failed.sum());
+    }
+
+    private static double ratePerSecond(long count, Duration duration) {
+        long millis = Math.max(1L, duration.toMillis());
+        return count * 1_000.0 / millis;
+    }
+}
@@ -0,0 +1,64 @@
+package org.gty.chord.loader.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConstructorBinding
+@ConfigurationProperties("loader")
+public class ChordBulkLoaderProperties {
+
+    private final String nodeAddress;
+    private final Integer nodePort;
+    private final String inputFile;
+
+    private final Integer batchSize;
+    private final Integer maxInFlightBatches;
+    private final Integer sortChunkSize;
+    private final Integer maxRetries;
+
+    public ChordBulkLoaderProperties(String nodeAddress,
+                                     Integer nodePort,
+                                     @DefaultValue("-") String inputFile,
+                                     @DefaultValue("1000") Integer batchSize,
+                                     @DefaultValue("64") Integer maxInFlightBatches,
+                                     @DefaultValue("1000000") Integer sortChunkSize,
+                                     @DefaultValue("3") Integer maxRetries) {
+        this.nodeAddress = nodeAddress;
+        this.nodePort = nodePort;
+        this.inputFile = inputFile;
+
+        this.batchSize = batchSize;
+        this.maxInFlightBatches = maxInFlightBatches;
+        this.sortChunkSize = sortChunkSize;
+        this.maxRetries = maxRetries;
+    }
+
+    public String getNodeAddress() {
+        return nodeAddress;
+    }
+
+    public Integer getNodePort() {
+        return nodePort;
+    }
+
+    public String getInputFile() {
+        return inputFile;
+    }
+
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public Integer getMaxInFlightBatches() {
+        return maxInFlightBatches;
+    }
+
+    public Integer getSortChunkSize() {
+        return sortChunkSize;
+    }
+
+    public Integer getMaxRetries() {
+        return maxRetries;
+    }
+}
@@ -0,0 +1,9 @@
+package org.gty.chord.loader.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ChordBulkLoaderProperties.class)
+public class ChordBulkLoaderPropertiesConfig {
+}
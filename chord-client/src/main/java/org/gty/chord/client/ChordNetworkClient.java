@@ -0,0 +1,301 @@
+package org.gty.chord.client;
+
+import org.gty.chord.model.FingerTableEntry;
+import org.gty.chord.model.KeyScanPageVo;
+import org.gty.chord.model.NodeInfoVo;
+import org.gty.chord.model.NodeStateVo;
+import org.gty.chord.model.TrafficStatsVo;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class ChordNetworkClient {
+
+    private static final String HTTP = "http://";
+    private static final String SEMICOLON = ":";
+    private static final String PATH_PREFIX = "/api";
+
+    private static final String GET_BASIC_INFO_PATH = PATH_PREFIX + "/get-basic-info";
+    private static final String GET_IMMEDIATE_SUCCESSOR_PATH = PATH_PREFIX + "/get-immediate-successor";
+    private static final String GET_IMMEDIATE_PREDECESSOR_PATH = PATH_PREFIX + "/get-immediate-predecessor";
+    private static final String GET_FINGER_TABLE = PATH_PREFIX + "/get-finger-table";
+    private static final String NODE_STATE = PATH_PREFIX + "/node-state";
+    private static final String FIND_SUCCESSOR = PATH_PREFIX + "/find-successor";
+    private static final String FIND_SUCCESSORS = PATH_PREFIX + "/find-successors";
+    private static final String ADD_KEY = PATH_PREFIX + "/add-key";
+    private static final String ASSIGN_KEY = PATH_PREFIX + "/assign-key";
+    private static final String ASSIGN_OWNED_KEY_SET = PATH_PREFIX + "/assign-owned-key-set";
+    private static final String SCAN_KEYS = PATH_PREFIX + "/scan-keys";
+    private static final String CONTAINS_KEY = PATH_PREFIX + "/contains-key";
+    private static final String TRAFFIC_STATS = PATH_PREFIX + "/traffic-stats";
+
+    private final RestTemplate restTemplate;
+
+    public ChordNetworkClient(RestTemplateBuilder builder) {
+        restTemplate = builder.build();
+
+        // ask nodes for smile first, json stays in the accept header as a fallback
+        restTemplate.getMessageConverters().add(0, new MappingJackson2SmileHttpMessageConverter());
+    }
+
+    public NodeInfoVo queryNodeInfo(String address, int port) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrl(address, port, GET_BASIC_INFO_PATH))
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return restTemplate.getForObject(uri, NodeInfoVo.class);
+    }
+
+    public boolean healthCheck(NodeInfoVo targetNode) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, GET_BASIC_INFO_PATH))
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        try {
+            NodeInfoVo result = restTemplate.getForObject(uri, NodeInfoVo.class);
+            return result != null;
+        } catch (RestClientException ex) {
+            return false;
+        }
+    }
+
+    public NodeInfoVo queryImmediateSuccessor(NodeInfoVo targetNode) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, GET_IMMEDIATE_SUCCESSOR_PATH))
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return restTemplate.getForObject(uri, NodeInfoVo.class);
+    }
+
+    public NodeInfoVo queryImmediatePredecessor(NodeInfoVo targetNode) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, GET_IMMEDIATE_PREDECESSOR_PATH))
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return restTemplate.getForObject(uri, NodeInfoVo.class);
+    }
+
+    public List<FingerTableEntry> queryFingerTable(NodeInfoVo targetNode) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, GET_FINGER_TABLE))
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return restTemplate.exchange(uri,
+            HttpMethod.GET,
+            null,
+            new ParameterizedTypeReference<List<FingerTableEntry>>() {})
+            .getBody();
+    }
+
+    /**
+     * successor, predecessor, finger table and key count of a node in one call
+     *
+     * @param cached state returned by the previous call for the same node, or null
+     * @return the cached state itself when the node reports it unchanged
+     */
+    public NodeStateVo queryNodeState(NodeInfoVo targetNode, NodeStateVo cached) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, NODE_STATE))
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        HttpHeaders headers = new HttpHeaders();
+        if (cached != null && cached.getEntityTag() != null) {
+            headers.setIfNoneMatch(cached.getEntityTag());
+        }
+
+        ResponseEntity<NodeStateVo> response = restTemplate.exchange(uri,
+            HttpMethod.GET,
+            new HttpEntity<>(headers),
+            NodeStateVo.class);
+
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            return cached;
+        }
+
+        NodeStateVo nodeState = response.getBody();
+        if (nodeState != null) {
+            nodeState.setEntityTag(response.getHeaders().getETag());
+        }
+        return nodeState;
+    }
+
+    public NodeInfoVo findSuccessor(NodeInfoVo targetNode, long key) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, FIND_SUCCESSOR))
+            .queryParam("id", key)
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return restTemplate.getForObject(uri, NodeInfoVo.class);
+    }
+
+    /**
+     * @param timeoutMillis how long the caller waits, the nodes along the lookup path give up after that too
+     */
+    public NodeInfoVo findSuccessor(NodeInfoVo targetNode, long key, long timeoutMillis) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, FIND_SUCCESSOR))
+            .queryParam("id", key)
+            .queryParam("timeoutMillis", timeoutMillis)
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return restTemplate.getForObject(uri, NodeInfoVo.class);
+    }
+
+    /**
+     * successors of many ids in one call, the target node splits the batch along its fingers
+     */
+    public Map<Long, NodeInfoVo> findSuccessors(NodeInfoVo targetNode, long[] ids) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, FIND_SUCCESSORS))
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return restTemplate.exchange(uri,
+            HttpMethod.POST,
+            new HttpEntity<>(ids),
+            new ParameterizedTypeReference<Map<Long, NodeInfoVo>>() {})
+            .getBody();
+    }
+
+    /**
+     * adds key through the target node, which routes it to the owner
+     */
+    public NodeInfoVo addKey(NodeInfoVo targetNode, long key) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, ADD_KEY))
+            .queryParam("key", key)
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return restTemplate.getForObject(uri, NodeInfoVo.class);
+    }
+
+    /**
+     * @param ttlMillis the key is removed once it is older than this
+     */
+    public NodeInfoVo addKey(NodeInfoVo targetNode, long key, long ttlMillis) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, ADD_KEY))
+            .queryParam("key", key)
+            .queryParam("ttlMillis", ttlMillis)
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return restTemplate.getForObject(uri, NodeInfoVo.class);
+    }
+
+    public NodeInfoVo assignKey(NodeInfoVo targetNode, long key) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, ASSIGN_KEY))
+            .queryParam("key", key)
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return restTemplate.getForObject(uri, NodeInfoVo.class);
+    }
+
+    /**
+     * @param ttlMillis the key is removed once it is older than this
+     */
+    public NodeInfoVo assignKey(NodeInfoVo targetNode, long key, long ttlMillis) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, ASSIGN_KEY))
+            .queryParam("key", key)
+            .queryParam("ttlMillis", ttlMillis)
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return restTemplate.getForObject(uri, NodeInfoVo.class);
+    }
+
+    /**
+     * @return keys the target node refused because it does not own them
+     */
+    public Set<Long> assignOwnedKeySet(NodeInfoVo targetNode, Collection<Long> keys) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, ASSIGN_OWNED_KEY_SET))
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return restTemplate.exchange(uri,
+            HttpMethod.POST,
+            new HttpEntity<>(keys),
+            new ParameterizedTypeReference<Set<Long>>() {})
+            .getBody();
+    }
+
+    /**
+     * @param origin where the whole scan started, the node tells from it whether the scan ends with it
+     */
+    public KeyScanPageVo scanKeys(NodeInfoVo targetNode, long origin, long from, long to, int limit) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, SCAN_KEYS))
+            .queryParam("origin", origin)
+            .queryParam("from", from)
+            .queryParam("to", to)
+            .queryParam("limit", limit)
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return restTemplate.getForObject(uri, KeyScanPageVo.class);
+    }
+
+    /**
+     * whether key is held anywhere in the ring, asked through the target node.
+     * a miss is usually answered without reaching the key's owner.
+     */
+    public boolean containsKey(NodeInfoVo targetNode, long key) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, CONTAINS_KEY))
+            .queryParam("key", key)
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return Boolean.TRUE.equals(restTemplate.getForObject(uri, Boolean.class));
+    }
+
+    /**
+     * lookups served and forwarded and keys assigned per range of ids, and forwarded lookups per finger
+     */
+    public TrafficStatsVo queryTrafficStats(NodeInfoVo targetNode) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, TRAFFIC_STATS))
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return restTemplate.getForObject(uri, TrafficStatsVo.class);
+    }
+
+    private static String buildUrlFromNode(NodeInfoVo targetNode, String path) {
+        return buildUrl(targetNode.getNodeAddress(), targetNode.getNodePort(), path);
+    }
+
+    private static String buildUrl(String address, int port, String path) {
+        return HTTP + address + SEMICOLON + port + path;
+    }
+}
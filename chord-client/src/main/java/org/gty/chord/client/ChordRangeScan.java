@@ -0,0 +1,128 @@
+package org.gty.chord.client;
+
+import org.gty.chord.model.KeyScanPageVo;
+import org.gty.chord.model.NodeInfoVo;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * pages of keys in [fromId, toId], in ring order, read by walking successor links
+ * from the owner of fromId. every node is told where the scan started, so it can tell
+ * from the distance covered whether the scan ends with it, wrapping scans included.
+ *
+ * as soon as a page arrives the request for the following one is sent, either the
+ * next page of the same node or the first page of its successor, so the network
+ * round trip overlaps with the caller consuming the current page.
+ */
+public class ChordRangeScan implements Iterator<List<Long>> {
+
+    private final ChordNetworkClient client;
+    private final Executor prefetchExecutor;
+
+    private final long fromId;
+    private final long toId;
+    private final int pageSize;
+    private final long firstOwnerId;
+    private boolean firstOwnerRevisited;
+
+    private long remaining;
+    private CompletableFuture<KeyScanPageVo> pending;
+    private List<Long> buffered;
+
+    ChordRangeScan(ChordNetworkClient client,
+                   Executor prefetchExecutor,
+                   NodeInfoVo firstOwner,
+                   long fromId,
+                   long toId,
+                   long limit,
+                   int pageSize) {
+        this.client = client;
+        this.prefetchExecutor = prefetchExecutor;
+        this.fromId = fromId;
+        this.toId = toId;
+        this.pageSize = pageSize;
+
+        firstOwnerId = firstOwner.getNodeId();
+        remaining = limit;
+        pending = limit > 0 ? fetch(firstOwner, fromId) : null;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (buffered == null && pending != null) {
+            KeyScanPageVo page = await(pending);
+            pending = prefetchAfter(page);
+
+            List<Long> keys = page.getKeys() == null ? List.of() : page.getKeys();
+            if (keys.size() > remaining) {
+                keys = keys.subList(0, (int) remaining);
+            }
+
+            remaining -= keys.size();
+            if (remaining <= 0) {
+                pending = null;
+            }
+
+            if (!keys.isEmpty()) {
+                buffered = keys;
+            }
+        }
+
+        return buffered != null;
+    }
+
+    @Override
+    public List<Long> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        List<Long> page = buffered;
+        buffered = null;
+        return page;
+    }
+
+    private CompletableFuture<KeyScanPageVo> prefetchAfter(KeyScanPageVo page) {
+        if (page.isHasMore()) {
+            List<Long> keys = page.getKeys();
+            return fetch(page.getNode(), keys.get(keys.size() - 1) + 1L);
+        }
+
+        NodeInfoVo successor = page.getSuccessor();
+        if (page.isLastOwner() || successor == null) {
+            return null;
+        }
+
+        // a wrapping scan comes back to its first owner once, a second time means the ring is broken
+        if (Objects.equals(successor.getNodeId(), firstOwnerId)) {
+            if (firstOwnerRevisited) {
+                return null;
+            }
+            firstOwnerRevisited = true;
+        }
+
+        // the successor's range starts right after the node just scanned
+        return fetch(successor, page.getNode().getNodeId() + 1L);
+    }
+
+    private CompletableFuture<KeyScanPageVo> fetch(NodeInfoVo node, long from) {
+        return CompletableFuture.supplyAsync(() -> client.scanKeys(node, fromId, from, toId, pageSize), prefetchExecutor);
+    }
+
+    private static KeyScanPageVo await(CompletableFuture<KeyScanPageVo> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+}
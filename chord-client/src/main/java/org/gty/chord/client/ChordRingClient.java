@@ -0,0 +1,269 @@
+package org.gty.chord.client;
+
+import com.google.common.collect.Streams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.gty.chord.model.NodeInfoVo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClientException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ring-aware client that routes requests in one hop.
+ *
+ * it keeps a sorted map of node ids, computes the owner of an id locally and asks
+ * the node right before the owner, whose own successor pointer settles the lookup
+ * without further forwarding. when the answer does not match the map, or the
+ * contacted node is gone, the map is patched right away and rebuilt in the background.
+ */
+public class ChordRingClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChordRingClient.class);
+
+    private static final int MAX_RING_WALK = 65_536;
+    private static final int DEFAULT_SCAN_PAGE_SIZE = 1_000;
+
+    private final AtomicReference<NavigableMap<Long, NodeInfoVo>> ring;
+    private final AtomicBoolean refreshing;
+    private final ExecutorService backgroundExecutor;
+
+    private final ChordNetworkClient client;
+
+    public ChordRingClient(ChordNetworkClient client) {
+        this.client = client;
+
+        ring = new AtomicReference<>(new TreeMap<>());
+        refreshing = new AtomicBoolean(false);
+        backgroundExecutor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("chord-ring-client-%d")
+            .setDaemon(true)
+            .build());
+    }
+
+    public boolean isBootstrapped() {
+        return !ring.get().isEmpty();
+    }
+
+    public NavigableMap<Long, NodeInfoVo> getRing() {
+        return ring.get();
+    }
+
+    /**
+     * builds the ring map by walking successor pointers from the given node.
+     */
+    public void bootstrap(NodeInfoVo anyNode) {
+        NavigableMap<Long, NodeInfoVo> walked = new TreeMap<>();
+        NodeInfoVo current = anyNode;
+
+        while (current != null && !walked.containsKey(current.getNodeId()) && walked.size() < MAX_RING_WALK) {
+            walked.put(current.getNodeId(), current);
+            current = client.queryImmediateSuccessor(current);
+        }
+
+        ring.set(walked);
+        logger.info("ring map rebuilt with {} nodes", walked.size());
+    }
+
+    /**
+     * replaces the ring map with nodes already known to the caller, e.g. from a crawl.
+     */
+    public void seed(Collection<NodeInfoVo> nodes) {
+        NavigableMap<Long, NodeInfoVo> seeded = new TreeMap<>();
+        nodes.forEach(node -> seeded.put(node.getNodeId(), node));
+
+        ring.set(seeded);
+    }
+
+    /**
+     * owner of id according to the cached ring map: the first node clockwise from id.
+     */
+    public NodeInfoVo ownerOf(long id) {
+        NavigableMap<Long, NodeInfoVo> current = requireRing();
+
+        Map.Entry<Long, NodeInfoVo> owner = current.ceilingEntry(id);
+        return owner != null ? owner.getValue() : current.firstEntry().getValue();
+    }
+
+    private NodeInfoVo predecessorOf(long id) {
+        NavigableMap<Long, NodeInfoVo> current = requireRing();
+
+        Map.Entry<Long, NodeInfoVo> predecessor = current.lowerEntry(id);
+        return predecessor != null ? predecessor.getValue() : current.lastEntry().getValue();
+    }
+
+    public NodeInfoVo findSuccessor(long id) {
+        NodeInfoVo expectedOwner = ownerOf(id);
+        NodeInfoVo entryNode = predecessorOf(id);
+
+        NodeInfoVo owner;
+        try {
+            owner = client.findSuccessor(entryNode, id);
+        } catch (HttpServerErrorException.ServiceUnavailable ex) {
+            // the node before the owner is shedding load, it is still part of the ring
+            logger.debug("ring map entry {} is busy, falling back", entryNode);
+            owner = client.findSuccessor(expectedOwner, id);
+        } catch (RestClientException ex) {
+            // the node before the owner is gone, fall back to a normal lookup through the owner
+            logger.debug("ring map entry {} is unreachable, falling back", entryNode);
+            forget(entryNode);
+            owner = client.findSuccessor(expectedOwner, id);
+        }
+
+        if (!Objects.equals(owner.getNodeId(), expectedOwner.getNodeId())) {
+            logger.debug("ring map miss for id {}: expected {}, got {}", id, expectedOwner, owner);
+            learn(owner);
+        }
+
+        return owner;
+    }
+
+    /**
+     * successors of many ids, one batch per node that precedes an owner in the ring map.
+     * a batch whose entry node can not be reached is sent to the first expected owner instead,
+     * which forwards the ids it does not own itself.
+     */
+    public Map<Long, NodeInfoVo> findSuccessors(long... ids) {
+        Map<Long, NodeInfoVo> entryNodes = new LinkedHashMap<>();
+        Map<Long, List<Long>> idsByEntryNode = new LinkedHashMap<>();
+
+        for (long id : ids) {
+            NodeInfoVo entryNode = predecessorOf(id);
+            entryNodes.putIfAbsent(entryNode.getNodeId(), entryNode);
+            idsByEntryNode.computeIfAbsent(entryNode.getNodeId(), key -> new ArrayList<>()).add(id);
+        }
+
+        List<CompletableFuture<Map<Long, NodeInfoVo>>> batches = idsByEntryNode.entrySet().stream()
+            .map(entry -> CompletableFuture.supplyAsync(
+                () -> findSuccessorBatch(entryNodes.get(entry.getKey()), entry.getValue()),
+                backgroundExecutor))
+            .collect(Collectors.toUnmodifiableList());
+
+        Map<Long, NodeInfoVo> owners = new HashMap<>();
+        batches.forEach(batch -> owners.putAll(batch.join()));
+        return owners;
+    }
+
+    private Map<Long, NodeInfoVo> findSuccessorBatch(NodeInfoVo entryNode, List<Long> ids) {
+        long[] batch = ids.stream().mapToLong(Long::longValue).toArray();
+        NodeInfoVo expectedOwner = ownerOf(batch[0]);
+
+        Map<Long, NodeInfoVo> owners;
+        try {
+            owners = client.findSuccessors(entryNode, batch);
+        } catch (HttpServerErrorException.ServiceUnavailable ex) {
+            logger.debug("ring map entry {} is busy, falling back", entryNode);
+            owners = client.findSuccessors(expectedOwner, batch);
+        } catch (RestClientException ex) {
+            logger.debug("ring map entry {} is unreachable, falling back", entryNode);
+            forget(entryNode);
+            owners = client.findSuccessors(expectedOwner, batch);
+        }
+
+        owners.forEach((id, owner) -> {
+            if (!Objects.equals(owner.getNodeId(), ownerOf(id).getNodeId())) {
+                logger.debug("ring map miss for id {}: got {}", id, owner);
+                learn(owner);
+            }
+        });
+
+        return owners;
+    }
+
+    public NodeInfoVo addKey(long key) {
+        NodeInfoVo owner = findSuccessor(key);
+
+        return client.assignKey(owner, key);
+    }
+
+    /**
+     * @param ttlMillis the key is removed once it is older than this
+     */
+    public NodeInfoVo addKey(long key, long ttlMillis) {
+        NodeInfoVo owner = findSuccessor(key);
+
+        return client.assignKey(owner, key, ttlMillis);
+    }
+
+    public ChordRangeScan scan(long fromId, long toId, long limit) {
+        return scan(fromId, toId, limit, DEFAULT_SCAN_PAGE_SIZE);
+    }
+
+    /**
+     * pages of keys in [fromId, toId] in ring order, at most limit keys in total.
+     */
+    public ChordRangeScan scan(long fromId, long toId, long limit, int pageSize) {
+        NodeInfoVo firstOwner = findSuccessor(fromId);
+
+        return new ChordRangeScan(client, backgroundExecutor, firstOwner, fromId, toId, limit, pageSize);
+    }
+
+    public Stream<Long> scanKeys(long fromId, long toId, long limit) {
+        return Streams.stream(scan(fromId, toId, limit))
+            .flatMap(List::stream);
+    }
+
+    private void learn(NodeInfoVo node) {
+        ring.updateAndGet(current -> {
+            NavigableMap<Long, NodeInfoVo> patched = new TreeMap<>(current);
+            patched.put(node.getNodeId(), node);
+            return patched;
+        });
+
+        refreshInBackground(node);
+    }
+
+    private void forget(NodeInfoVo node) {
+        ring.updateAndGet(current -> {
+            NavigableMap<Long, NodeInfoVo> patched = new TreeMap<>(current);
+            patched.remove(node.getNodeId());
+            return patched;
+        });
+
+        ring.get().values().stream()
+            .findFirst()
+            .ifPresent(this::refreshInBackground);
+    }
+
+    private void refreshInBackground(NodeInfoVo from) {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        CompletableFuture.runAsync(() -> {
+            try {
+                bootstrap(from);
+            } catch (RestClientException ex) {
+                logger.warn("failed to rebuild ring map from {}: {}", from, ex.getMessage());
+            } finally {
+                refreshing.set(false);
+            }
+        }, backgroundExecutor);
+    }
+
+    private NavigableMap<Long, NodeInfoVo> requireRing() {
+        NavigableMap<Long, NodeInfoVo> current = ring.get();
+
+        if (current.isEmpty()) {
+            throw new IllegalStateException("ring map is empty, bootstrap the client first");
+        }
+
+        return current;
+    }
+}
@@ -0,0 +1,65 @@
+package org.gty.chord.model;
+
+import com.google.common.base.MoreObjects;
+
+import java.util.List;
+
+public class KeyScanPageVo {
+
+    private List<Long> keys;
+    private NodeInfoVo node;
+    private NodeInfoVo successor;
+    private boolean hasMore;
+    private boolean lastOwner;
+
+    public List<Long> getKeys() {
+        return keys;
+    }
+
+    public void setKeys(List<Long> keys) {
+        this.keys = keys;
+    }
+
+    public NodeInfoVo getNode() {
+        return node;
+    }
+
+    public void setNode(NodeInfoVo node) {
+        this.node = node;
+    }
+
+    public NodeInfoVo getSuccessor() {
+        return successor;
+    }
+
+    public void setSuccessor(NodeInfoVo successor) {
+        this.successor = successor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public boolean isLastOwner() {
+        return lastOwner;
+    }
+
+    public void setLastOwner(boolean lastOwner) {
+        this.lastOwner = lastOwner;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("keys", keys.size())
+            .add("node", node)
+            .add("successor", successor)
+            .add("hasMore", hasMore)
+            .add("lastOwner", lastOwner)
+            .toString();
+    }
+}
@@ -10,6 +10,7 @@ public class NodeInfoVo {
     private String nodeAddress;
     private Integer nodePort;
     private Long nodeId;
+    private String zone;
 
     public String getNodeName() {
         return nodeName;
@@ -43,6 +44,14 @@ public class NodeInfoVo {
         this.nodeId = nodeId;
     }
 
+    public String getZone() {
+        return zone;
+    }
+
+    public void setZone(String zone) {
+        this.zone = zone;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -66,6 +75,7 @@ public class NodeInfoVo {
             .add("nodeAddress", nodeAddress)
             .add("nodePort", nodePort)
             .add("nodeId", nodeId)
+            .add("zone", zone)
             .toString();
     }
 }
@@ -0,0 +1,101 @@
+package org.gty.chord.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.google.common.base.MoreObjects;
+
+import java.util.List;
+
+public class NodeStateVo {
+
+    private NodeInfoVo node;
+    private NodeInfoVo successor;
+    private NodeInfoVo predecessor;
+    private List<FingerTableEntry> fingerTable;
+    private int keyCount;
+    private long version;
+    private int fingerRingSizeBits;
+
+    // etag the node sent along, for the next conditional request
+    @JsonIgnore
+    private String entityTag;
+
+    public NodeStateVo() {
+    }
+
+    public NodeInfoVo getNode() {
+        return node;
+    }
+
+    public void setNode(NodeInfoVo node) {
+        this.node = node;
+    }
+
+    public NodeInfoVo getSuccessor() {
+        return successor;
+    }
+
+    public void setSuccessor(NodeInfoVo successor) {
+        this.successor = successor;
+    }
+
+    public NodeInfoVo getPredecessor() {
+        return predecessor;
+    }
+
+    public void setPredecessor(NodeInfoVo predecessor) {
+        this.predecessor = predecessor;
+    }
+
+    public List<FingerTableEntry> getFingerTable() {
+        return fingerTable;
+    }
+
+    public void setFingerTable(List<FingerTableEntry> fingerTable) {
+        this.fingerTable = fingerTable;
+    }
+
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    public void setKeyCount(int keyCount) {
+        this.keyCount = keyCount;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public int getFingerRingSizeBits() {
+        return fingerRingSizeBits;
+    }
+
+    public void setFingerRingSizeBits(int fingerRingSizeBits) {
+        this.fingerRingSizeBits = fingerRingSizeBits;
+    }
+
+    public String getEntityTag() {
+        return entityTag;
+    }
+
+    public void setEntityTag(String entityTag) {
+        this.entityTag = entityTag;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("node", node)
+            .add("successor", successor)
+            .add("predecessor", predecessor)
+            .add("fingerTable", fingerTable)
+            .add("keyCount", keyCount)
+            .add("version", version)
+            .add("fingerRingSizeBits", fingerRingSizeBits)
+            .toString();
+    }
+}
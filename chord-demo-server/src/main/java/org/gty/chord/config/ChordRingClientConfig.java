@@ -0,0 +1,15 @@
+package org.gty.chord.config;
+
+import org.gty.chord.client.ChordNetworkClient;
+import org.gty.chord.client.ChordRingClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ChordRingClientConfig {
+
+    @Bean
+    public ChordRingClient chordRingClient(ChordNetworkClient chordNetworkClient) {
+        return new ChordRingClient(chordNetworkClient);
+    }
+}
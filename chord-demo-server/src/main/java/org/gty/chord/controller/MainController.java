@@ -1,15 +1,21 @@
 package org.gty.chord.controller;
 
+import org.gty.chord.model.ConvergenceEvent;
 import org.gty.chord.model.NodeInfoDetailVo;
 import org.gty.chord.model.NodeInfoVo;
 import org.gty.chord.model.RegisterNodeForm;
+import org.gty.chord.model.RingHealthReport;
+import org.gty.chord.model.RingTrafficVo;
 import org.gty.chord.service.ChordNetworkService;
+import org.gty.chord.service.ChordRingEventPublisher;
+import org.gty.chord.service.RingHealthChecker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -19,9 +25,15 @@ public class MainController {
     private static final Logger logger = LoggerFactory.getLogger(MainController.class);
 
     private final ChordNetworkService chordNetworkService;
+    private final ChordRingEventPublisher chordRingEventPublisher;
+    private final RingHealthChecker ringHealthChecker;
 
-    public MainController(ChordNetworkService chordNetworkService) {
+    public MainController(ChordNetworkService chordNetworkService,
+                          ChordRingEventPublisher chordRingEventPublisher,
+                          RingHealthChecker ringHealthChecker) {
         this.chordNetworkService = chordNetworkService;
+        this.chordRingEventPublisher = chordRingEventPublisher;
+        this.ringHealthChecker = ringHealthChecker;
     }
 
     @GetMapping("/main.do")
@@ -61,4 +73,28 @@ public class MainController {
                                     @RequestParam("key") Long key) {
         return chordNetworkService.findSuccessor(id, key);
     }
+
+    @GetMapping(value = "/api/ring-traffic", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public RingTrafficVo ringTraffic() {
+        return chordNetworkService.queryRingTraffic();
+    }
+
+    @GetMapping(value = "/api/ring-health", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public List<RingHealthReport> ringHealth() {
+        return ringHealthChecker.getHistory();
+    }
+
+    @GetMapping(value = "/api/ring-convergence", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public List<ConvergenceEvent> ringConvergence() {
+        return ringHealthChecker.getConvergenceEvents();
+    }
+
+    @GetMapping(value = "/api/ring-events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter ringEvents() {
+        return chordRingEventPublisher.subscribe();
+    }
 }
@@ -0,0 +1,40 @@
+package org.gty.chord.job;
+
+import org.gty.chord.service.ChordTopologyAggregator;
+import org.gty.chord.service.RingHealthChecker;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+import javax.annotation.Nonnull;
+
+@DisallowConcurrentExecution
+public class ChordTopologyRefreshJob extends QuartzJobBean {
+
+    private ChordTopologyAggregator chordTopologyAggregator;
+    private RingHealthChecker ringHealthChecker;
+
+    public ChordTopologyAggregator getChordTopologyAggregator() {
+        return chordTopologyAggregator;
+    }
+
+    public void setChordTopologyAggregator(ChordTopologyAggregator chordTopologyAggregator) {
+        this.chordTopologyAggregator = chordTopologyAggregator;
+    }
+
+    public RingHealthChecker getRingHealthChecker() {
+        return ringHealthChecker;
+    }
+
+    public void setRingHealthChecker(RingHealthChecker ringHealthChecker) {
+        this.ringHealthChecker = ringHealthChecker;
+    }
+
+    @Override
+    protected void executeInternal(@Nonnull JobExecutionContext context) {
+        chordTopologyAggregator.refresh();
+
+        // right after the crawl, the snapshot is as close to consistent as it gets
+        ringHealthChecker.check();
+    }
+}
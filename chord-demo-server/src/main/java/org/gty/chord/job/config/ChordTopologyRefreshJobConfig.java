@@ -0,0 +1,43 @@
+package org.gty.chord.job.config;
+
+import org.gty.chord.job.ChordTopologyRefreshJob;
+import org.gty.chord.service.ChordTopologyAggregator;
+import org.gty.chord.service.RingHealthChecker;
+import org.quartz.*;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+@Configuration
+public class ChordTopologyRefreshJobConfig {
+
+    private static final String CHORD_TOPOLOGY_AGGREGATOR = "chordTopologyAggregator";
+    private static final String RING_HEALTH_CHECKER = "ringHealthChecker";
+    private static final String CHORD_TOPOLOGY_REFRESH_JOB_IDENTITY = "chordTopologyRefreshJob";
+    private static final long CHORD_TOPOLOGY_REFRESH_JOB_MILLISECONDS = ChordTopologyAggregator.REFRESH_INTERVAL_MILLISECONDS;
+
+    @Bean
+    public JobDetail chordTopologyRefreshJobDetail(ChordTopologyAggregator chordTopologyAggregator,
+                                                   RingHealthChecker ringHealthChecker) {
+        return JobBuilder.newJob(ChordTopologyRefreshJob.class)
+            .withIdentity(CHORD_TOPOLOGY_REFRESH_JOB_IDENTITY)
+            .usingJobData(new JobDataMap(Map.of(CHORD_TOPOLOGY_AGGREGATOR, chordTopologyAggregator,
+                RING_HEALTH_CHECKER, ringHealthChecker)))
+            .storeDurably()
+            .build();
+    }
+
+    @Bean
+    public Trigger chordTopologyRefreshJobTrigger(JobDetail chordTopologyRefreshJobDetail) {
+        SimpleScheduleBuilder scheduleBuilder = SimpleScheduleBuilder.simpleSchedule()
+            .withIntervalInMilliseconds(CHORD_TOPOLOGY_REFRESH_JOB_MILLISECONDS)
+            .repeatForever();
+
+        return TriggerBuilder.newTrigger()
+            .forJob(chordTopologyRefreshJobDetail)
+            .withIdentity(CHORD_TOPOLOGY_REFRESH_JOB_IDENTITY)
+            .withSchedule(scheduleBuilder)
+            .build();
+    }
+}
@@ -0,0 +1,75 @@
+package org.gty.chord.model;
+
+import com.google.common.base.MoreObjects;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * a change of the ring's membership and how long the ring took to repair itself after it
+ */
+public class ConvergenceEvent {
+
+    private final Instant disturbedAt;
+    private final int joined;
+    private final int left;
+    private final Instant successorsConvergedAt;
+    private final Instant convergedAt;
+
+    public ConvergenceEvent(Instant disturbedAt,
+                            int joined,
+                            int left,
+                            Instant successorsConvergedAt,
+                            Instant convergedAt) {
+        this.disturbedAt = disturbedAt;
+        this.joined = joined;
+        this.left = left;
+        this.successorsConvergedAt = successorsConvergedAt;
+        this.convergedAt = convergedAt;
+    }
+
+    public Instant getDisturbedAt() {
+        return disturbedAt;
+    }
+
+    public int getJoined() {
+        return joined;
+    }
+
+    public int getLeft() {
+        return left;
+    }
+
+    public Instant getSuccessorsConvergedAt() {
+        return successorsConvergedAt;
+    }
+
+    public Instant getConvergedAt() {
+        return convergedAt;
+    }
+
+    /**
+     * @return time until every lookup reached its owner again, which stabilize governs
+     */
+    public long getSuccessorsConvergenceMillis() {
+        return Duration.between(disturbedAt, successorsConvergedAt).toMillis();
+    }
+
+    /**
+     * @return time until every pointer was right again, which fix-fingers governs
+     */
+    public long getConvergenceMillis() {
+        return Duration.between(disturbedAt, convergedAt).toMillis();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("disturbedAt", disturbedAt)
+            .add("joined", joined)
+            .add("left", left)
+            .add("successorsConvergedAt", successorsConvergedAt)
+            .add("convergedAt", convergedAt)
+            .toString();
+    }
+}
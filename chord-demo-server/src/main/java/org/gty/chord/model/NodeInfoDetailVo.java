@@ -1,5 +1,6 @@
 package org.gty.chord.model;
 
+import java.time.Instant;
 import java.util.List;
 
 public class NodeInfoDetailVo {
@@ -8,6 +9,9 @@ public class NodeInfoDetailVo {
     private NodeInfoVo successor;
     private NodeInfoVo predecessor;
     private List<FingerTableEntry> fingerTable;
+    private boolean alive;
+    private boolean stale;
+    private Instant refreshedAt;
 
     public NodeInfoVo getNode() {
         return node;
@@ -40,4 +44,28 @@ public class NodeInfoDetailVo {
     public void setFingerTable(List<FingerTableEntry> fingerTable) {
         this.fingerTable = fingerTable;
     }
+
+    public boolean isAlive() {
+        return alive;
+    }
+
+    public void setAlive(boolean alive) {
+        this.alive = alive;
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    public void setStale(boolean stale) {
+        this.stale = stale;
+    }
+
+    public Instant getRefreshedAt() {
+        return refreshedAt;
+    }
+
+    public void setRefreshedAt(Instant refreshedAt) {
+        this.refreshedAt = refreshedAt;
+    }
 }
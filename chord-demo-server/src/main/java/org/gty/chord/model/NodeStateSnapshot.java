@@ -0,0 +1,87 @@
+package org.gty.chord.model;
+
+import com.google.common.base.MoreObjects;
+
+import java.time.Instant;
+import java.util.List;
+
+public class NodeStateSnapshot {
+
+    private final NodeInfoVo node;
+    private final NodeInfoVo successor;
+    private final NodeInfoVo predecessor;
+    private final List<FingerTableEntry> fingerTable;
+    private final boolean alive;
+    private final Instant refreshedAt;
+    private final Instant lastSeenAliveAt;
+
+    public NodeStateSnapshot(NodeInfoVo node,
+                             NodeInfoVo successor,
+                             NodeInfoVo predecessor,
+                             List<FingerTableEntry> fingerTable,
+                             boolean alive,
+                             Instant refreshedAt,
+                             Instant lastSeenAliveAt) {
+        this.node = node;
+        this.successor = successor;
+        this.predecessor = predecessor;
+        this.fingerTable = fingerTable;
+        this.alive = alive;
+        this.refreshedAt = refreshedAt;
+        this.lastSeenAliveAt = lastSeenAliveAt;
+    }
+
+    public static NodeStateSnapshot unreachable(NodeInfoVo node, NodeStateSnapshot previous, Instant now) {
+        if (previous == null) {
+            return new NodeStateSnapshot(node, null, null, List.of(), false, now, null);
+        }
+
+        return new NodeStateSnapshot(node,
+            previous.getSuccessor(),
+            previous.getPredecessor(),
+            previous.getFingerTable(),
+            false,
+            now,
+            previous.getLastSeenAliveAt());
+    }
+
+    public NodeInfoVo getNode() {
+        return node;
+    }
+
+    public NodeInfoVo getSuccessor() {
+        return successor;
+    }
+
+    public NodeInfoVo getPredecessor() {
+        return predecessor;
+    }
+
+    public List<FingerTableEntry> getFingerTable() {
+        return fingerTable;
+    }
+
+    public boolean isAlive() {
+        return alive;
+    }
+
+    public Instant getRefreshedAt() {
+        return refreshedAt;
+    }
+
+    public Instant getLastSeenAliveAt() {
+        return lastSeenAliveAt;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("node", node)
+            .add("successor", successor)
+            .add("predecessor", predecessor)
+            .add("alive", alive)
+            .add("refreshedAt", refreshedAt)
+            .add("lastSeenAliveAt", lastSeenAliveAt)
+            .toString();
+    }
+}
@@ -0,0 +1,61 @@
+package org.gty.chord.model;
+
+import java.util.List;
+
+public class NodeTrafficVo {
+
+    private NodeInfoVo node;
+    private long served;
+    private long forwarded;
+    private long assigned;
+    private List<FingerTableEntry> fingerTable;
+    private List<Long> fingerForwarded;
+
+    public NodeInfoVo getNode() {
+        return node;
+    }
+
+    public void setNode(NodeInfoVo node) {
+        this.node = node;
+    }
+
+    public long getServed() {
+        return served;
+    }
+
+    public void setServed(long served) {
+        this.served = served;
+    }
+
+    public long getForwarded() {
+        return forwarded;
+    }
+
+    public void setForwarded(long forwarded) {
+        this.forwarded = forwarded;
+    }
+
+    public long getAssigned() {
+        return assigned;
+    }
+
+    public void setAssigned(long assigned) {
+        this.assigned = assigned;
+    }
+
+    public List<FingerTableEntry> getFingerTable() {
+        return fingerTable;
+    }
+
+    public void setFingerTable(List<FingerTableEntry> fingerTable) {
+        this.fingerTable = fingerTable;
+    }
+
+    public List<Long> getFingerForwarded() {
+        return fingerForwarded;
+    }
+
+    public void setFingerForwarded(List<Long> fingerForwarded) {
+        this.fingerForwarded = fingerForwarded;
+    }
+}
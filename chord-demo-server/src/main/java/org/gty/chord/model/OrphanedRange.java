@@ -0,0 +1,41 @@
+package org.gty.chord.model;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * ids in (from, to] that lookups can not reach their owner for, because the
+ * owner's predecessor does not point to it as its successor
+ */
+public class OrphanedRange {
+
+    private final long from;
+    private final long to;
+    private final NodeInfoVo owner;
+
+    public OrphanedRange(long from, long to, NodeInfoVo owner) {
+        this.from = from;
+        this.to = to;
+        this.owner = owner;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    public NodeInfoVo getOwner() {
+        return owner;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("from", from)
+            .add("to", to)
+            .add("owner", owner)
+            .toString();
+    }
+}
@@ -0,0 +1,67 @@
+package org.gty.chord.model;
+
+import com.google.common.base.MoreObjects;
+
+import java.util.List;
+
+public class RingChangeEvent {
+
+    public enum Type {
+        NODE_JOINED("node-joined"),
+        NODE_LEFT("node-left"),
+        SUCCESSOR_CHANGED("successor-changed"),
+        PREDECESSOR_CHANGED("predecessor-changed"),
+        FINGER_TABLE_CHANGED("finger-table-changed");
+
+        private final String eventName;
+
+        Type(String eventName) {
+            this.eventName = eventName;
+        }
+
+        public String getEventName() {
+            return eventName;
+        }
+    }
+
+    private final Type type;
+    private final long nodeId;
+    private final NodeStateSnapshot snapshot;
+    private final List<Integer> changedFingerIndexes;
+
+    public RingChangeEvent(Type type, NodeStateSnapshot snapshot) {
+        this(type, snapshot, List.of());
+    }
+
+    public RingChangeEvent(Type type, NodeStateSnapshot snapshot, List<Integer> changedFingerIndexes) {
+        this.type = type;
+        this.nodeId = snapshot.getNode().getNodeId();
+        this.snapshot = snapshot;
+        this.changedFingerIndexes = changedFingerIndexes;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    public NodeStateSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public List<Integer> getChangedFingerIndexes() {
+        return changedFingerIndexes;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("type", type)
+            .add("nodeId", nodeId)
+            .add("changedFingerIndexes", changedFingerIndexes)
+            .toString();
+    }
+}
@@ -0,0 +1,144 @@
+package org.gty.chord.model;
+
+import com.google.common.base.MoreObjects;
+
+import java.time.Instant;
+import java.util.List;
+
+public class RingHealthReport {
+
+    private final Instant checkedAt;
+    private final int nodeCount;
+    private final int successorsCorrect;
+    private final int predecessorsCorrect;
+    private final int fingersCorrect;
+    private final int fingerCount;
+    private final List<OrphanedRange> orphanedRanges;
+    private final double orphanedFraction;
+    private final int sampledLookups;
+    private final int failedLookups;
+    private final double expectedHops;
+    private final double actualHops;
+    private final Instant disturbedAt;
+
+    public RingHealthReport(Instant checkedAt,
+                            int nodeCount,
+                            int successorsCorrect,
+                            int predecessorsCorrect,
+                            int fingersCorrect,
+                            int fingerCount,
+                            List<OrphanedRange> orphanedRanges,
+                            double orphanedFraction,
+                            int sampledLookups,
+                            int failedLookups,
+                            double expectedHops,
+                            double actualHops,
+                            Instant disturbedAt) {
+        this.checkedAt = checkedAt;
+        this.nodeCount = nodeCount;
+        this.successorsCorrect = successorsCorrect;
+        this.predecessorsCorrect = predecessorsCorrect;
+        this.fingersCorrect = fingersCorrect;
+        this.fingerCount = fingerCount;
+        this.orphanedRanges = orphanedRanges;
+        this.orphanedFraction = orphanedFraction;
+        this.sampledLookups = sampledLookups;
+        this.failedLookups = failedLookups;
+        this.expectedHops = expectedHops;
+        this.actualHops = actualHops;
+        this.disturbedAt = disturbedAt;
+    }
+
+    public Instant getCheckedAt() {
+        return checkedAt;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getSuccessorsCorrect() {
+        return successorsCorrect;
+    }
+
+    public int getPredecessorsCorrect() {
+        return predecessorsCorrect;
+    }
+
+    public int getFingersCorrect() {
+        return fingersCorrect;
+    }
+
+    public int getFingerCount() {
+        return fingerCount;
+    }
+
+    /**
+     * @return share of successor, predecessor and finger pointers that point where they should, in percent
+     */
+    public double getCorrectPointerPercentage() {
+        int pointers = 2 * nodeCount + fingerCount;
+        return pointers == 0 ? 100.0 : 100.0 * (successorsCorrect + predecessorsCorrect + fingersCorrect) / pointers;
+    }
+
+    public List<OrphanedRange> getOrphanedRanges() {
+        return orphanedRanges;
+    }
+
+    public double getOrphanedFraction() {
+        return orphanedFraction;
+    }
+
+    public int getSampledLookups() {
+        return sampledLookups;
+    }
+
+    public int getFailedLookups() {
+        return failedLookups;
+    }
+
+    public double getExpectedHops() {
+        return expectedHops;
+    }
+
+    public double getActualHops() {
+        return actualHops;
+    }
+
+    /**
+     * @return when the membership last changed without the ring having converged since, null when it has
+     */
+    public Instant getDisturbedAt() {
+        return disturbedAt;
+    }
+
+    /**
+     * successors are enough for every lookup to reach its owner, only slower
+     */
+    public boolean isSuccessorsConverged() {
+        return successorsCorrect == nodeCount && orphanedRanges.isEmpty();
+    }
+
+    public boolean isConverged() {
+        return isSuccessorsConverged() && predecessorsCorrect == nodeCount && fingersCorrect == fingerCount;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("checkedAt", checkedAt)
+            .add("nodeCount", nodeCount)
+            .add("successorsCorrect", successorsCorrect)
+            .add("predecessorsCorrect", predecessorsCorrect)
+            .add("fingersCorrect", fingersCorrect)
+            .add("fingerCount", fingerCount)
+            .add("orphanedRanges", orphanedRanges.size())
+            .add("orphanedFraction", orphanedFraction)
+            .add("sampledLookups", sampledLookups)
+            .add("failedLookups", failedLookups)
+            .add("expectedHops", expectedHops)
+            .add("actualHops", actualHops)
+            .add("disturbedAt", disturbedAt)
+            .toString();
+    }
+}
@@ -0,0 +1,52 @@
+package org.gty.chord.model;
+
+import java.util.List;
+
+public class RingTrafficVo {
+
+    private long bucketWidth;
+    private List<Long> served;
+    private List<Long> forwarded;
+    private List<Long> assigned;
+    private List<NodeTrafficVo> nodes;
+
+    public long getBucketWidth() {
+        return bucketWidth;
+    }
+
+    public void setBucketWidth(long bucketWidth) {
+        this.bucketWidth = bucketWidth;
+    }
+
+    public List<Long> getServed() {
+        return served;
+    }
+
+    public void setServed(List<Long> served) {
+        this.served = served;
+    }
+
+    public List<Long> getForwarded() {
+        return forwarded;
+    }
+
+    public void setForwarded(List<Long> forwarded) {
+        this.forwarded = forwarded;
+    }
+
+    public List<Long> getAssigned() {
+        return assigned;
+    }
+
+    public void setAssigned(List<Long> assigned) {
+        this.assigned = assigned;
+    }
+
+    public List<NodeTrafficVo> getNodes() {
+        return nodes;
+    }
+
+    public void setNodes(List<NodeTrafficVo> nodes) {
+        this.nodes = nodes;
+    }
+}
@@ -1,72 +1,152 @@
 package org.gty.chord.service;
 
-import com.google.common.collect.Sets;
-import org.gty.chord.model.FingerTableEntry;
+import org.gty.chord.client.ChordNetworkClient;
+import org.gty.chord.client.ChordRingClient;
 import org.gty.chord.model.NodeInfoDetailVo;
 import org.gty.chord.model.NodeInfoVo;
+import org.gty.chord.model.NodeStateSnapshot;
+import org.gty.chord.model.NodeTrafficVo;
 import org.gty.chord.model.RegisterNodeForm;
-import org.gty.chord.service.client.ChordNetworkClient;
+import org.gty.chord.model.RingTrafficVo;
+import org.gty.chord.model.TrafficStatsVo;
 import org.springframework.stereotype.Service;
 
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
+import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 public class ChordNetworkService {
 
-    private final Set<NodeInfoVo> registeredNodes;
-
     private final ChordNetworkClient client;
+    private final ChordRingClient ringClient;
+    private final ChordTopologyAggregator topologyAggregator;
 
-    public ChordNetworkService(ChordNetworkClient client) {
+    public ChordNetworkService(ChordNetworkClient client,
+                               ChordRingClient ringClient,
+                               ChordTopologyAggregator topologyAggregator) {
         this.client = client;
-
-        registeredNodes = Sets.newConcurrentHashSet();
+        this.ringClient = ringClient;
+        this.topologyAggregator = topologyAggregator;
     }
 
     public NodeInfoVo registerNode(RegisterNodeForm registerNodeForm) {
         NodeInfoVo node = client.queryNodeInfo(registerNodeForm.getAddress(),
             registerNodeForm.getPort());
 
-        registeredNodes.add(node);
+        topologyAggregator.track(node);
 
         return node;
     }
 
     public List<NodeInfoVo> getRegisteredNodes() {
-        return registeredNodes.stream()
-            .sorted(Comparator.comparingLong(NodeInfoVo::getNodeId))
-            .filter(client::healthCheck)
+        return topologyAggregator.getAliveSnapshots().stream()
+            .map(NodeStateSnapshot::getNode)
             .collect(Collectors.toUnmodifiableList());
     }
 
     public NodeInfoDetailVo queryNodeInfo(long id) {
-        NodeInfoVo nodeInfo = registeredNodes.stream()
-            .filter(node -> node.getNodeId() == id)
-            .collect(Collectors.toUnmodifiableList())
-            .get(0);
-
-        NodeInfoVo immediateSuccessor = client.queryImmediateSuccessor(nodeInfo);
-        NodeInfoVo immediatePredecessor = client.queryImmediatePredecessor(nodeInfo);
-        List<FingerTableEntry> fingerTable = client.queryFingerTable(nodeInfo);
+        NodeStateSnapshot snapshot = findSnapshot(id);
 
         NodeInfoDetailVo result = new NodeInfoDetailVo();
-        result.setNode(nodeInfo);
-        result.setSuccessor(immediateSuccessor);
-        result.setPredecessor(immediatePredecessor);
-        result.setFingerTable(fingerTable);
+        result.setNode(snapshot.getNode());
+        result.setSuccessor(snapshot.getSuccessor());
+        result.setPredecessor(snapshot.getPredecessor());
+        result.setFingerTable(snapshot.getFingerTable());
+        result.setAlive(snapshot.isAlive());
+        result.setStale(topologyAggregator.isStale(snapshot));
+        result.setRefreshedAt(snapshot.getRefreshedAt());
+
+        return result;
+    }
+
+    /**
+     * adds up the traffic of all live nodes per range of ids, so the ranges the ring
+     * spends most work on stand out, and lists the per finger counts of every node.
+     * the counts are those of the last refresh interval, not since the nodes started, so
+     * the heatmap follows shifts in the load. nodes counting with another bucket width,
+     * i.e. on a ring of another size, are left out.
+     */
+    public RingTrafficVo queryRingTraffic() {
+        RingTrafficVo result = new RingTrafficVo();
+        List<NodeTrafficVo> nodes = new ArrayList<>();
+        long[] served = null;
+        long[] forwarded = null;
+        long[] assigned = null;
+
+        for (NodeStateSnapshot snapshot : topologyAggregator.getAliveSnapshots()) {
+            Optional<TrafficStatsVo> found = topologyAggregator.getTrafficDelta(snapshot.getNode().getNodeId());
+            if (found.isEmpty()) {
+                continue;
+            }
+            TrafficStatsVo stats = found.get();
+
+            if (served == null) {
+                result.setBucketWidth(stats.getBucketWidth());
+                served = new long[stats.getServed().size()];
+                forwarded = new long[stats.getForwarded().size()];
+                assigned = new long[stats.getAssigned().size()];
+            } else if (stats.getBucketWidth() != result.getBucketWidth()) {
+                continue;
+            }
+
+            addTo(served, stats.getServed());
+            addTo(forwarded, stats.getForwarded());
+            addTo(assigned, stats.getAssigned());
+
+            NodeTrafficVo node = new NodeTrafficVo();
+            node.setNode(snapshot.getNode());
+            node.setServed(sum(stats.getServed()));
+            node.setForwarded(sum(stats.getForwarded()));
+            node.setAssigned(sum(stats.getAssigned()));
+            node.setFingerTable(snapshot.getFingerTable() == null ? List.of() : snapshot.getFingerTable());
+            node.setFingerForwarded(stats.getFingerForwarded());
+            nodes.add(node);
+        }
+
+        result.setServed(toList(served));
+        result.setForwarded(toList(forwarded));
+        result.setAssigned(toList(assigned));
+        result.setNodes(nodes);
 
         return result;
     }
 
+    private static void addTo(long[] totals, List<Long> counts) {
+        for (int i = 0; i < totals.length && i < counts.size(); ++i) {
+            totals[i] += counts.get(i);
+        }
+    }
+
+    private static long sum(List<Long> counts) {
+        return counts.stream().mapToLong(Long::longValue).sum();
+    }
+
+    private static List<Long> toList(long[] totals) {
+        return totals == null
+            ? List.of()
+            : Arrays.stream(totals).boxed().collect(Collectors.toUnmodifiableList());
+    }
+
     public NodeInfoVo findSuccessor(long nodeId, long key) {
-        NodeInfoVo node = registeredNodes.stream()
-            .filter(nodeInfoVo -> nodeInfoVo.getNodeId() == nodeId)
-            .collect(Collectors.toUnmodifiableList())
-            .get(0);
+        if (!ringClient.isBootstrapped()) {
+            List<NodeInfoVo> knownNodes = getRegisteredNodes();
+
+            if (knownNodes.isEmpty()) {
+                ringClient.bootstrap(findSnapshot(nodeId).getNode());
+            } else {
+                ringClient.seed(knownNodes);
+            }
+        }
+
+        return ringClient.findSuccessor(key);
+    }
 
-        return client.findSuccessor(node, key);
+    private NodeStateSnapshot findSnapshot(long nodeId) {
+        return topologyAggregator.getSnapshot(nodeId)
+            .orElseThrow(() -> new NoSuchElementException("node " + nodeId + " is not registered"));
     }
 }
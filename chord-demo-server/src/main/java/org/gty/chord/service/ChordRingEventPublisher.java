@@ -0,0 +1,87 @@
+package org.gty.chord.service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.gty.chord.model.RingChangeEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * fans ring changes out to every connected browser over server-sent events.
+ *
+ * events are sent from a single dispatcher thread so a slow browser
+ * never holds up the topology polls that produced them.
+ */
+@Service
+public class ChordRingEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChordRingEventPublisher.class);
+
+    private static final String RING_SNAPSHOT_EVENT = "ring-snapshot";
+
+    private final List<SseEmitter> emitters;
+    private final ExecutorService dispatcher;
+
+    private final ChordTopologyAggregator topologyAggregator;
+
+    public ChordRingEventPublisher(ChordTopologyAggregator topologyAggregator) {
+        this.topologyAggregator = topologyAggregator;
+
+        emitters = new CopyOnWriteArrayList<>();
+        dispatcher = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("chord-ring-event-dispatcher")
+            .setDaemon(true)
+            .build());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        emitters.forEach(SseEmitter::complete);
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(0L);
+
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(ex -> emitters.remove(emitter));
+
+        emitters.add(emitter);
+
+        // a new viewer starts from the current snapshot and then only receives changes
+        dispatcher.execute(() -> send(emitter, RING_SNAPSHOT_EVENT, topologyAggregator.getAliveSnapshots()));
+
+        return emitter;
+    }
+
+    @EventListener
+    public void onRingChange(RingChangeEvent event) {
+        if (emitters.isEmpty()) {
+            return;
+        }
+
+        dispatcher.execute(() -> emitters.forEach(emitter -> send(emitter, event.getType().getEventName(), event)));
+    }
+
+    private void send(SseEmitter emitter, String eventName, Object data) {
+        try {
+            emitter.send(SseEmitter.event()
+                .name(eventName)
+                .data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException ex) {
+            logger.debug("dropping ring event subscriber: {}", ex.getMessage());
+            emitters.remove(emitter);
+        }
+    }
+}
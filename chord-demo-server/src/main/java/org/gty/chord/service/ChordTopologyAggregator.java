@@ -0,0 +1,306 @@
+package org.gty.chord.service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.gty.chord.client.ChordNetworkClient;
+import org.gty.chord.model.FingerTableEntry;
+import org.gty.chord.model.NodeInfoVo;
+import org.gty.chord.model.NodeStateVo;
+import org.gty.chord.model.NodeStateSnapshot;
+import org.gty.chord.model.RingChangeEvent;
+import org.gty.chord.model.TrafficStatsVo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * crawls the ring in the background and keeps an id-indexed snapshot of it,
+ * so dashboard and api reads never call the nodes themselves.
+ *
+ * every refresh polls the known nodes, then keeps polling nodes referenced by their
+ * successor, predecessor and finger pointers until no new node turns up.
+ * differences to the previous snapshot are published as {@link RingChangeEvent}s.
+ * the traffic counters of every live node are fetched along with its state, and what
+ * they grew by since the previous fetch is kept for the heatmap.
+ */
+@Service
+public class ChordTopologyAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChordTopologyAggregator.class);
+
+    public static final long REFRESH_INTERVAL_MILLISECONDS = 2_000L;
+
+    private static final int POLL_PARALLELISM = 16;
+    private static final Duration STALE_AFTER = Duration.ofMillis(3 * REFRESH_INTERVAL_MILLISECONDS);
+    private static final Duration FORGET_AFTER = Duration.ofMillis(15 * REFRESH_INTERVAL_MILLISECONDS);
+
+    private final ConcurrentMap<Long, NodeInfoVo> trackedNodes;
+    private final ConcurrentMap<Long, Instant> trackedSince;
+    private final ConcurrentNavigableMap<Long, NodeStateSnapshot> snapshots;
+    private final ConcurrentMap<Long, NodeStateVo> nodeStates;
+    private final ConcurrentMap<Long, TrafficStatsVo> trafficStats;
+    private final ConcurrentMap<Long, TrafficStatsVo> trafficDeltas;
+    private final ExecutorService pollExecutor;
+
+    private final ChordNetworkClient client;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ChordTopologyAggregator(ChordNetworkClient client,
+                                   ApplicationEventPublisher eventPublisher) {
+        this.client = client;
+        this.eventPublisher = eventPublisher;
+
+        trackedNodes = new ConcurrentHashMap<>();
+        trackedSince = new ConcurrentHashMap<>();
+        snapshots = new ConcurrentSkipListMap<>();
+        nodeStates = new ConcurrentHashMap<>();
+        trafficStats = new ConcurrentHashMap<>();
+        trafficDeltas = new ConcurrentHashMap<>();
+        pollExecutor = Executors.newFixedThreadPool(POLL_PARALLELISM, new ThreadFactoryBuilder()
+            .setNameFormat("chord-topology-poll-%d")
+            .setDaemon(true)
+            .build());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pollExecutor.shutdownNow();
+    }
+
+    public void track(NodeInfoVo node) {
+        trackedNodes.put(node.getNodeId(), node);
+        trackedSince.putIfAbsent(node.getNodeId(), Instant.now());
+        refreshNode(node);
+    }
+
+    /**
+     * crawls the ring breadth first, polling each wave concurrently,
+     * at most {@value #POLL_PARALLELISM} nodes at a time.
+     */
+    public void refresh() {
+        List<NodeInfoVo> wave = List.copyOf(trackedNodes.values());
+
+        while (!wave.isEmpty()) {
+            List<CompletableFuture<NodeStateSnapshot>> polls = wave.stream()
+                .map(node -> CompletableFuture.supplyAsync(() -> refreshNode(node), pollExecutor))
+                .collect(Collectors.toUnmodifiableList());
+
+            CompletableFuture.allOf(polls.toArray(CompletableFuture[]::new)).join();
+
+            List<NodeInfoVo> discovered = new ArrayList<>();
+            polls.stream()
+                .map(CompletableFuture::join)
+                .filter(NodeStateSnapshot::isAlive)
+                .flatMap(ChordTopologyAggregator::referencedNodes)
+                .forEach(node -> {
+                    if (trackedNodes.putIfAbsent(node.getNodeId(), node) == null) {
+                        trackedSince.putIfAbsent(node.getNodeId(), Instant.now());
+                        logger.info("discovered node {}", node);
+                        discovered.add(node);
+                    }
+                });
+
+            wave = discovered;
+        }
+
+        forgetLongUnreachableNodes();
+    }
+
+    private NodeStateSnapshot refreshNode(NodeInfoVo node) {
+        Instant now = Instant.now();
+        NodeStateSnapshot previous = snapshots.get(node.getNodeId());
+        NodeStateSnapshot current;
+
+        try {
+            // conditional request, an unchanged node answers without a body
+            NodeStateVo nodeState = client.queryNodeState(node, nodeStates.get(node.getNodeId()));
+            nodeStates.put(node.getNodeId(), nodeState);
+
+            current = new NodeStateSnapshot(node,
+                nodeState.getSuccessor(),
+                nodeState.getPredecessor(),
+                nodeState.getFingerTable(),
+                true,
+                now,
+                now);
+        } catch (RestClientException ex) {
+            logger.debug("node {} is unreachable: {}", node, ex.getMessage());
+            current = NodeStateSnapshot.unreachable(node, previous, now);
+        }
+
+        if (current.isAlive()) {
+            refreshTrafficStats(node);
+        }
+
+        snapshots.put(node.getNodeId(), current);
+        publishChanges(previous, current);
+
+        return current;
+    }
+
+    private void refreshTrafficStats(NodeInfoVo node) {
+        try {
+            TrafficStatsVo current = client.queryTrafficStats(node);
+            TrafficStatsVo previous = trafficStats.put(node.getNodeId(), current);
+
+            if (previous == null
+                || previous.getStartedAtMillis() != current.getStartedAtMillis()
+                || previous.getBucketWidth() != current.getBucketWidth()) {
+                // first fetch or the node restarted, its counters are the new baseline
+                trafficDeltas.remove(node.getNodeId());
+            } else {
+                trafficDeltas.put(node.getNodeId(), trafficDelta(previous, current));
+            }
+        } catch (RestClientException ex) {
+            // the node may predate traffic stats, the heatmap just leaves it out
+            logger.debug("failed to fetch traffic stats of node {}: {}", node, ex.getMessage());
+        }
+    }
+
+    private void publishChanges(NodeStateSnapshot previous, NodeStateSnapshot current) {
+        boolean wasAlive = previous != null && previous.isAlive();
+
+        if (!current.isAlive()) {
+            if (wasAlive) {
+                eventPublisher.publishEvent(new RingChangeEvent(RingChangeEvent.Type.NODE_LEFT, current));
+            }
+            return;
+        }
+
+        if (!wasAlive) {
+            eventPublisher.publishEvent(new RingChangeEvent(RingChangeEvent.Type.NODE_JOINED, current));
+            return;
+        }
+
+        if (!Objects.equals(nodeIdOf(previous.getSuccessor()), nodeIdOf(current.getSuccessor()))) {
+            eventPublisher.publishEvent(new RingChangeEvent(RingChangeEvent.Type.SUCCESSOR_CHANGED, current));
+        }
+
+        if (!Objects.equals(nodeIdOf(previous.getPredecessor()), nodeIdOf(current.getPredecessor()))) {
+            eventPublisher.publishEvent(new RingChangeEvent(RingChangeEvent.Type.PREDECESSOR_CHANGED, current));
+        }
+
+        List<Integer> changedFingerIndexes = changedFingerIndexes(previous.getFingerTable(), current.getFingerTable());
+        if (!changedFingerIndexes.isEmpty()) {
+            eventPublisher.publishEvent(new RingChangeEvent(RingChangeEvent.Type.FINGER_TABLE_CHANGED,
+                current,
+                changedFingerIndexes));
+        }
+    }
+
+    /**
+     * a node never seen alive gets the same grace, counted from when it was first tracked
+     */
+    private void forgetLongUnreachableNodes() {
+        Instant forgetBefore = Instant.now().minus(FORGET_AFTER);
+
+        snapshots.values().stream()
+            .filter(snapshot -> !snapshot.isAlive())
+            .filter(snapshot -> {
+                Instant graceFrom = snapshot.getLastSeenAliveAt() != null
+                    ? snapshot.getLastSeenAliveAt()
+                    : trackedSince.get(snapshot.getNode().getNodeId());
+                return graceFrom == null || graceFrom.isBefore(forgetBefore);
+            })
+            .forEach(snapshot -> {
+                logger.info("forgetting unreachable node {}", snapshot.getNode());
+                trackedNodes.remove(snapshot.getNode().getNodeId());
+                trackedSince.remove(snapshot.getNode().getNodeId());
+                nodeStates.remove(snapshot.getNode().getNodeId());
+                trafficStats.remove(snapshot.getNode().getNodeId());
+                trafficDeltas.remove(snapshot.getNode().getNodeId());
+                snapshots.remove(snapshot.getNode().getNodeId(), snapshot);
+            });
+    }
+
+    private static TrafficStatsVo trafficDelta(TrafficStatsVo previous, TrafficStatsVo current) {
+        TrafficStatsVo delta = new TrafficStatsVo();
+        delta.setNodeId(current.getNodeId());
+        delta.setBucketWidth(current.getBucketWidth());
+        delta.setStartedAtMillis(current.getStartedAtMillis());
+        delta.setServed(countDelta(previous.getServed(), current.getServed()));
+        delta.setForwarded(countDelta(previous.getForwarded(), current.getForwarded()));
+        delta.setAssigned(countDelta(previous.getAssigned(), current.getAssigned()));
+        delta.setFingerForwarded(countDelta(previous.getFingerForwarded(), current.getFingerForwarded()));
+        delta.setHedged(Math.max(0L, current.getHedged() - previous.getHedged()));
+
+        return delta;
+    }
+
+    private static List<Long> countDelta(List<Long> previous, List<Long> current) {
+        return IntStream.range(0, current.size())
+            .mapToObj(i -> Math.max(0L, current.get(i) - (i < previous.size() ? previous.get(i) : 0L)))
+            .collect(Collectors.toUnmodifiableList());
+    }
+
+    private static Stream<NodeInfoVo> referencedNodes(NodeStateSnapshot snapshot) {
+        Stream<NodeInfoVo> neighbours = Stream.of(snapshot.getSuccessor(), snapshot.getPredecessor());
+        Stream<NodeInfoVo> fingers = snapshot.getFingerTable() == null
+            ? Stream.empty()
+            : snapshot.getFingerTable().stream().map(FingerTableEntry::getNode);
+
+        return Stream.concat(neighbours, fingers)
+            .filter(Objects::nonNull);
+    }
+
+    private static List<Integer> changedFingerIndexes(List<FingerTableEntry> previous, List<FingerTableEntry> current) {
+        List<FingerTableEntry> before = previous == null ? List.of() : previous;
+        List<FingerTableEntry> after = current == null ? List.of() : current;
+
+        return IntStream.range(0, Math.max(before.size(), after.size()))
+            .filter(i -> i >= before.size()
+                || i >= after.size()
+                || !Objects.equals(nodeIdOf(before.get(i).getNode()), nodeIdOf(after.get(i).getNode())))
+            .boxed()
+            .collect(Collectors.toUnmodifiableList());
+    }
+
+    private static Long nodeIdOf(NodeInfoVo node) {
+        return node == null ? null : node.getNodeId();
+    }
+
+    public List<NodeStateSnapshot> getAliveSnapshots() {
+        return snapshots.values().stream()
+            .filter(NodeStateSnapshot::isAlive)
+            .collect(Collectors.toUnmodifiableList());
+    }
+
+    public Optional<NodeStateSnapshot> getSnapshot(long nodeId) {
+        return Optional.ofNullable(snapshots.get(nodeId));
+    }
+
+    /**
+     * @return size of the ring in bits as the nodes report it, 0 until one has
+     */
+    public int getFingerRingSizeBits() {
+        return nodeStates.values().stream()
+            .mapToInt(NodeStateVo::getFingerRingSizeBits)
+            .filter(bits -> bits > 0)
+            .findAny()
+            .orElse(0);
+    }
+
+    /**
+     * @return how much the traffic counters of the node grew between the last two fetches,
+     *         empty until the node has been fetched twice since it started
+     */
+    public Optional<TrafficStatsVo> getTrafficDelta(long nodeId) {
+        return Optional.ofNullable(trafficDeltas.get(nodeId));
+    }
+
+    public boolean isStale(NodeStateSnapshot snapshot) {
+        Instant lastSeenAliveAt = snapshot.getLastSeenAliveAt();
+        return lastSeenAliveAt == null
+            || Duration.between(lastSeenAliveAt, Instant.now()).compareTo(STALE_AFTER) > 0;
+    }
+}
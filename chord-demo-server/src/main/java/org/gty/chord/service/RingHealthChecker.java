@@ -0,0 +1,304 @@
+package org.gty.chord.service;
+
+import org.gty.chord.model.ConvergenceEvent;
+import org.gty.chord.model.FingerTableEntry;
+import org.gty.chord.model.NodeInfoVo;
+import org.gty.chord.model.NodeStateSnapshot;
+import org.gty.chord.model.OrphanedRange;
+import org.gty.chord.model.RingHealthReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * compares the ring as the topology crawl saw it with the ring it should be.
+ *
+ * the ideal ring follows from the sorted ids of the live nodes alone: the successor
+ * of a node is the next id, its predecessor the previous one and finger i the first
+ * node at or after the finger's start. every check counts the pointers that match,
+ * finds the ranges whose owner no predecessor points to, and routes a sample of
+ * lookups both over the reported pointers and over the ideal ones to compare hop counts.
+ *
+ * the nodes are polled one after another within a crawl, so the snapshot is only as
+ * consistent as one refresh interval allows. a change of membership marks the ring as
+ * disturbed until a check finds it converged again, the time in between is recorded
+ * as a {@link ConvergenceEvent}. it is measured in whole refresh intervals.
+ */
+@Service
+public class RingHealthChecker {
+
+    private static final Logger logger = LoggerFactory.getLogger(RingHealthChecker.class);
+
+    private static final int HISTORY_LENGTH = 900;
+    private static final int MAX_CONVERGENCE_EVENTS = 64;
+    private static final int SAMPLED_LOOKUPS = 256;
+
+    private final ChordTopologyAggregator topologyAggregator;
+
+    private final Deque<RingHealthReport> history;
+    private final Deque<ConvergenceEvent> convergenceEvents;
+
+    private Set<Long> lastMembers;
+    private Instant disturbedAt;
+    private int joined;
+    private int left;
+    private Instant successorsConvergedAt;
+
+    public RingHealthChecker(ChordTopologyAggregator topologyAggregator) {
+        this.topologyAggregator = topologyAggregator;
+
+        history = new ArrayDeque<>();
+        convergenceEvents = new ArrayDeque<>();
+    }
+
+    /**
+     * checks the snapshot the last crawl left behind, to be called right after it
+     */
+    public synchronized void check() {
+        int fingerRingSizeBits = topologyAggregator.getFingerRingSizeBits();
+        List<NodeStateSnapshot> snapshots = topologyAggregator.getAliveSnapshots();
+
+        if (fingerRingSizeBits == 0 || snapshots.isEmpty()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        NavigableMap<Long, NodeStateSnapshot> ring = snapshots.stream()
+            .collect(Collectors.toMap(snapshot -> snapshot.getNode().getNodeId(),
+                Function.identity(),
+                (a, b) -> a,
+                TreeMap::new));
+
+        trackMembership(ring.keySet(), now);
+
+        RingHealthReport report = inspect(ring, 1L << fingerRingSizeBits, now);
+
+        if (disturbedAt != null) {
+            if (successorsConvergedAt == null && report.isSuccessorsConverged()) {
+                successorsConvergedAt = now;
+            }
+
+            if (report.isConverged()) {
+                ConvergenceEvent event = new ConvergenceEvent(disturbedAt, joined, left, successorsConvergedAt, now);
+                logger.info("ring converged: {}", event);
+
+                append(convergenceEvents, event, MAX_CONVERGENCE_EVENTS);
+                disturbedAt = null;
+            }
+        }
+
+        append(history, report, HISTORY_LENGTH);
+    }
+
+    private void trackMembership(Set<Long> members, Instant now) {
+        if (lastMembers != null && !lastMembers.equals(members)) {
+            if (disturbedAt == null) {
+                disturbedAt = now;
+                joined = 0;
+                left = 0;
+                successorsConvergedAt = null;
+            }
+
+            // a disturbance while the ring is still healing extends it
+            joined += (int) members.stream().filter(id -> !lastMembers.contains(id)).count();
+            left += (int) lastMembers.stream().filter(id -> !members.contains(id)).count();
+            successorsConvergedAt = null;
+        }
+
+        lastMembers = Set.copyOf(members);
+    }
+
+    private RingHealthReport inspect(NavigableMap<Long, NodeStateSnapshot> ring, long ringSize, Instant now) {
+        int successorsCorrect = 0;
+        int predecessorsCorrect = 0;
+        int fingersCorrect = 0;
+        int fingerCount = 0;
+        List<OrphanedRange> orphanedRanges = new ArrayList<>();
+        long orphanedIds = 0L;
+
+        for (NodeStateSnapshot snapshot : ring.values()) {
+            long nodeId = snapshot.getNode().getNodeId();
+            long predecessorId = idealPredecessor(ring, nodeId);
+
+            if (Objects.equals(nodeIdOf(snapshot.getSuccessor()), idealSuccessor(ring, nodeId))) {
+                ++successorsCorrect;
+            }
+            if (Objects.equals(nodeIdOf(snapshot.getPredecessor()), predecessorId)) {
+                ++predecessorsCorrect;
+            }
+
+            for (FingerTableEntry entry : fingerTableOf(snapshot)) {
+                ++fingerCount;
+                if (Objects.equals(nodeIdOf(entry.getNode()), ownerOf(ring, entry.getStartFingerId()))) {
+                    ++fingersCorrect;
+                }
+            }
+
+            // lookups for (p, n] are handed to n by p, the node before it
+            if (!Objects.equals(nodeIdOf(ring.get(predecessorId).getSuccessor()), nodeId)) {
+                orphanedRanges.add(new OrphanedRange(predecessorId, nodeId, snapshot.getNode()));
+
+                long width = Math.floorMod(nodeId - predecessorId, ringSize);
+                orphanedIds += width == 0L ? ringSize : width;
+            }
+        }
+
+        int failedLookups = 0;
+        long actualHops = 0L;
+        long expectedHops = 0L;
+        List<Long> nodeIds = List.copyOf(ring.keySet());
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        for (int i = 0; i < SAMPLED_LOOKUPS; ++i) {
+            long start = nodeIds.get(random.nextInt(nodeIds.size()));
+            long id = random.nextLong(ringSize);
+
+            int idealHops = route(ring, ringSize, start, id,
+                nodeId -> idealSuccessor(ring, nodeId),
+                nodeId -> fingerTableOf(ring.get(nodeId)).stream()
+                    .map(entry -> ownerOf(ring, entry.getStartFingerId()))
+                    .collect(Collectors.toList()));
+            int hops = route(ring, ringSize, start, id,
+                nodeId -> nodeIdOf(ring.get(nodeId).getSuccessor()),
+                nodeId -> fingerTableOf(ring.get(nodeId)).stream()
+                    .map(entry -> nodeIdOf(entry.getNode()))
+                    .collect(Collectors.toList()));
+
+            expectedHops += Math.max(idealHops, 0);
+            if (hops < 0) {
+                ++failedLookups;
+            } else {
+                actualHops += hops;
+            }
+        }
+
+        int succeededLookups = SAMPLED_LOOKUPS - failedLookups;
+
+        return new RingHealthReport(now,
+            ring.size(),
+            successorsCorrect,
+            predecessorsCorrect,
+            fingersCorrect,
+            fingerCount,
+            List.copyOf(orphanedRanges),
+            (double) orphanedIds / ringSize,
+            SAMPLED_LOOKUPS,
+            failedLookups,
+            (double) expectedHops / SAMPLED_LOOKUPS,
+            succeededLookups == 0 ? Double.NaN : (double) actualHops / succeededLookups,
+            disturbedAt);
+    }
+
+    /**
+     * routes a lookup for id the way find-successor does, without ownership hints and zones
+     *
+     * @return number of times the lookup was forwarded, -1 if it reached a node that is gone,
+     * went round in circles or ended at a node that does not own id
+     */
+    private static int route(NavigableMap<Long, NodeStateSnapshot> ring,
+                             long ringSize,
+                             long start,
+                             long id,
+                             LongFunction<Long> successorOf,
+                             LongFunction<List<Long>> fingersOf) {
+        long current = start;
+
+        for (int hops = 0; hops <= ring.size(); ++hops) {
+            Long successor = successorOf.apply(current);
+            if (successor == null) {
+                return -1;
+            }
+
+            Long next = closestPrecedingNode(fingersOf.apply(current), current, id, ringSize);
+            if (isInOpenClosedInterval(id, current, successor, ringSize) || next == null) {
+                // answered with the successor, right or wrong
+                return successor.equals(ownerOf(ring, id)) ? hops : -1;
+            }
+
+            if (!ring.containsKey(next)) {
+                return -1;
+            }
+            current = next;
+        }
+
+        return -1;
+    }
+
+    private static Long closestPrecedingNode(List<Long> fingers, long nodeId, long id, long ringSize) {
+        for (int i = fingers.size() - 1; i >= 0; --i) {
+            Long finger = fingers.get(i);
+
+            if (finger != null && isInOpenInterval(finger, nodeId, id, ringSize)) {
+                return finger;
+            }
+        }
+        return null;
+    }
+
+    private static long idealSuccessor(NavigableMap<Long, NodeStateSnapshot> ring, long nodeId) {
+        Long successor = ring.higherKey(nodeId);
+        return successor == null ? ring.firstKey() : successor;
+    }
+
+    private static long idealPredecessor(NavigableMap<Long, NodeStateSnapshot> ring, long nodeId) {
+        Long predecessor = ring.lowerKey(nodeId);
+        return predecessor == null ? ring.lastKey() : predecessor;
+    }
+
+    private static Long ownerOf(NavigableMap<Long, NodeStateSnapshot> ring, Long id) {
+        if (id == null) {
+            return null;
+        }
+
+        Long owner = ring.ceilingKey(id);
+        return owner == null ? ring.firstKey() : owner;
+    }
+
+    private static boolean isInOpenClosedInterval(long id, long from, long to, long ringSize) {
+        long distance = Math.floorMod(id - from, ringSize);
+        long span = Math.floorMod(to - from, ringSize);
+
+        // from == to stands for the whole ring
+        return span == 0L || (distance > 0L && distance <= span);
+    }
+
+    private static boolean isInOpenInterval(long id, long from, long to, long ringSize) {
+        long distance = Math.floorMod(id - from, ringSize);
+        long span = Math.floorMod(to - from, ringSize);
+
+        return distance > 0L && (span == 0L || distance < span);
+    }
+
+    private static List<FingerTableEntry> fingerTableOf(NodeStateSnapshot snapshot) {
+        return snapshot.getFingerTable() == null ? List.of() : snapshot.getFingerTable();
+    }
+
+    private static Long nodeIdOf(NodeInfoVo node) {
+        return node == null ? null : node.getNodeId();
+    }
+
+    private static <T> void append(Deque<T> items, T item, int maxLength) {
+        items.addLast(item);
+        while (items.size() > maxLength) {
+            items.removeFirst();
+        }
+    }
+
+    /**
+     * @return reports of the recent checks, oldest first
+     */
+    public synchronized List<RingHealthReport> getHistory() {
+        return List.copyOf(history);
+    }
+
+    public synchronized List<ConvergenceEvent> getConvergenceEvents() {
+        return List.copyOf(convergenceEvents);
+    }
+}
@@ -0,0 +1,15 @@
+package org.gty.chord;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ChordLoadGeneratorApp {
+
+    public static void main(String[] args) {
+        System.setProperty("log4j2.contextSelector",
+            "org.apache.logging.log4j.core.async.AsyncLoggerContextSelector");
+
+        SpringApplication.run(ChordLoadGeneratorApp.class, args);
+    }
+}
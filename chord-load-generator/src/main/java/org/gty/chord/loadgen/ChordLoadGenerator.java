@@ -0,0 +1,220 @@
+package org.gty.chord.loadgen;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.gty.chord.client.ChordNetworkClient;
+import org.gty.chord.loadgen.LoadReport.Operation;
+import org.gty.chord.loadgen.config.ChordLoadGeneratorProperties;
+import org.gty.chord.model.NodeInfoVo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * drives find-successor and add-key traffic at a ring at a fixed rate, optionally
+ * while nodes are killed and restarted, and reports how the ring held up.
+ *
+ * the load is open-loop: operation i is due at start + i / target-rate no matter how
+ * long earlier operations took, and its latency is measured from when it was due.
+ * when the ring falls behind, the time operations spent waiting for a free worker
+ * shows up in the latencies instead of silently lowering the offered rate, so the
+ * results are free of coordinated omission. failed operations are counted as errors
+ * and not recorded as latencies.
+ */
+@Service
+public class ChordLoadGenerator implements ApplicationContextAware {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChordLoadGenerator.class);
+
+    private static final long START_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(100L);
+    private static final long SCHEDULER_STOP_TIMEOUT_SECONDS = 30L;
+
+    private final ChordLoadGeneratorProperties properties;
+    private final ChordNetworkClient client;
+
+    private ApplicationContext ctx;
+
+    private long ringSize;
+
+    public ChordLoadGenerator(ChordLoadGeneratorProperties properties, ChordNetworkClient client) {
+        this.properties = properties;
+        this.client = client;
+    }
+
+    @Override
+    public void setApplicationContext(@Nonnull ApplicationContext ctx) throws BeansException {
+        this.ctx = ctx;
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        boolean completed;
+
+        try {
+            run();
+            completed = true;
+        } catch (RuntimeException ex) {
+            logger.error("load generation aborted", ex);
+            completed = false;
+        }
+
+        boolean succeeded = completed;
+        int exitCode = SpringApplication.exit(ctx, () -> succeeded ? 0 : 1);
+        System.exit(exitCode);
+    }
+
+    private void run() {
+        Path outputDirectory = Path.of(properties.getOutputDirectory());
+        try {
+            Files.createDirectories(outputDirectory);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2, new ThreadFactoryBuilder()
+            .setNameFormat("chord-load-generator-scheduler-%d")
+            .setDaemon(true)
+            .build());
+
+        try (LocalNodeFleet fleet = new LocalNodeFleet(properties, client, outputDirectory);
+             LoadReport report = new LoadReport(outputDirectory)) {
+            try {
+                measure(fleet, report, scheduler);
+            } finally {
+                // stop churn before the fleet is closed, so no restart races the close
+                stopScheduler(scheduler);
+            }
+        }
+    }
+
+    private void measure(LocalNodeFleet fleet, LoadReport report, ScheduledExecutorService scheduler) {
+        fleet.start();
+        ringSize = 1L << client.queryNodeState(fleet.randomLiveNode(), null).getFingerRingSizeBits();
+
+        scheduler.scheduleAtFixedRate(() -> logger.info("{}", report.intervalReport(fleet.liveCount())),
+            properties.getReportIntervalSeconds(), properties.getReportIntervalSeconds(), TimeUnit.SECONDS);
+        scheduleChurn(fleet, scheduler);
+
+        generate(fleet, report);
+
+        logger.info("{}", report.intervalReport(fleet.liveCount()));
+        logger.info("measured {} s at a target of {} ops/s against {} nodes, {} kills, {} restarts{}{}",
+            properties.getDurationSeconds(), properties.getTargetRate(), fleet.liveCount(),
+            fleet.getKills(), fleet.getRestarts(), System.lineSeparator(), report.summary(properties.getDurationSeconds()));
+    }
+
+    private static void stopScheduler(ScheduledExecutorService scheduler) {
+        scheduler.shutdownNow();
+
+        try {
+            if (!scheduler.awaitTermination(SCHEDULER_STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("scheduler did not stop within {} s", SCHEDULER_STOP_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void scheduleChurn(LocalNodeFleet fleet, ScheduledExecutorService scheduler) {
+        int churnInterval = properties.getChurnIntervalSeconds();
+        if (churnInterval <= 0) {
+            return;
+        }
+
+        if (!fleet.isLaunching()) {
+            logger.warn("churn needs launched nodes, attached nodes can not be restarted; running without churn");
+            return;
+        }
+
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                fleet.churnOnce(scheduler);
+            } catch (RuntimeException ex) {
+                logger.error("churn failed", ex);
+            }
+        }, churnInterval, churnInterval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * workers take the next due operation off a shared schedule, wait until it is due
+     * and run it. a worker never skips an operation, however late it is.
+     */
+    private void generate(LocalNodeFleet fleet, LoadReport report) {
+        double periodNanos = 1e9 / properties.getTargetRate();
+        long startNanos = System.nanoTime() + START_DELAY_NANOS;
+        long measureFromNanos = startNanos + TimeUnit.SECONDS.toNanos(properties.getWarmupSeconds());
+        long endNanos = measureFromNanos + TimeUnit.SECONDS.toNanos(properties.getDurationSeconds());
+
+        AtomicLong sequence = new AtomicLong(0L);
+
+        ExecutorService workers = Executors.newFixedThreadPool(properties.getWorkerThreads(), new ThreadFactoryBuilder()
+            .setNameFormat("chord-load-generator-worker-%d")
+            .setDaemon(true)
+            .build());
+
+        for (int i = 0; i < properties.getWorkerThreads(); i++) {
+            workers.execute(() -> {
+                while (true) {
+                    long dueNanos = startNanos + (long) (sequence.getAndIncrement() * periodNanos);
+                    if (dueNanos >= endNanos) {
+                        return;
+                    }
+
+                    waitUntil(dueNanos);
+                    execute(fleet, report, dueNanos, dueNanos >= measureFromNanos);
+                }
+            });
+        }
+
+        workers.shutdown();
+        try {
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+            throw new IllegalStateException("interrupted while generating load", ex);
+        }
+    }
+
+    private void execute(LocalNodeFleet fleet, LoadReport report, long dueNanos, boolean measured) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Operation operation = random.nextDouble() < properties.getReadRatio() ? Operation.FIND_SUCCESSOR : Operation.ADD_KEY;
+        long id = random.nextLong(ringSize);
+
+        try {
+            NodeInfoVo entryNode = fleet.randomLiveNode();
+
+            if (operation == Operation.FIND_SUCCESSOR) {
+                client.findSuccessor(entryNode, id, properties.getRequestTimeoutMillis());
+            } else {
+                client.addKey(entryNode, id);
+            }
+
+            report.record(operation, System.nanoTime() - dueNanos, measured);
+        } catch (RestClientException | IllegalStateException ex) {
+            report.onError(operation, measured);
+        }
+    }
+
+    private static void waitUntil(long dueNanos) {
+        long remaining;
+        while ((remaining = dueNanos - System.nanoTime()) > 0L) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package org.gty.chord.loadgen;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * latency, throughput and errors of a benchmark run.
+ *
+ * every operation is recorded twice: into an interval recorder that feeds the per-second
+ * timeline, and, once the warmup is over, into the recorder of the measured run.
+ * latencies are in microseconds. the run leaves three kinds of files behind:
+ * latency.hlog, the interval histograms in HdrHistogram log format; timeline.csv,
+ * one row per operation and interval; and one .hgrm percentile distribution per
+ * operation for the measured run, which HdrHistogram's plotter can lay over the
+ * distribution of an earlier release.
+ */
+public class LoadReport implements AutoCloseable {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double MICROS_PER_MILLI = 1_000.0;
+
+    public enum Operation {
+        FIND_SUCCESSOR("find-successor"),
+        ADD_KEY("add-key");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final Path outputDirectory;
+    private final Map<Operation, OperationStats> stats;
+
+    private final HistogramLogWriter logWriter;
+    private final PrintStream latencyLog;
+    private final PrintStream timeline;
+
+    private final long startedAtNanos;
+    private long lastReportedAtNanos;
+
+    public LoadReport(Path outputDirectory) {
+        this.outputDirectory = outputDirectory;
+
+        stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+
+        latencyLog = open(outputDirectory.resolve("latency.hlog"));
+        logWriter = new HistogramLogWriter(latencyLog);
+        logWriter.outputLogFormatVersion();
+        logWriter.outputStartTime(System.currentTimeMillis());
+        logWriter.outputLegend();
+
+        timeline = open(outputDirectory.resolve("timeline.csv"));
+        timeline.println("elapsed_s,live_nodes,operation,ops_per_s,errors_per_s,p50_ms,p99_ms,p999_ms,max_ms");
+
+        startedAtNanos = System.nanoTime();
+        lastReportedAtNanos = startedAtNanos;
+    }
+
+    /**
+     * @param latencyNanos time from when the operation was due, not from when it was sent
+     * @param measured whether the operation was due after the warmup
+     */
+    public void record(Operation operation, long latencyNanos, boolean measured) {
+        OperationStats operationStats = stats.get(operation);
+        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(latencyNanos);
+
+        operationStats.interval.recordValue(latencyMicros);
+        if (measured) {
+            operationStats.measured.recordValue(latencyMicros);
+        }
+    }
+
+    public void onError(Operation operation, boolean measured) {
+        OperationStats operationStats = stats.get(operation);
+
+        operationStats.intervalErrors.increment();
+        if (measured) {
+            operationStats.measuredErrors.increment();
+        }
+    }
+
+    /**
+     * throughput, errors and latency percentiles since the previous call
+     */
+    public synchronized String intervalReport(int liveNodes) {
+        long now = System.nanoTime();
+        double seconds = Math.max(1L, now - lastReportedAtNanos) / 1e9;
+        double elapsed = (now - startedAtNanos) / 1e9;
+        lastReportedAtNanos = now;
+
+        StringJoiner report = new StringJoiner(", ");
+
+        stats.forEach((operation, operationStats) -> {
+            Histogram histogram = operationStats.interval.getIntervalHistogram(operationStats.recycled);
+            operationStats.recycled = histogram;
+
+            histogram.setTag(operation.getLabel());
+            logWriter.outputIntervalHistogram(histogram);
+
+            long errors = operationStats.intervalErrors.sumThenReset();
+
+            timeline.printf("%.3f,%d,%s,%.1f,%.1f,%.3f,%.3f,%.3f,%.3f%n",
+                elapsed, liveNodes, operation.getLabel(),
+                histogram.getTotalCount() / seconds, errors / seconds,
+                millisAt(histogram, 50.0), millisAt(histogram, 99.0), millisAt(histogram, 99.9),
+                histogram.getMaxValue() / MICROS_PER_MILLI);
+
+            report.add(String.format("%s %,.0f ops/s p99 %.2f ms max %.2f ms errors %,d",
+                operation.getLabel(), histogram.getTotalCount() / seconds,
+                millisAt(histogram, 99.0), histogram.getMaxValue() / MICROS_PER_MILLI, errors));
+        });
+
+        report.add(liveNodes + " live nodes");
+        timeline.flush();
+        latencyLog.flush();
+
+        return report.toString();
+    }
+
+    /**
+     * totals of the measured run, also written out as one percentile distribution per operation
+     */
+    public synchronized String summary(long measuredSeconds) {
+        StringJoiner summary = new StringJoiner(System.lineSeparator());
+
+        stats.forEach((operation, operationStats) -> {
+            Histogram histogram = operationStats.measured.getIntervalHistogram();
+            long errors = operationStats.measuredErrors.sum();
+            long attempts = histogram.getTotalCount() + errors;
+
+            try (PrintStream distribution = open(outputDirectory.resolve(operation.getLabel() + ".hgrm"))) {
+                histogram.outputPercentileDistribution(distribution, MICROS_PER_MILLI);
+            }
+
+            summary.add(String.format("%s: %,d ops (%,.0f ops/s), error rate %.3f%%, p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms",
+                operation.getLabel(), histogram.getTotalCount(), histogram.getTotalCount() / (double) Math.max(1L, measuredSeconds),
+                attempts == 0L ? 0.0 : errors * 100.0 / attempts,
+                millisAt(histogram, 50.0), millisAt(histogram, 99.0), millisAt(histogram, 99.9),
+                histogram.getMaxValue() / MICROS_PER_MILLI));
+        });
+
+        return summary.toString();
+    }
+
+    @Override
+    public void close() {
+        timeline.close();
+        latencyLog.close();
+    }
+
+    private static double millisAt(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    private static PrintStream open(Path file) {
+        try {
+            return new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static class OperationStats {
+
+        private final Recorder interval = new Recorder(SIGNIFICANT_DIGITS);
+        private final Recorder measured = new Recorder(SIGNIFICANT_DIGITS);
+        private final LongAdder intervalErrors = new LongAdder();
+        private final LongAdder measuredErrors = new LongAdder();
+
+        private Histogram recycled;
+    }
+}
@@ -0,0 +1,241 @@
+package org.gty.chord.loadgen;
+
+import org.gty.chord.client.ChordNetworkClient;
+import org.gty.chord.loadgen.config.ChordLoadGeneratorProperties;
+import org.gty.chord.model.NodeInfoVo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * the chord-node processes a benchmark runs against.
+ *
+ * nodes are either launched here from the node jar, a bootstrapping node on the base
+ * port and the rest joining through it, or attached to by port when they already run.
+ * only launched nodes can be churned: a churned node is killed without a chance to hand
+ * off its keys, like a crash, and started again on the same port after the downtime,
+ * so it rejoins with the same id.
+ *
+ * once closed, no node is launched any more: a restart still in flight has the process
+ * it started destroyed instead of left running.
+ */
+public class LocalNodeFleet implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalNodeFleet.class);
+
+    private static final long STARTUP_TIMEOUT_MILLIS = 60_000L;
+    private static final long STARTUP_POLL_MILLIS = 200L;
+
+    private final ChordLoadGeneratorProperties properties;
+    private final ChordNetworkClient client;
+    private final Path outputDirectory;
+
+    private final ConcurrentMap<Integer, NodeInfoVo> liveNodes;
+    private final ConcurrentMap<Integer, Process> processes;
+    private volatile List<NodeInfoVo> liveSnapshot;
+    private boolean closed;
+
+    private final LongAdder kills;
+    private final LongAdder restarts;
+
+    public LocalNodeFleet(ChordLoadGeneratorProperties properties, ChordNetworkClient client, Path outputDirectory) {
+        this.properties = properties;
+        this.client = client;
+        this.outputDirectory = outputDirectory;
+
+        liveNodes = new ConcurrentHashMap<>();
+        processes = new ConcurrentHashMap<>();
+        liveSnapshot = List.of();
+
+        kills = new LongAdder();
+        restarts = new LongAdder();
+    }
+
+    public void start() {
+        if (isLaunching()) {
+            int basePort = properties.getBasePort();
+
+            for (int i = 0; i < properties.getNodeCount(); i++) {
+                launch(basePort + i);
+            }
+        } else {
+            properties.getAttachPorts().forEach(port ->
+                markUp(port, client.queryNodeInfo(properties.getNodeAddress(), port)));
+        }
+
+        if (liveNodes.isEmpty()) {
+            throw new IllegalStateException("no nodes to run against, set loadgen.node-count and loadgen.node-jar or loadgen.attach-ports");
+        }
+
+        logger.info("running against {} nodes", liveNodes.size());
+    }
+
+    public boolean isLaunching() {
+        return properties.getNodeCount() > 0 && properties.getNodeJar() != null;
+    }
+
+    public NodeInfoVo randomLiveNode() {
+        List<NodeInfoVo> snapshot = liveSnapshot;
+
+        if (snapshot.isEmpty()) {
+            throw new IllegalStateException("no live node to send requests to");
+        }
+
+        return snapshot.get(ThreadLocalRandom.current().nextInt(snapshot.size()));
+    }
+
+    public int liveCount() {
+        return liveNodes.size();
+    }
+
+    public long getKills() {
+        return kills.sum();
+    }
+
+    public long getRestarts() {
+        return restarts.sum();
+    }
+
+    /**
+     * kills one random launched node and schedules its restart. the bootstrapping node
+     * is spared, restarted nodes join through it.
+     */
+    public void churnOnce(ScheduledExecutorService scheduler) {
+        List<Integer> candidates = new ArrayList<>(processes.keySet());
+        candidates.remove(properties.getBasePort());
+        candidates.removeIf(port -> !liveNodes.containsKey(port));
+
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        int port = candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
+
+        markDown(port);
+        processes.remove(port).destroyForcibly();
+        kills.increment();
+        logger.info("killed node on port {}", port);
+
+        scheduler.schedule(() -> {
+            try {
+                launch(port);
+                restarts.increment();
+            } catch (RuntimeException ex) {
+                logger.error("failed to restart node on port {}", port, ex);
+            }
+        }, properties.getChurnDowntimeSeconds(), TimeUnit.SECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        processes.values().forEach(Process::destroy);
+        processes.clear();
+    }
+
+    private void launch(int port) {
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("fleet is closed, not launching node on port " + port);
+            }
+        }
+
+        boolean bootstrapping = port == properties.getBasePort();
+
+        List<String> command = new ArrayList<>(List.of(
+            Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+            "-jar", properties.getNodeJar(),
+            "--spring.profiles.active=default",
+            "--chord.node-name=node-" + port,
+            "--chord.node-address=" + properties.getNodeAddress(),
+            "--chord.node-port=" + port,
+            "--chord.finger-ring-size-bits=" + properties.getFingerRingSizeBits(),
+            "--chord.finger-base=" + properties.getFingerBase(),
+            "--chord.bootstrapping-node=" + bootstrapping));
+
+        List<String> zones = properties.getZones();
+        if (!zones.isEmpty()) {
+            command.add("--chord.zone=" + zones.get((port - properties.getBasePort()) % zones.size()));
+            command.add("--chord.simulated-inter-zone-latency-millis=" + properties.getInterZoneLatencyMillis());
+        }
+
+        if (!bootstrapping) {
+            command.add("--chord.joining-to-address=" + properties.getNodeAddress());
+            command.add("--chord.joining-to-port=" + properties.getBasePort());
+        }
+
+        Process process;
+        try {
+            process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(outputDirectory.resolve("node-" + port + ".log").toFile()))
+                .start();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        synchronized (this) {
+            if (closed) {
+                process.destroyForcibly();
+                throw new IllegalStateException("fleet closed while launching node on port " + port);
+            }
+            processes.put(port, process);
+        }
+
+        try {
+            markUp(port, awaitUp(port, process));
+        } catch (RuntimeException ex) {
+            processes.remove(port, process);
+            process.destroyForcibly();
+            throw ex;
+        }
+        logger.info("node on port {} is up", port);
+    }
+
+    private NodeInfoVo awaitUp(int port, Process process) {
+        long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MILLIS;
+
+        while (System.currentTimeMillis() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("node on port " + port + " exited with " + process.exitValue());
+            }
+
+            try {
+                return client.queryNodeInfo(properties.getNodeAddress(), port);
+            } catch (RestClientException ex) {
+                // not listening yet
+            }
+
+            try {
+                Thread.sleep(STARTUP_POLL_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while waiting for node on port " + port, ex);
+            }
+        }
+
+        throw new IllegalStateException("node on port " + port + " did not come up within " + STARTUP_TIMEOUT_MILLIS + " ms");
+    }
+
+    private synchronized void markUp(int port, NodeInfoVo node) {
+        liveNodes.put(port, node);
+        liveSnapshot = List.copyOf(liveNodes.values());
+    }
+
+    private synchronized void markDown(int port) {
+        liveNodes.remove(port);
+        liveSnapshot = List.copyOf(liveNodes.values());
+    }
+}
@@ -0,0 +1,154 @@
+package org.gty.chord.loadgen.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+@ConstructorBinding
+@ConfigurationProperties("loadgen")
+public class ChordLoadGeneratorProperties {
+
+    private final String nodeAddress;
+    private final List<Integer> attachPorts;
+    private final String nodeJar;
+    private final Integer nodeCount;
+    private final Integer basePort;
+    private final Integer fingerRingSizeBits;
+    private final Integer fingerBase;
+    private final List<String> zones;
+    private final Integer interZoneLatencyMillis;
+
+    private final Integer targetRate;
+    private final Double readRatio;
+    private final Integer workerThreads;
+    private final Integer requestTimeoutMillis;
+    private final Integer warmupSeconds;
+    private final Integer durationSeconds;
+
+    private final Integer churnIntervalSeconds;
+    private final Integer churnDowntimeSeconds;
+
+    private final Integer reportIntervalSeconds;
+    private final String outputDirectory;
+
+    public ChordLoadGeneratorProperties(@DefaultValue("127.0.0.1") String nodeAddress,
+                                        List<Integer> attachPorts,
+                                        String nodeJar,
+                                        @DefaultValue("0") Integer nodeCount,
+                                        @DefaultValue("18001") Integer basePort,
+                                        @DefaultValue("16") Integer fingerRingSizeBits,
+                                        @DefaultValue("2") Integer fingerBase,
+                                        List<String> zones,
+                                        @DefaultValue("0") Integer interZoneLatencyMillis,
+                                        @DefaultValue("1000") Integer targetRate,
+                                        @DefaultValue("0.9") Double readRatio,
+                                        @DefaultValue("64") Integer workerThreads,
+                                        @DefaultValue("2000") Integer requestTimeoutMillis,
+                                        @DefaultValue("10") Integer warmupSeconds,
+                                        @DefaultValue("60") Integer durationSeconds,
+                                        @DefaultValue("0") Integer churnIntervalSeconds,
+                                        @DefaultValue("10") Integer churnDowntimeSeconds,
+                                        @DefaultValue("1") Integer reportIntervalSeconds,
+                                        @DefaultValue("load-results") String outputDirectory) {
+        this.nodeAddress = nodeAddress;
+        this.attachPorts = attachPorts == null ? List.of() : List.copyOf(attachPorts);
+        this.nodeJar = nodeJar;
+        this.nodeCount = nodeCount;
+        this.basePort = basePort;
+        this.fingerRingSizeBits = fingerRingSizeBits;
+        this.fingerBase = fingerBase;
+        this.zones = zones == null ? List.of() : List.copyOf(zones);
+        this.interZoneLatencyMillis = interZoneLatencyMillis;
+
+        this.targetRate = targetRate;
+        this.readRatio = readRatio;
+        this.workerThreads = workerThreads;
+        this.requestTimeoutMillis = requestTimeoutMillis;
+        this.warmupSeconds = warmupSeconds;
+        this.durationSeconds = durationSeconds;
+
+        this.churnIntervalSeconds = churnIntervalSeconds;
+        this.churnDowntimeSeconds = churnDowntimeSeconds;
+
+        this.reportIntervalSeconds = reportIntervalSeconds;
+        this.outputDirectory = outputDirectory;
+    }
+
+    public String getNodeAddress() {
+        return nodeAddress;
+    }
+
+    public List<Integer> getAttachPorts() {
+        return attachPorts;
+    }
+
+    public String getNodeJar() {
+        return nodeJar;
+    }
+
+    public Integer getNodeCount() {
+        return nodeCount;
+    }
+
+    public Integer getBasePort() {
+        return basePort;
+    }
+
+    public Integer getFingerRingSizeBits() {
+        return fingerRingSizeBits;
+    }
+
+    public Integer getFingerBase() {
+        return fingerBase;
+    }
+
+    public List<String> getZones() {
+        return zones;
+    }
+
+    public Integer getInterZoneLatencyMillis() {
+        return interZoneLatencyMillis;
+    }
+
+    public Integer getTargetRate() {
+        return targetRate;
+    }
+
+    public Double getReadRatio() {
+        return readRatio;
+    }
+
+    public Integer getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public Integer getRequestTimeoutMillis() {
+        return requestTimeoutMillis;
+    }
+
+    public Integer getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public Integer getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public Integer getChurnIntervalSeconds() {
+        return churnIntervalSeconds;
+    }
+
+    public Integer getChurnDowntimeSeconds() {
+        return churnDowntimeSeconds;
+    }
+
+    public Integer getReportIntervalSeconds() {
+        return reportIntervalSeconds;
+    }
+
+    public String getOutputDirectory() {
+        return outputDirectory;
+    }
+}
@@ -0,0 +1,9 @@
+package org.gty.chord.loadgen.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ChordLoadGeneratorProperties.class)
+public class ChordLoadGeneratorPropertiesConfig {
+}
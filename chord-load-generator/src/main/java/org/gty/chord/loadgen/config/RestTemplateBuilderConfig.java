@@ -0,0 +1,24 @@
+package org.gty.chord.loadgen.config;
+
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class RestTemplateBuilderConfig {
+
+    /**
+     * requests to a killed node have to fail fast, otherwise a worker stuck on one
+     * hides the latency of everything scheduled behind it
+     */
+    @Bean
+    public RestTemplateBuilder restTemplateBuilder(ChordLoadGeneratorProperties properties) {
+        Duration timeout = Duration.ofMillis(properties.getRequestTimeoutMillis());
+
+        return new RestTemplateBuilder()
+            .setConnectTimeout(timeout)
+            .setReadTimeout(timeout);
+    }
+}
@@ -1,40 +1,101 @@
 package org.gty.chord.client;
 
+import org.gty.chord.core.LookupDeadline;
+import org.gty.chord.exception.ChordDeadlineExceededException;
 import org.gty.chord.exception.ChordHealthCheckException;
+import org.gty.chord.exception.ChordNodeBusyException;
+import org.gty.chord.exception.ChordTransportException;
 import org.gty.chord.model.BasicChordNode;
+import org.gty.chord.model.KeyFilter;
+import org.gty.chord.model.MerkleRangeRequest;
+import org.gty.chord.model.NodeState;
+import org.gty.chord.model.OwnershipHint;
+import org.gty.chord.model.StabilizeReply;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 @Service
-public class ChordNodeRestClient {
+public class ChordNodeRestClient implements ChordTransport {
 
     private static final String HTTP = "http://";
     private static final String SEMICOLON = ":";
     private static final String PATH_PREFIX = "/api";
 
     private static final String FIND_SUCCESSOR_PATH = PATH_PREFIX + "/find-successor";
+    private static final String FIND_SUCCESSORS_PATH = PATH_PREFIX + "/find-successors";
+    private static final String FIND_ZONE_SUCCESSOR_PATH = PATH_PREFIX + "/find-zone-successor";
     private static final String NOTIFY_PATH = PATH_PREFIX + "/notify";
+    private static final String FETCH_KEY_FILTER_PATH = PATH_PREFIX + "/fetch-key-filter";
+    private static final String KEY_FILTER_UPDATE_PATH = PATH_PREFIX + "/key-filter-update";
     private static final String GET_PREDECESSOR_PATH = PATH_PREFIX + "/get-predecessor";
     private static final String ASSIGN_KEY_PATH = PATH_PREFIX + "/assign-key";
     private static final String GET_BASIC_INFO_PATH = PATH_PREFIX + "/get-basic-info";
+    private static final String NODE_STATE_PATH = PATH_PREFIX + "/node-state";
     private static final String FETCH_KEY_SET = PATH_PREFIX + "/fetch-key-set";
     private static final String REMOVE_KEY_SET = PATH_PREFIX + "/remove-key-set";
+    private static final String ASSIGN_KEY_SET = PATH_PREFIX + "/assign-key-set";
+    private static final String ASSIGN_OWNED_KEY_SET = PATH_PREFIX + "/assign-owned-key-set";
+    private static final String FETCH_KEY_RANGE = PATH_PREFIX + "/fetch-key-range";
+    private static final String FETCH_KEY_TTLS = PATH_PREFIX + "/fetch-key-ttls";
+    private static final String ASSIGN_KEY_TTLS = PATH_PREFIX + "/assign-key-ttls";
+    private static final String GET_KEY_COUNT = PATH_PREFIX + "/get-key-count";
+    private static final String CONTAINS_KEY_PATH = PATH_PREFIX + "/contains-key";
+    private static final String NODE_MOVED_PATH = PATH_PREFIX + "/node-moved";
+    private static final String ASSIGN_REPLICA_KEY_SET = PATH_PREFIX + "/assign-replica-key-set";
+    private static final String ASSIGN_REPLICA_KEY_TTLS = PATH_PREFIX + "/assign-replica-key-ttls";
+    private static final String GET_REPLICA_MERKLE_HASHES = PATH_PREFIX + "/get-replica-merkle-hashes";
+    private static final String GET_REPLICA_MERKLE_LEAF_KEYS = PATH_PREFIX + "/get-replica-merkle-leaf-keys";
+    private static final String OWNERSHIP_HINTS = PATH_PREFIX + "/ownership-hints";
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 2_000;
+    /**
+     * for calls without a budget of their own. well past the default budget of a
+     * lookup, key migrations can move a lot of keys in one call.
+     */
+    private static final int READ_TIMEOUT_MILLIS = (int) (3L * LookupDeadline.DEFAULT_TIMEOUT_MILLIS);
 
     private final RestTemplate restTemplate;
+    private final HttpClientChordTransport asyncTransport;
+
+    public ChordNodeRestClient(RestTemplateBuilder builder, MappingJackson2SmileHttpMessageConverter smileConverter) {
+        LookupTimeoutRequestFactory requestFactory = new LookupTimeoutRequestFactory();
+        requestFactory.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+        requestFactory.setReadTimeout(READ_TIMEOUT_MILLIS);
+
+        restTemplate = builder
+            .requestFactory(() -> requestFactory)
+            .build();
 
-    public ChordNodeRestClient(RestTemplateBuilder builder) {
-        restTemplate = builder.build();
+        // boot lists the json converter first, move smile ahead of it so other nodes answer in smile
+        restTemplate.getMessageConverters().remove(smileConverter);
+        restTemplate.getMessageConverters().add(0, smileConverter);
+
+        // a rest template call cannot be abandoned midway, asynchronous calls go through the jdk client
+        asyncTransport = new HttpClientChordTransport();
     }
 
+    @Override
     public BasicChordNode findSuccessorRemote(BasicChordNode targetNode, long id) {
         URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, FIND_SUCCESSOR_PATH))
             .queryParam("id", id)
@@ -42,56 +103,297 @@ public class ChordNodeRestClient {
             .build(true)
             .toUri();
 
-        return restTemplate.getForObject(uri, BasicChordNode.class);
+        return call(targetNode, () -> restTemplate.getForObject(uri, BasicChordNode.class));
+    }
+
+    @Override
+    public BasicChordNode findSuccessorRemote(BasicChordNode targetNode, long id, BasicChordNode forwarder, long timeoutMillis) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, FIND_SUCCESSOR_PATH))
+            .queryParam("id", id)
+            .queryParam("forwarderAddress", forwarder.getNodeAddress())
+            .queryParam("forwarderPort", forwarder.getNodePort())
+            .queryParam("timeoutMillis", timeoutMillis)
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return call(targetNode, () -> restTemplate.getForObject(uri, BasicChordNode.class));
+    }
+
+    @Override
+    public CompletableFuture<BasicChordNode> findSuccessorRemoteAsync(BasicChordNode targetNode, long id, BasicChordNode forwarder, long timeoutMillis) {
+        return asyncTransport.findSuccessorRemoteAsync(targetNode, id, forwarder, timeoutMillis);
+    }
+
+    @Override
+    public Map<Long, BasicChordNode> findSuccessorsRemote(BasicChordNode targetNode, long[] ids, BasicChordNode forwarder, long timeoutMillis) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, FIND_SUCCESSORS_PATH))
+            .queryParam("forwarderAddress", forwarder.getNodeAddress())
+            .queryParam("forwarderPort", forwarder.getNodePort())
+            .queryParam("timeoutMillis", timeoutMillis)
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return call(targetNode, () -> restTemplate.exchange(uri, HttpMethod.POST, new HttpEntity<>(ids), new ParameterizedTypeReference<Map<Long, BasicChordNode>>() {})
+            .getBody());
+    }
+
+    @Override
+    public BasicChordNode findZoneSuccessorRemote(BasicChordNode targetNode, long id) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, FIND_ZONE_SUCCESSOR_PATH))
+            .queryParam("id", id)
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return call(targetNode, () -> restTemplate.getForObject(uri, BasicChordNode.class));
+    }
+
+    @Override
+    public StabilizeReply notifyRemote(BasicChordNode self, BasicChordNode targetNode, Long keyFilterVersion) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, NOTIFY_PATH));
+        if (keyFilterVersion != null) {
+            builder.queryParam("keyFilterVersion", keyFilterVersion);
+        }
+
+        URI uri = builder
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return call(targetNode, () -> restTemplate.postForObject(uri, self, StabilizeReply.class));
+    }
+
+    @Override
+    public KeyFilter fetchKeyFilterRemote(BasicChordNode self, BasicChordNode targetNode, Long keyFilterVersion) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, FETCH_KEY_FILTER_PATH));
+        if (keyFilterVersion != null) {
+            builder.queryParam("keyFilterVersion", keyFilterVersion);
+        }
+
+        URI uri = builder
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return call(targetNode, () -> restTemplate.postForObject(uri, self, KeyFilter.class));
+    }
+
+    @Override
+    public void pushKeyFilterUpdateRemote(BasicChordNode targetNode, KeyFilter update) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, KEY_FILTER_UPDATE_PATH))
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        call(targetNode, () -> restTemplate.postForObject(uri, update, Object.class));
     }
 
-    public void notifyRemote(BasicChordNode self, BasicChordNode targetNode) {
-        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, NOTIFY_PATH))
+    @Override
+    public NodeState getNodeStateRemote(BasicChordNode targetNode) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, NODE_STATE_PATH))
             .encode(StandardCharsets.UTF_8)
             .build(true)
             .toUri();
 
-        restTemplate.postForObject(uri, self, String.class);
+        return call(targetNode, () -> restTemplate.getForObject(uri, NodeState.class));
     }
 
+    @Override
     public BasicChordNode getPredecessorRemote(BasicChordNode targetNode) {
         URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, GET_PREDECESSOR_PATH))
             .encode(StandardCharsets.UTF_8)
             .build(true)
             .toUri();
 
-        return restTemplate.getForObject(uri, BasicChordNode.class);
+        return call(targetNode, () -> restTemplate.getForObject(uri, BasicChordNode.class));
     }
 
-    public BasicChordNode assignKeyRemote(BasicChordNode targetNode, long key) {
-        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, ASSIGN_KEY_PATH))
-            .queryParam("key", key)
+    @Override
+    public BasicChordNode assignKeyRemote(BasicChordNode targetNode, long key, Long ttlMillis) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, ASSIGN_KEY_PATH))
+            .queryParam("key", key);
+        if (ttlMillis != null) {
+            builder.queryParam("ttlMillis", ttlMillis);
+        }
+
+        URI uri = builder
             .encode(StandardCharsets.UTF_8)
             .build(true)
             .toUri();
 
-        return restTemplate.getForObject(uri, BasicChordNode.class);
+        return call(targetNode, () -> restTemplate.getForObject(uri, BasicChordNode.class));
     }
 
+    @Override
     public Set<Long> fetchKeySetRemote(BasicChordNode targetNode) {
         URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, FETCH_KEY_SET))
             .encode(StandardCharsets.UTF_8)
             .build(true)
             .toUri();
 
-        return restTemplate.exchange(uri, HttpMethod.GET, null, new ParameterizedTypeReference<Set<Long>>() {})
-            .getBody();
+        return call(targetNode, () -> restTemplate.exchange(uri, HttpMethod.GET, null, new ParameterizedTypeReference<Set<Long>>() {})
+            .getBody());
     }
 
+    @Override
     public void removeKeySetRemote(BasicChordNode targetNode, Set<Long> keySet) {
         URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, REMOVE_KEY_SET))
             .encode(StandardCharsets.UTF_8)
             .build(true)
             .toUri();
 
-        restTemplate.postForObject(uri, keySet, Object.class);
+        call(targetNode, () -> restTemplate.postForObject(uri, keySet, Object.class));
+    }
+
+    @Override
+    public void assignKeySetRemote(BasicChordNode targetNode, Set<Long> keySet) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, ASSIGN_KEY_SET))
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        call(targetNode, () -> restTemplate.postForObject(uri, keySet, Object.class));
+    }
+
+    @Override
+    public Set<Long> assignOwnedKeySetRemote(BasicChordNode targetNode, Set<Long> keySet) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, ASSIGN_OWNED_KEY_SET))
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return call(targetNode, () -> restTemplate.exchange(uri, HttpMethod.POST, new HttpEntity<>(keySet), new ParameterizedTypeReference<Set<Long>>() {})
+            .getBody());
     }
 
+    @Override
+    public List<Long> fetchKeyRangeRemote(BasicChordNode targetNode, long from, long to, int limit) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, FETCH_KEY_RANGE))
+            .queryParam("from", from)
+            .queryParam("to", to)
+            .queryParam("limit", limit)
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return call(targetNode, () -> restTemplate.exchange(uri, HttpMethod.GET, null, new ParameterizedTypeReference<List<Long>>() {})
+            .getBody());
+    }
+
+    @Override
+    public Map<Long, Long> fetchKeyTtlsRemote(BasicChordNode targetNode, long from, long to) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, FETCH_KEY_TTLS))
+            .queryParam("from", from)
+            .queryParam("to", to)
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return call(targetNode, () -> restTemplate.exchange(uri, HttpMethod.GET, null, new ParameterizedTypeReference<Map<Long, Long>>() {})
+            .getBody());
+    }
+
+    @Override
+    public void assignKeyTtlsRemote(BasicChordNode targetNode, Map<Long, Long> keyTtls) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, ASSIGN_KEY_TTLS))
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        call(targetNode, () -> restTemplate.postForObject(uri, keyTtls, Object.class));
+    }
+
+    @Override
+    public int getKeyCountRemote(BasicChordNode targetNode) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, GET_KEY_COUNT))
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        Integer keyCount = call(targetNode, () -> restTemplate.getForObject(uri, Integer.class));
+        return keyCount == null ? 0 : keyCount;
+    }
+
+    @Override
+    public boolean containsKeyRemote(BasicChordNode targetNode, long key, boolean owned, BasicChordNode forwarder, long timeoutMillis) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, CONTAINS_KEY_PATH))
+            .queryParam("key", key)
+            .queryParam("owned", owned)
+            .queryParam("forwarderAddress", forwarder.getNodeAddress())
+            .queryParam("forwarderPort", forwarder.getNodePort())
+            .queryParam("timeoutMillis", timeoutMillis)
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return Boolean.TRUE.equals(call(targetNode, () -> restTemplate.getForObject(uri, Boolean.class)));
+    }
+
+    @Override
+    public void nodeMovedRemote(BasicChordNode targetNode, BasicChordNode movedNode) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, NODE_MOVED_PATH))
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        call(targetNode, () -> restTemplate.postForObject(uri, movedNode, String.class));
+    }
+
+    @Override
+    public void assignReplicaKeySetRemote(BasicChordNode targetNode, Set<Long> keySet) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, ASSIGN_REPLICA_KEY_SET))
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        call(targetNode, () -> restTemplate.postForObject(uri, keySet, Object.class));
+    }
+
+    @Override
+    public void assignReplicaKeyTtlsRemote(BasicChordNode targetNode, Map<Long, Long> keyTtls) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, ASSIGN_REPLICA_KEY_TTLS))
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        call(targetNode, () -> restTemplate.postForObject(uri, keyTtls, Object.class));
+    }
+
+    @Override
+    public void pushOwnershipHintsRemote(BasicChordNode targetNode, List<OwnershipHint> hints) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, OWNERSHIP_HINTS))
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        call(targetNode, () -> restTemplate.postForObject(uri, hints, Object.class));
+    }
+
+    @Override
+    public List<Long> getReplicaMerkleHashesRemote(BasicChordNode targetNode, MerkleRangeRequest request) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, GET_REPLICA_MERKLE_HASHES))
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return call(targetNode, () -> restTemplate.exchange(uri, HttpMethod.POST, new HttpEntity<>(request), new ParameterizedTypeReference<List<Long>>() {})
+            .getBody());
+    }
+
+    @Override
+    public List<Long> getReplicaMerkleLeafKeysRemote(BasicChordNode targetNode, MerkleRangeRequest request) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, GET_REPLICA_MERKLE_LEAF_KEYS))
+            .encode(StandardCharsets.UTF_8)
+            .build(true)
+            .toUri();
+
+        return call(targetNode, () -> restTemplate.exchange(uri, HttpMethod.POST, new HttpEntity<>(request), new ParameterizedTypeReference<List<Long>>() {})
+            .getBody());
+    }
+
+    @Override
     public void healthCheck(BasicChordNode targetNode) {
         URI uri = UriComponentsBuilder.fromHttpUrl(buildUrlFromNode(targetNode, GET_BASIC_INFO_PATH))
             .encode(StandardCharsets.UTF_8)
@@ -99,19 +401,39 @@ public class ChordNodeRestClient {
             .toUri();
 
         try {
-            restTemplate.getForObject(uri, BasicChordNode.class);
-        } catch (RestClientException ex) {
+            call(targetNode, () -> restTemplate.getForObject(uri, BasicChordNode.class));
+        } catch (ChordNodeBusyException ex) {
+            // shedding load is an answer, the node is alive
+        } catch (ChordTransportException ex) {
             throw new ChordHealthCheckException("Chord health check for node: " + targetNode + " has failed", ex);
         }
     }
 
+    @Override
     public BasicChordNode queryNode(String address, int port) {
         URI uri = UriComponentsBuilder.fromHttpUrl(buildUrl(address, port, GET_BASIC_INFO_PATH))
             .encode(StandardCharsets.UTF_8)
             .build(true)
             .toUri();
 
-        return restTemplate.getForObject(uri, BasicChordNode.class);
+        return call(address + SEMICOLON + port, () -> restTemplate.getForObject(uri, BasicChordNode.class));
+    }
+
+    private static <T> T call(Object target, Supplier<T> request) {
+        try {
+            return request.get();
+        } catch (HttpServerErrorException.ServiceUnavailable ex) {
+            throw new ChordNodeBusyException("Chord node: " + target + " is busy", ex);
+        } catch (HttpServerErrorException.GatewayTimeout ex) {
+            throw new ChordDeadlineExceededException("Chord node: " + target + " gave up on the lookup at its deadline", ex);
+        } catch (ResourceAccessException ex) {
+            if (ex.getCause() instanceof SocketTimeoutException) {
+                throw new ChordDeadlineExceededException("Call to chord node: " + target + " has timed out", ex);
+            }
+            throw new ChordTransportException("Call to chord node: " + target + " has failed", ex);
+        } catch (RestClientException ex) {
+            throw new ChordTransportException("Call to chord node: " + target + " has failed", ex);
+        }
     }
 
     private static String buildUrlFromNode(BasicChordNode targetNode, String path) {
@@ -121,4 +443,26 @@ public class ChordNodeRestClient {
     private static String buildUrl(String address, int port, String path) {
         return HTTP + address + SEMICOLON + port + path;
     }
+
+    /**
+     * abandons a lookup once the budget it sends along in timeoutMillis is spent, like
+     * the target node does, instead of holding the calling thread until the read timeout.
+     * the request itself carries the budget, so the one rest template serves every call.
+     */
+    private static class LookupTimeoutRequestFactory extends SimpleClientHttpRequestFactory {
+
+        @Override
+        protected void prepareConnection(HttpURLConnection connection, String httpMethod) throws IOException {
+            super.prepareConnection(connection, httpMethod);
+
+            String timeoutMillis = UriComponentsBuilder.fromHttpUrl(connection.getURL().toString())
+                .build()
+                .getQueryParams()
+                .getFirst("timeoutMillis");
+
+            if (timeoutMillis != null) {
+                connection.setReadTimeout((int) Math.min(Math.max(1L, Long.parseLong(timeoutMillis)), Integer.MAX_VALUE));
+            }
+        }
+    }
 }
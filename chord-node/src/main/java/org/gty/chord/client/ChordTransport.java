@@ -0,0 +1,122 @@
+package org.gty.chord.client;
+
+import org.gty.chord.model.BasicChordNode;
+import org.gty.chord.model.KeyFilter;
+import org.gty.chord.model.MerkleRangeRequest;
+import org.gty.chord.model.NodeState;
+import org.gty.chord.model.OwnershipHint;
+import org.gty.chord.model.StabilizeReply;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * remote calls a node makes to other nodes.
+ *
+ * implementations throw {@link org.gty.chord.exception.ChordTransportException} when a
+ * call fails, {@link org.gty.chord.exception.ChordNodeBusyException} when the target
+ * sheds load, and {@link org.gty.chord.exception.ChordHealthCheckException} from health checks.
+ */
+public interface ChordTransport {
+
+    BasicChordNode findSuccessorRemote(BasicChordNode targetNode, long id);
+
+    /**
+     * @param timeoutMillis budget left for the lookup, the target node gives up with 504 once it is spent
+     */
+    BasicChordNode findSuccessorRemote(BasicChordNode targetNode, long id, BasicChordNode forwarder, long timeoutMillis);
+
+    /**
+     * like {@link #findSuccessorRemote(BasicChordNode, long, BasicChordNode, long)}, without
+     * holding a thread while the lookup runs. cancelling the future abandons the request.
+     *
+     * @return completes with the successor, or exceptionally with the exceptions the blocking call throws
+     */
+    CompletableFuture<BasicChordNode> findSuccessorRemoteAsync(BasicChordNode targetNode, long id, BasicChordNode forwarder, long timeoutMillis);
+
+    Map<Long, BasicChordNode> findSuccessorsRemote(BasicChordNode targetNode, long[] ids, BasicChordNode forwarder, long timeoutMillis);
+
+    /**
+     * @return successor of id among the nodes in the zone of the target node
+     */
+    BasicChordNode findZoneSuccessorRemote(BasicChordNode targetNode, long id);
+
+    /**
+     * @param keyFilterVersion version of the target node's key filter the caller has, null if it has none
+     * @return predecessor and successor list of the target node after the notify,
+     * null when the target node is too old to send them
+     */
+    StabilizeReply notifyRemote(BasicChordNode self, BasicChordNode targetNode, Long keyFilterVersion);
+
+    /**
+     * @param keyFilterVersion version of the target node's key filter the caller has, null if it has none
+     * @return null if the caller's filter is current, the keys added since if they are all known, the whole filter otherwise
+     */
+    KeyFilter fetchKeyFilterRemote(BasicChordNode self, BasicChordNode targetNode, Long keyFilterVersion);
+
+    /**
+     * @param update keys the owner of the update added to its key filter, for a node holding the filter
+     */
+    void pushKeyFilterUpdateRemote(BasicChordNode targetNode, KeyFilter update);
+
+    NodeState getNodeStateRemote(BasicChordNode targetNode);
+
+    BasicChordNode getPredecessorRemote(BasicChordNode targetNode);
+
+    /**
+     * @param ttlMillis time to live of the key, null to keep it until it is removed
+     */
+    BasicChordNode assignKeyRemote(BasicChordNode targetNode, long key, Long ttlMillis);
+
+    Set<Long> fetchKeySetRemote(BasicChordNode targetNode);
+
+    void removeKeySetRemote(BasicChordNode targetNode, Set<Long> keySet);
+
+    void assignKeySetRemote(BasicChordNode targetNode, Set<Long> keySet);
+
+    /**
+     * @return keys the target node rejected because they belong to another node
+     */
+    Set<Long> assignOwnedKeySetRemote(BasicChordNode targetNode, Set<Long> keySet);
+
+    List<Long> fetchKeyRangeRemote(BasicChordNode targetNode, long from, long to, int limit);
+
+    /**
+     * @return remaining time to live in milliseconds of the expiring keys in (from, to]
+     */
+    Map<Long, Long> fetchKeyTtlsRemote(BasicChordNode targetNode, long from, long to);
+
+    void assignKeyTtlsRemote(BasicChordNode targetNode, Map<Long, Long> keyTtls);
+
+    int getKeyCountRemote(BasicChordNode targetNode);
+
+    /**
+     * @param owned whether the target node owns key, it then answers from its own keys
+     * @param timeoutMillis budget left for the request, the target node gives up with 504 once it is spent
+     */
+    boolean containsKeyRemote(BasicChordNode targetNode, long key, boolean owned, BasicChordNode forwarder, long timeoutMillis);
+
+    void nodeMovedRemote(BasicChordNode targetNode, BasicChordNode movedNode);
+
+    void assignReplicaKeySetRemote(BasicChordNode targetNode, Set<Long> keySet);
+
+    /**
+     * @param keyTtls remaining time to live of replicated keys, zero drops the key from the replica
+     */
+    void assignReplicaKeyTtlsRemote(BasicChordNode targetNode, Map<Long, Long> keyTtls);
+
+    void pushOwnershipHintsRemote(BasicChordNode targetNode, List<OwnershipHint> hints);
+
+    List<Long> getReplicaMerkleHashesRemote(BasicChordNode targetNode, MerkleRangeRequest request);
+
+    List<Long> getReplicaMerkleLeafKeysRemote(BasicChordNode targetNode, MerkleRangeRequest request);
+
+    /**
+     * a node that answers busy passes the check, it is alive
+     */
+    void healthCheck(BasicChordNode targetNode);
+
+    BasicChordNode queryNode(String address, int port);
+}
@@ -0,0 +1,405 @@
+package org.gty.chord.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.gty.chord.config.ChordMediaTypes;
+import org.gty.chord.exception.ChordDeadlineExceededException;
+import org.gty.chord.exception.ChordHealthCheckException;
+import org.gty.chord.exception.ChordNodeBusyException;
+import org.gty.chord.exception.ChordTransportException;
+import org.gty.chord.model.BasicChordNode;
+import org.gty.chord.model.KeyFilter;
+import org.gty.chord.model.MerkleRangeRequest;
+import org.gty.chord.model.NodeState;
+import org.gty.chord.model.OwnershipHint;
+import org.gty.chord.model.StabilizeReply;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+
+/**
+ * transport on top of the jdk http client, for nodes hosted without spring.
+ * it speaks smile, like ChordNodeRestClient does in the spring boot app.
+ */
+public class HttpClientChordTransport implements ChordTransport {
+
+    private static final String HTTP = "http://";
+    private static final String SEMICOLON = ":";
+    private static final String PATH_PREFIX = "/api";
+
+    private static final String FIND_SUCCESSOR_PATH = PATH_PREFIX + "/find-successor";
+    private static final String FIND_SUCCESSORS_PATH = PATH_PREFIX + "/find-successors";
+    private static final String FIND_ZONE_SUCCESSOR_PATH = PATH_PREFIX + "/find-zone-successor";
+    private static final String NOTIFY_PATH = PATH_PREFIX + "/notify";
+    private static final String FETCH_KEY_FILTER_PATH = PATH_PREFIX + "/fetch-key-filter";
+    private static final String KEY_FILTER_UPDATE_PATH = PATH_PREFIX + "/key-filter-update";
+    private static final String GET_PREDECESSOR_PATH = PATH_PREFIX + "/get-predecessor";
+    private static final String ASSIGN_KEY_PATH = PATH_PREFIX + "/assign-key";
+    private static final String GET_BASIC_INFO_PATH = PATH_PREFIX + "/get-basic-info";
+    private static final String NODE_STATE_PATH = PATH_PREFIX + "/node-state";
+    private static final String FETCH_KEY_SET = PATH_PREFIX + "/fetch-key-set";
+    private static final String REMOVE_KEY_SET = PATH_PREFIX + "/remove-key-set";
+    private static final String ASSIGN_KEY_SET = PATH_PREFIX + "/assign-key-set";
+    private static final String ASSIGN_OWNED_KEY_SET = PATH_PREFIX + "/assign-owned-key-set";
+    private static final String FETCH_KEY_RANGE = PATH_PREFIX + "/fetch-key-range";
+    private static final String FETCH_KEY_TTLS = PATH_PREFIX + "/fetch-key-ttls";
+    private static final String ASSIGN_KEY_TTLS = PATH_PREFIX + "/assign-key-ttls";
+    private static final String GET_KEY_COUNT = PATH_PREFIX + "/get-key-count";
+    private static final String CONTAINS_KEY_PATH = PATH_PREFIX + "/contains-key";
+    private static final String NODE_MOVED_PATH = PATH_PREFIX + "/node-moved";
+    private static final String ASSIGN_REPLICA_KEY_SET = PATH_PREFIX + "/assign-replica-key-set";
+    private static final String ASSIGN_REPLICA_KEY_TTLS = PATH_PREFIX + "/assign-replica-key-ttls";
+    private static final String GET_REPLICA_MERKLE_HASHES = PATH_PREFIX + "/get-replica-merkle-hashes";
+    private static final String GET_REPLICA_MERKLE_LEAF_KEYS = PATH_PREFIX + "/get-replica-merkle-leaf-keys";
+    private static final String OWNERSHIP_HINTS = PATH_PREFIX + "/ownership-hints";
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(2);
+    /**
+     * the client's threads only hand over finished exchanges, the connections are
+     * served by its selector thread, so a few of them keep up with many requests
+     */
+    private static final int CLIENT_THREADS = 8;
+    private static final int SERVICE_UNAVAILABLE = 503;
+    private static final int GATEWAY_TIMEOUT = 504;
+
+    private static final TypeReference<Set<Long>> KEY_SET = new TypeReference<>() {};
+    private static final TypeReference<List<Long>> KEY_LIST = new TypeReference<>() {};
+    private static final TypeReference<Map<Long, BasicChordNode>> OWNERS = new TypeReference<>() {};
+    private static final TypeReference<Map<Long, Long>> KEY_TTLS = new TypeReference<>() {};
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+
+    public HttpClientChordTransport() {
+        httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(CONNECT_TIMEOUT)
+            .executor(Executors.newFixedThreadPool(CLIENT_THREADS, new ThreadFactoryBuilder()
+                .setNameFormat("chord-http-client-%d")
+                .setDaemon(true)
+                .build()))
+            .build();
+        objectMapper = new ObjectMapper(new SmileFactory())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    @Override
+    public BasicChordNode findSuccessorRemote(BasicChordNode targetNode, long id) {
+        return get(targetNode, FIND_SUCCESSOR_PATH + "?id=" + id, BasicChordNode.class);
+    }
+
+    @Override
+    public BasicChordNode findSuccessorRemote(BasicChordNode targetNode, long id, BasicChordNode forwarder, long timeoutMillis) {
+        String pathAndQuery = FIND_SUCCESSOR_PATH + "?id=" + id
+            + "&forwarderAddress=" + URLEncoder.encode(forwarder.getNodeAddress(), StandardCharsets.UTF_8)
+            + "&forwarderPort=" + forwarder.getNodePort()
+            + "&timeoutMillis=" + timeoutMillis;
+
+        // the request itself is abandoned at the deadline too, not only the lookup on the target node
+        HttpRequest request = request(targetNode, pathAndQuery)
+            .timeout(Duration.ofMillis(Math.max(1L, timeoutMillis)))
+            .GET()
+            .build();
+
+        return readValue(send(targetNode, request), objectMapper.constructType(BasicChordNode.class));
+    }
+
+    @Override
+    public CompletableFuture<BasicChordNode> findSuccessorRemoteAsync(BasicChordNode targetNode, long id, BasicChordNode forwarder, long timeoutMillis) {
+        String pathAndQuery = FIND_SUCCESSOR_PATH + "?id=" + id
+            + "&forwarderAddress=" + URLEncoder.encode(forwarder.getNodeAddress(), StandardCharsets.UTF_8)
+            + "&forwarderPort=" + forwarder.getNodePort()
+            + "&timeoutMillis=" + timeoutMillis;
+
+        HttpRequest request = request(targetNode, pathAndQuery)
+            .timeout(Duration.ofMillis(Math.max(1L, timeoutMillis)))
+            .GET()
+            .build();
+
+        return sendAsync(targetNode, request, objectMapper.constructType(BasicChordNode.class));
+    }
+
+    @Override
+    public Map<Long, BasicChordNode> findSuccessorsRemote(BasicChordNode targetNode, long[] ids, BasicChordNode forwarder, long timeoutMillis) {
+        String path = FIND_SUCCESSORS_PATH
+            + "?forwarderAddress=" + URLEncoder.encode(forwarder.getNodeAddress(), StandardCharsets.UTF_8)
+            + "&forwarderPort=" + forwarder.getNodePort()
+            + "&timeoutMillis=" + timeoutMillis;
+
+        HttpRequest request = request(targetNode, path)
+            .timeout(Duration.ofMillis(Math.max(1L, timeoutMillis)))
+            .header("Content-Type", ChordMediaTypes.APPLICATION_SMILE_VALUE)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(encode(targetNode, ids)))
+            .build();
+
+        return readCollection(send(targetNode, request), OWNERS);
+    }
+
+    @Override
+    public BasicChordNode findZoneSuccessorRemote(BasicChordNode targetNode, long id) {
+        return get(targetNode, FIND_ZONE_SUCCESSOR_PATH + "?id=" + id, BasicChordNode.class);
+    }
+
+    @Override
+    public StabilizeReply notifyRemote(BasicChordNode self, BasicChordNode targetNode, Long keyFilterVersion) {
+        String pathAndQuery = NOTIFY_PATH + (keyFilterVersion == null ? "" : "?keyFilterVersion=" + keyFilterVersion);
+
+        return readValue(send(targetNode, postRequest(targetNode, pathAndQuery, self)), objectMapper.constructType(StabilizeReply.class));
+    }
+
+    @Override
+    public KeyFilter fetchKeyFilterRemote(BasicChordNode self, BasicChordNode targetNode, Long keyFilterVersion) {
+        String pathAndQuery = FETCH_KEY_FILTER_PATH + (keyFilterVersion == null ? "" : "?keyFilterVersion=" + keyFilterVersion);
+
+        return readValue(send(targetNode, postRequest(targetNode, pathAndQuery, self)), objectMapper.constructType(KeyFilter.class));
+    }
+
+    @Override
+    public void pushKeyFilterUpdateRemote(BasicChordNode targetNode, KeyFilter update) {
+        post(targetNode, KEY_FILTER_UPDATE_PATH, update);
+    }
+
+    @Override
+    public NodeState getNodeStateRemote(BasicChordNode targetNode) {
+        return get(targetNode, NODE_STATE_PATH, NodeState.class);
+    }
+
+    @Override
+    public BasicChordNode getPredecessorRemote(BasicChordNode targetNode) {
+        return get(targetNode, GET_PREDECESSOR_PATH, BasicChordNode.class);
+    }
+
+    @Override
+    public BasicChordNode assignKeyRemote(BasicChordNode targetNode, long key, Long ttlMillis) {
+        String pathAndQuery = ASSIGN_KEY_PATH + "?key=" + key
+            + (ttlMillis == null ? "" : "&ttlMillis=" + ttlMillis);
+
+        return get(targetNode, pathAndQuery, BasicChordNode.class);
+    }
+
+    @Override
+    public Set<Long> fetchKeySetRemote(BasicChordNode targetNode) {
+        return getCollection(targetNode, FETCH_KEY_SET, KEY_SET);
+    }
+
+    @Override
+    public void removeKeySetRemote(BasicChordNode targetNode, Set<Long> keySet) {
+        post(targetNode, REMOVE_KEY_SET, keySet);
+    }
+
+    @Override
+    public void assignKeySetRemote(BasicChordNode targetNode, Set<Long> keySet) {
+        post(targetNode, ASSIGN_KEY_SET, keySet);
+    }
+
+    @Override
+    public Set<Long> assignOwnedKeySetRemote(BasicChordNode targetNode, Set<Long> keySet) {
+        return readCollection(send(targetNode, postRequest(targetNode, ASSIGN_OWNED_KEY_SET, keySet)), KEY_SET);
+    }
+
+    @Override
+    public List<Long> fetchKeyRangeRemote(BasicChordNode targetNode, long from, long to, int limit) {
+        return getCollection(targetNode, FETCH_KEY_RANGE + "?from=" + from + "&to=" + to + "&limit=" + limit, KEY_LIST);
+    }
+
+    @Override
+    public Map<Long, Long> fetchKeyTtlsRemote(BasicChordNode targetNode, long from, long to) {
+        return getCollection(targetNode, FETCH_KEY_TTLS + "?from=" + from + "&to=" + to, KEY_TTLS);
+    }
+
+    @Override
+    public void assignKeyTtlsRemote(BasicChordNode targetNode, Map<Long, Long> keyTtls) {
+        post(targetNode, ASSIGN_KEY_TTLS, keyTtls);
+    }
+
+    @Override
+    public int getKeyCountRemote(BasicChordNode targetNode) {
+        Integer keyCount = get(targetNode, GET_KEY_COUNT, Integer.class);
+        return keyCount == null ? 0 : keyCount;
+    }
+
+    @Override
+    public boolean containsKeyRemote(BasicChordNode targetNode, long key, boolean owned, BasicChordNode forwarder, long timeoutMillis) {
+        String pathAndQuery = CONTAINS_KEY_PATH + "?key=" + key + "&owned=" + owned
+            + "&forwarderAddress=" + URLEncoder.encode(forwarder.getNodeAddress(), StandardCharsets.UTF_8)
+            + "&forwarderPort=" + forwarder.getNodePort()
+            + "&timeoutMillis=" + timeoutMillis;
+
+        HttpRequest request = request(targetNode, pathAndQuery)
+            .timeout(Duration.ofMillis(Math.max(1L, timeoutMillis)))
+            .GET()
+            .build();
+
+        return Boolean.TRUE.equals(readValue(send(targetNode, request), objectMapper.constructType(Boolean.class)));
+    }
+
+    @Override
+    public void nodeMovedRemote(BasicChordNode targetNode, BasicChordNode movedNode) {
+        post(targetNode, NODE_MOVED_PATH, movedNode);
+    }
+
+    @Override
+    public void assignReplicaKeySetRemote(BasicChordNode targetNode, Set<Long> keySet) {
+        post(targetNode, ASSIGN_REPLICA_KEY_SET, keySet);
+    }
+
+    @Override
+    public void assignReplicaKeyTtlsRemote(BasicChordNode targetNode, Map<Long, Long> keyTtls) {
+        post(targetNode, ASSIGN_REPLICA_KEY_TTLS, keyTtls);
+    }
+
+    @Override
+    public void pushOwnershipHintsRemote(BasicChordNode targetNode, List<OwnershipHint> hints) {
+        post(targetNode, OWNERSHIP_HINTS, hints);
+    }
+
+    @Override
+    public List<Long> getReplicaMerkleHashesRemote(BasicChordNode targetNode, MerkleRangeRequest request) {
+        return readCollection(send(targetNode, postRequest(targetNode, GET_REPLICA_MERKLE_HASHES, request)), KEY_LIST);
+    }
+
+    @Override
+    public List<Long> getReplicaMerkleLeafKeysRemote(BasicChordNode targetNode, MerkleRangeRequest request) {
+        return readCollection(send(targetNode, postRequest(targetNode, GET_REPLICA_MERKLE_LEAF_KEYS, request)), KEY_LIST);
+    }
+
+    @Override
+    public void healthCheck(BasicChordNode targetNode) {
+        try {
+            get(targetNode, GET_BASIC_INFO_PATH, BasicChordNode.class);
+        } catch (ChordNodeBusyException ex) {
+            // shedding load is an answer, the node is alive
+        } catch (ChordTransportException ex) {
+            throw new ChordHealthCheckException("Chord health check for node: " + targetNode + " has failed", ex);
+        }
+    }
+
+    @Override
+    public BasicChordNode queryNode(String address, int port) {
+        BasicChordNode target = new BasicChordNode(null, address, port, 0L);
+        return get(target, GET_BASIC_INFO_PATH, BasicChordNode.class);
+    }
+
+    private <T> T get(BasicChordNode targetNode, String pathAndQuery, Class<T> type) {
+        return readValue(send(targetNode, request(targetNode, pathAndQuery).GET().build()), objectMapper.constructType(type));
+    }
+
+    private <T> T getCollection(BasicChordNode targetNode, String pathAndQuery, TypeReference<T> type) {
+        return readCollection(send(targetNode, request(targetNode, pathAndQuery).GET().build()), type);
+    }
+
+    private void post(BasicChordNode targetNode, String path, Object payload) {
+        send(targetNode, postRequest(targetNode, path, payload));
+    }
+
+    private HttpRequest postRequest(BasicChordNode targetNode, String path, Object payload) {
+        return request(targetNode, path)
+            .header("Content-Type", ChordMediaTypes.APPLICATION_SMILE_VALUE)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(encode(targetNode, payload)))
+            .build();
+    }
+
+    private byte[] encode(BasicChordNode targetNode, Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (IOException ex) {
+            throw new ChordTransportException("Failed to encode request to chord node: " + targetNode, ex);
+        }
+    }
+
+    private static HttpRequest.Builder request(BasicChordNode targetNode, String pathAndQuery) {
+        return HttpRequest.newBuilder(URI.create(HTTP + targetNode.getNodeAddress() + SEMICOLON + targetNode.getNodePort() + pathAndQuery))
+            .header("Accept", ChordMediaTypes.APPLICATION_SMILE_VALUE);
+    }
+
+    private byte[] send(BasicChordNode targetNode, HttpRequest request) {
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (HttpTimeoutException ex) {
+            throw new ChordDeadlineExceededException("Call to chord node: " + targetNode + " has timed out", ex);
+        } catch (IOException ex) {
+            throw new ChordTransportException("Call to chord node: " + targetNode + " has failed", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ChordTransportException("Interrupted while calling chord node: " + targetNode, ex);
+        }
+
+        return body(targetNode, response);
+    }
+
+    /**
+     * cancelling the returned future cancels the exchange as well
+     */
+    private <T> CompletableFuture<T> sendAsync(BasicChordNode targetNode, HttpRequest request, JavaType type) {
+        CompletableFuture<HttpResponse<byte[]>> exchange = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        CompletableFuture<T> result = exchange.handle((response, ex) -> {
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+
+            if (cause instanceof HttpTimeoutException) {
+                throw new ChordDeadlineExceededException("Call to chord node: " + targetNode + " has timed out", cause);
+            }
+            if (cause != null) {
+                throw new ChordTransportException("Call to chord node: " + targetNode + " has failed", cause);
+            }
+            return readValue(body(targetNode, response), type);
+        });
+
+        result.whenComplete((value, ex) -> {
+            if (ex instanceof CancellationException) {
+                exchange.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private static byte[] body(BasicChordNode targetNode, HttpResponse<byte[]> response) {
+        if (response.statusCode() == SERVICE_UNAVAILABLE) {
+            throw new ChordNodeBusyException("Chord node: " + targetNode + " is busy");
+        }
+        if (response.statusCode() == GATEWAY_TIMEOUT) {
+            throw new ChordDeadlineExceededException("Chord node: " + targetNode + " gave up on the lookup at its deadline");
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new ChordTransportException("Call to chord node: " + targetNode
+                + " has failed with status " + response.statusCode());
+        }
+
+        return response.body();
+    }
+
+    private <T> T readCollection(byte[] body, TypeReference<T> type) {
+        return readValue(body, objectMapper.getTypeFactory().constructType(type));
+    }
+
+    private <T> T readValue(byte[] body, JavaType type) {
+        if (body.length == 0) {
+            return null;
+        }
+
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (IOException ex) {
+            throw new ChordTransportException("Failed to decode response of chord node", ex);
+        }
+    }
+}
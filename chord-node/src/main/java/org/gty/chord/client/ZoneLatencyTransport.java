@@ -0,0 +1,214 @@
+package org.gty.chord.client;
+
+import org.gty.chord.exception.ChordTransportException;
+import org.gty.chord.model.BasicChordNode;
+import org.gty.chord.model.KeyFilter;
+import org.gty.chord.model.MerkleRangeRequest;
+import org.gty.chord.model.NodeState;
+import org.gty.chord.model.OwnershipHint;
+import org.gty.chord.model.StabilizeReply;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * delays every call to a node of another zone by a fixed round trip time before
+ * handing it to the wrapped transport. it lets nodes running on one machine behave
+ * like nodes spread over several sites, to see what zone-aware routing saves.
+ * nodes given by address only, as in {@link #queryNode(String, int)}, are not delayed.
+ */
+public class ZoneLatencyTransport implements ChordTransport {
+
+    private final ChordTransport delegate;
+    private final String zone;
+    private final long interZoneLatencyMillis;
+
+    public ZoneLatencyTransport(ChordTransport delegate, String zone, long interZoneLatencyMillis) {
+        this.delegate = delegate;
+        this.zone = zone;
+        this.interZoneLatencyMillis = interZoneLatencyMillis;
+    }
+
+    @Override
+    public BasicChordNode findSuccessorRemote(BasicChordNode targetNode, long id) {
+        delay(targetNode);
+        return delegate.findSuccessorRemote(targetNode, id);
+    }
+
+    @Override
+    public BasicChordNode findSuccessorRemote(BasicChordNode targetNode, long id, BasicChordNode forwarder, long timeoutMillis) {
+        delay(targetNode);
+        return delegate.findSuccessorRemote(targetNode, id, forwarder, timeoutMillis);
+    }
+
+    @Override
+    public CompletableFuture<BasicChordNode> findSuccessorRemoteAsync(BasicChordNode targetNode, long id, BasicChordNode forwarder, long timeoutMillis) {
+        delay(targetNode);
+        return delegate.findSuccessorRemoteAsync(targetNode, id, forwarder, timeoutMillis);
+    }
+
+    @Override
+    public Map<Long, BasicChordNode> findSuccessorsRemote(BasicChordNode targetNode, long[] ids, BasicChordNode forwarder, long timeoutMillis) {
+        delay(targetNode);
+        return delegate.findSuccessorsRemote(targetNode, ids, forwarder, timeoutMillis);
+    }
+
+    @Override
+    public BasicChordNode findZoneSuccessorRemote(BasicChordNode targetNode, long id) {
+        delay(targetNode);
+        return delegate.findZoneSuccessorRemote(targetNode, id);
+    }
+
+    @Override
+    public StabilizeReply notifyRemote(BasicChordNode self, BasicChordNode targetNode, Long keyFilterVersion) {
+        delay(targetNode);
+        return delegate.notifyRemote(self, targetNode, keyFilterVersion);
+    }
+
+    @Override
+    public KeyFilter fetchKeyFilterRemote(BasicChordNode self, BasicChordNode targetNode, Long keyFilterVersion) {
+        delay(targetNode);
+        return delegate.fetchKeyFilterRemote(self, targetNode, keyFilterVersion);
+    }
+
+    @Override
+    public void pushKeyFilterUpdateRemote(BasicChordNode targetNode, KeyFilter update) {
+        delay(targetNode);
+        delegate.pushKeyFilterUpdateRemote(targetNode, update);
+    }
+
+    @Override
+    public NodeState getNodeStateRemote(BasicChordNode targetNode) {
+        delay(targetNode);
+        return delegate.getNodeStateRemote(targetNode);
+    }
+
+    @Override
+    public BasicChordNode getPredecessorRemote(BasicChordNode targetNode) {
+        delay(targetNode);
+        return delegate.getPredecessorRemote(targetNode);
+    }
+
+    @Override
+    public BasicChordNode assignKeyRemote(BasicChordNode targetNode, long key, Long ttlMillis) {
+        delay(targetNode);
+        return delegate.assignKeyRemote(targetNode, key, ttlMillis);
+    }
+
+    @Override
+    public Set<Long> fetchKeySetRemote(BasicChordNode targetNode) {
+        delay(targetNode);
+        return delegate.fetchKeySetRemote(targetNode);
+    }
+
+    @Override
+    public void removeKeySetRemote(BasicChordNode targetNode, Set<Long> keySet) {
+        delay(targetNode);
+        delegate.removeKeySetRemote(targetNode, keySet);
+    }
+
+    @Override
+    public void assignKeySetRemote(BasicChordNode targetNode, Set<Long> keySet) {
+        delay(targetNode);
+        delegate.assignKeySetRemote(targetNode, keySet);
+    }
+
+    @Override
+    public Set<Long> assignOwnedKeySetRemote(BasicChordNode targetNode, Set<Long> keySet) {
+        delay(targetNode);
+        return delegate.assignOwnedKeySetRemote(targetNode, keySet);
+    }
+
+    @Override
+    public List<Long> fetchKeyRangeRemote(BasicChordNode targetNode, long from, long to, int limit) {
+        delay(targetNode);
+        return delegate.fetchKeyRangeRemote(targetNode, from, to, limit);
+    }
+
+    @Override
+    public Map<Long, Long> fetchKeyTtlsRemote(BasicChordNode targetNode, long from, long to) {
+        delay(targetNode);
+        return delegate.fetchKeyTtlsRemote(targetNode, from, to);
+    }
+
+    @Override
+    public void assignKeyTtlsRemote(BasicChordNode targetNode, Map<Long, Long> keyTtls) {
+        delay(targetNode);
+        delegate.assignKeyTtlsRemote(targetNode, keyTtls);
+    }
+
+    @Override
+    public int getKeyCountRemote(BasicChordNode targetNode) {
+        delay(targetNode);
+        return delegate.getKeyCountRemote(targetNode);
+    }
+
+    @Override
+    public boolean containsKeyRemote(BasicChordNode targetNode, long key, boolean owned, BasicChordNode forwarder, long timeoutMillis) {
+        delay(targetNode);
+        return delegate.containsKeyRemote(targetNode, key, owned, forwarder, timeoutMillis);
+    }
+
+    @Override
+    public void nodeMovedRemote(BasicChordNode targetNode, BasicChordNode movedNode) {
+        delay(targetNode);
+        delegate.nodeMovedRemote(targetNode, movedNode);
+    }
+
+    @Override
+    public void assignReplicaKeySetRemote(BasicChordNode targetNode, Set<Long> keySet) {
+        delay(targetNode);
+        delegate.assignReplicaKeySetRemote(targetNode, keySet);
+    }
+
+    @Override
+    public void assignReplicaKeyTtlsRemote(BasicChordNode targetNode, Map<Long, Long> keyTtls) {
+        delay(targetNode);
+        delegate.assignReplicaKeyTtlsRemote(targetNode, keyTtls);
+    }
+
+    @Override
+    public void pushOwnershipHintsRemote(BasicChordNode targetNode, List<OwnershipHint> hints) {
+        delay(targetNode);
+        delegate.pushOwnershipHintsRemote(targetNode, hints);
+    }
+
+    @Override
+    public List<Long> getReplicaMerkleHashesRemote(BasicChordNode targetNode, MerkleRangeRequest request) {
+        delay(targetNode);
+        return delegate.getReplicaMerkleHashesRemote(targetNode, request);
+    }
+
+    @Override
+    public List<Long> getReplicaMerkleLeafKeysRemote(BasicChordNode targetNode, MerkleRangeRequest request) {
+        delay(targetNode);
+        return delegate.getReplicaMerkleLeafKeysRemote(targetNode, request);
+    }
+
+    @Override
+    public void healthCheck(BasicChordNode targetNode) {
+        delay(targetNode);
+        delegate.healthCheck(targetNode);
+    }
+
+    @Override
+    public BasicChordNode queryNode(String address, int port) {
+        return delegate.queryNode(address, port);
+    }
+
+    private void delay(BasicChordNode targetNode) {
+        if (Objects.equals(zone, targetNode.getZone())) {
+            return;
+        }
+
+        try {
+            Thread.sleep(interZoneLatencyMillis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ChordTransportException("interrupted while delaying a call to " + targetNode, ex);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.gty.chord.config;
+
+import org.springframework.http.MediaType;
+
+public final class ChordMediaTypes {
+
+    /**
+     * binary json: no repeated field names, numbers as varints
+     */
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf(APPLICATION_SMILE_VALUE);
+
+    private ChordMediaTypes() {
+    }
+}
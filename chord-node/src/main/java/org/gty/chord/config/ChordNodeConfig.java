@@ -0,0 +1,81 @@
+package org.gty.chord.config;
+
+import org.apache.coyote.AbstractProtocol;
+import org.gty.chord.client.ChordNodeRestClient;
+import org.gty.chord.core.AdmissionControl;
+import org.gty.chord.core.ChordNode;
+import org.gty.chord.embedded.EmbeddedChordNode;
+import org.gty.chord.init.config.ChordNodeInitializerProperties;
+import org.gty.chord.job.QuartzChordScheduler;
+import org.quartz.Scheduler;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * the spring boot app hosts the same {@link EmbeddedChordNode} as plain java does, so
+ * both run the same maintenance on the same schedule. requests come in through the
+ * controller instead of the node's own http server, remote calls go out through the
+ * rest template, and the maintenance runs on the app's quartz scheduler.
+ */
+@Configuration
+public class ChordNodeConfig {
+
+    /**
+     * started once the app is ready, see {@link org.gty.chord.init.ChordNodeInitializer}
+     */
+    @Bean(destroyMethod = "close")
+    public EmbeddedChordNode embeddedChordNode(ChordNodeInitializerProperties properties,
+                                               ChordNodeRestClient chordNodeRestClient,
+                                               Scheduler scheduler) {
+        EmbeddedChordNode.Builder builder = EmbeddedChordNode.builder()
+            .nodeName(properties.getNodeName())
+            .nodeAddress(properties.getNodeAddress())
+            .nodePort(properties.getNodePort())
+            .fingerRingSizeBits(properties.getFingerRingSizeBits())
+            .zone(properties.getZone())
+            .rebalancingEnabled(Boolean.TRUE.equals(properties.getRebalancingEnabled()))
+            .hedgingEnabled(Boolean.TRUE.equals(properties.getHedgingEnabled()))
+            .transport(chordNodeRestClient)
+            .scheduler(new QuartzChordScheduler(scheduler))
+            .httpServerEnabled(false);
+
+        if (properties.getFingerBase() != null) {
+            builder.fingerBase(properties.getFingerBase());
+        }
+        if (properties.getSimulatedInterZoneLatencyMillis() != null) {
+            builder.simulatedInterZoneLatencyMillis(properties.getSimulatedInterZoneLatencyMillis());
+        }
+        if (!Boolean.TRUE.equals(properties.getBootstrappingNode())
+            && properties.getJoiningToAddress() != null
+            && properties.getJoiningToPort() != null) {
+            builder.joiningTo(properties.getJoiningToAddress(), properties.getJoiningToPort());
+        }
+
+        return builder.build();
+    }
+
+    @Bean
+    public ChordNode chordNode(EmbeddedChordNode embeddedChordNode) {
+        return embeddedChordNode.getChordNode();
+    }
+
+    @Bean
+    public AdmissionControl admissionControl() {
+        return new AdmissionControl();
+    }
+
+    /**
+     * sizes tomcat's thread pool from the admission limits, so it always has threads left
+     * to turn away the requests over them
+     */
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> tomcatThreadsCustomizer() {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            if (connector.getProtocolHandler() instanceof AbstractProtocol) {
+                ((AbstractProtocol<?>) connector.getProtocolHandler()).setMaxThreads(AdmissionControl.requiredServerThreads());
+            }
+        });
+    }
+}
@@ -0,0 +1,24 @@
+package org.gty.chord.config;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+@Configuration
+public class ChordNodeMessageConverterConfig {
+
+    /**
+     * picked up by both spring mvc and the auto-configured rest template builder.
+     * the controller lists json first, so browsers still get json. boot orders the
+     * builder's converters json first as well, so ChordNodeRestClient moves this one
+     * to the front to make node-to-node calls speak smile.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.createXmlMapper(false)
+            .factory(new SmileFactory())
+            .build());
+    }
+}
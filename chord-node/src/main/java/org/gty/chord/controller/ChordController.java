@@ -1,23 +1,37 @@
 package org.gty.chord.controller;
 
+import org.gty.chord.config.ChordMediaTypes;
+import org.gty.chord.core.AdmissionControl;
+import org.gty.chord.model.AdmissionStats;
 import org.gty.chord.model.BasicChordNode;
 import org.gty.chord.core.ChordNode;
+import org.gty.chord.core.LookupDeadline;
+import org.gty.chord.model.KeyFilter;
+import org.gty.chord.model.KeyScanPage;
+import org.gty.chord.model.NodeState;
+import org.gty.chord.model.MerkleRangeRequest;
+import org.gty.chord.model.OwnershipHint;
+import org.gty.chord.model.StabilizeReply;
+import org.gty.chord.model.TrafficStats;
 import org.gty.chord.model.fingertable.FingerTableEntry;
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.annotation.Nonnull;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @RestController
 public class ChordController implements ApplicationContextAware {
 
     private final ChordNode chordNode;
+    private final AdmissionControl admissionControl;
 
     private ApplicationContext ctx;
 
@@ -26,66 +40,217 @@ public class ChordController implements ApplicationContextAware {
         this.ctx = ctx;
     }
 
-    public ChordController(ChordNode chordNode) {
+    public ChordController(ChordNode chordNode, AdmissionControl admissionControl) {
         this.chordNode = chordNode;
+        this.admissionControl = admissionControl;
     }
 
-    @GetMapping(value = "/api/get-basic-info", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/api/get-basic-info", produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
     public BasicChordNode getBasicInfo() {
         return chordNode.getBasicChordNode();
     }
 
-    @GetMapping(value = "/api/get-finger-table", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/api/get-finger-table", produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
     public List<FingerTableEntry> getFingerTable() {
         return chordNode.getFingerTable();
     }
 
-    @GetMapping(value = "/api/find-successor", produces = MediaType.APPLICATION_JSON_VALUE)
-    public BasicChordNode findSuccessor(@RequestParam("id") Long id) {
-        return chordNode.findSuccessor(id);
+    /**
+     * answered with 304 when the If-None-Match header matches, i.e. neither the
+     * routing state nor the key count changed since the caller last asked
+     */
+    @GetMapping(value = "/api/node-state", produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<NodeState> getNodeState() {
+        NodeState nodeState = chordNode.getNodeState();
+
+        return ResponseEntity.ok()
+            .eTag(nodeState.getVersion() + "-" + nodeState.getKeyCount())
+            .body(nodeState);
+    }
+
+    @GetMapping(value = "/api/find-successor", produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
+    public BasicChordNode findSuccessor(@RequestParam("id") Long id,
+                                        @RequestParam(value = "forwarderAddress", required = false) String forwarderAddress,
+                                        @RequestParam(value = "forwarderPort", required = false) Integer forwarderPort,
+                                        @RequestParam(value = "timeoutMillis", required = false) Long timeoutMillis) {
+        LookupDeadline deadline = LookupDeadline.fromTimeoutMillis(timeoutMillis);
+
+        if (forwarderAddress == null || forwarderPort == null) {
+            return chordNode.findSuccessor(id, null, deadline);
+        }
+
+        // only the endpoint of the forwarder is needed, to push ownership hints back to it
+        return chordNode.findSuccessor(id, new BasicChordNode(null, forwarderAddress, forwarderPort, 0L), deadline);
+    }
+
+    @PostMapping(value = "/api/find-successors", consumes = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
+    public Map<Long, BasicChordNode> findSuccessors(@RequestBody long[] ids,
+                                                    @RequestParam(value = "forwarderAddress", required = false) String forwarderAddress,
+                                                    @RequestParam(value = "forwarderPort", required = false) Integer forwarderPort,
+                                                    @RequestParam(value = "timeoutMillis", required = false) Long timeoutMillis) {
+        LookupDeadline deadline = LookupDeadline.fromTimeoutMillis(timeoutMillis);
+
+        if (forwarderAddress == null || forwarderPort == null) {
+            return chordNode.findSuccessors(ids, null, deadline);
+        }
+
+        return chordNode.findSuccessors(ids, new BasicChordNode(null, forwarderAddress, forwarderPort, 0L), deadline);
     }
 
-    @GetMapping(value = "/api/get-predecessor", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/api/find-zone-successor", produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
+    public BasicChordNode findZoneSuccessor(@RequestParam("id") Long id) {
+        return chordNode.findZoneSuccessor(id);
+    }
+
+    @GetMapping(value = "/api/get-predecessor", produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
     public BasicChordNode getPredecessor() {
         return chordNode.getPredecessor();
     }
 
-    @GetMapping(value = "/api/add-key", produces = MediaType.APPLICATION_JSON_VALUE)
-    public BasicChordNode addKey(@RequestParam("key") Long key) {
-        return chordNode.addKey(key);
+    @GetMapping(value = "/api/add-key", produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
+    public BasicChordNode addKey(@RequestParam("key") Long key,
+                                 @RequestParam(value = "ttlMillis", required = false) Long ttlMillis) {
+        return chordNode.addKey(key, ttlMillis);
     }
 
-    @GetMapping(value = "/api/assign-key", produces = MediaType.APPLICATION_JSON_VALUE)
-    public BasicChordNode assignKey(@RequestParam("key") Long key) {
-        return chordNode.assignKey(key);
+    @GetMapping(value = "/api/assign-key", produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
+    public BasicChordNode assignKey(@RequestParam("key") Long key,
+                                    @RequestParam(value = "ttlMillis", required = false) Long ttlMillis) {
+        return chordNode.assignKey(key, ttlMillis);
     }
 
-    @GetMapping(value = "/api/fetch-key-set", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/api/fetch-key-set", produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
     public Set<?> fetchKeySet() {
         return chordNode.getKeySet();
     }
 
-    @PostMapping(value = "/api/remove-key-set", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(value = "/api/remove-key-set", consumes = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
     public void removeKeySet(@RequestBody Set<Long> keySet) {
         chordNode.removeKeySet(keySet);
     }
 
-    @PostMapping(value = "/api/notify", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    public void notify(@RequestBody BasicChordNode incomingNode) {
-        chordNode.notify(incomingNode);
+    @PostMapping(value = "/api/assign-key-set", consumes = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
+    public void assignKeySet(@RequestBody Set<Long> keySet) {
+        chordNode.assignKeySet(keySet);
+    }
+
+    @PostMapping(value = "/api/assign-owned-key-set", consumes = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
+    public Set<Long> assignOwnedKeySet(@RequestBody Set<Long> keySet) {
+        return chordNode.assignOwnedKeySet(keySet);
+    }
+
+    @GetMapping(value = "/api/fetch-key-range", produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
+    public List<Long> fetchKeyRange(@RequestParam("from") Long from,
+                                    @RequestParam("to") Long to,
+                                    @RequestParam("limit") Integer limit) {
+        return chordNode.getKeyRange(from, to, limit);
+    }
+
+    @GetMapping(value = "/api/fetch-key-ttls", produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
+    public Map<Long, Long> fetchKeyTtls(@RequestParam("from") Long from,
+                                        @RequestParam("to") Long to) {
+        return chordNode.getKeyTtls(from, to);
+    }
+
+    @PostMapping(value = "/api/assign-key-ttls", consumes = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
+    public void assignKeyTtls(@RequestBody Map<Long, Long> keyTtls) {
+        chordNode.assignKeyTtls(keyTtls);
+    }
+
+    @GetMapping(value = "/api/scan-keys", produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
+    public KeyScanPage scanKeys(@RequestParam(value = "origin", required = false) Long origin,
+                                @RequestParam("from") Long from,
+                                @RequestParam("to") Long to,
+                                @RequestParam("limit") Integer limit) {
+        return chordNode.scanKeys(origin == null ? from : origin, from, to, limit);
     }
 
-    @GetMapping(value = "/api/get-immediate-successor", produces = MediaType.APPLICATION_JSON_VALUE)
+    /**
+     * a miss can be answered from a filter of the owner's keys, which its holders keep
+     * current, so a key is found as soon as adding it was acknowledged. while nodes join
+     * or leave, until stabilization catches up, a key can still be checked with the
+     * node that owned it before and be reported missing.
+     */
+    @GetMapping(value = "/api/contains-key", produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
+    public Boolean containsKey(@RequestParam("key") Long key,
+                               @RequestParam(value = "owned", defaultValue = "false") boolean owned,
+                               @RequestParam(value = "timeoutMillis", required = false) Long timeoutMillis) {
+        return chordNode.containsKey(key, owned, LookupDeadline.fromTimeoutMillis(timeoutMillis));
+    }
+
+    @GetMapping(value = "/api/get-key-count", produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
+    public Integer getKeyCount() {
+        return chordNode.getKeyCount();
+    }
+
+    @PostMapping(value = "/api/node-moved", consumes = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
+    public void nodeMoved(@RequestBody BasicChordNode movedNode) {
+        chordNode.onNodeMoved(movedNode);
+    }
+
+    @PostMapping(value = "/api/assign-replica-key-set", consumes = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
+    public void assignReplicaKeySet(@RequestBody Set<Long> keySet) {
+        chordNode.assignReplicaKeySet(keySet);
+    }
+
+    @PostMapping(value = "/api/assign-replica-key-ttls", consumes = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
+    public void assignReplicaKeyTtls(@RequestBody Map<Long, Long> keyTtls) {
+        chordNode.assignReplicaKeyTtls(keyTtls);
+    }
+
+    @PostMapping(value = "/api/get-replica-merkle-hashes", consumes = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
+    public List<Long> getReplicaMerkleHashes(@RequestBody MerkleRangeRequest request) {
+        return chordNode.getReplicaMerkleHashes(request);
+    }
+
+    @PostMapping(value = "/api/get-replica-merkle-leaf-keys", consumes = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
+    public List<Long> getReplicaMerkleLeafKeys(@RequestBody MerkleRangeRequest request) {
+        return chordNode.getReplicaMerkleLeafKeys(request);
+    }
+
+    @PostMapping(value = "/api/ownership-hints", consumes = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
+    public void ownershipHints(@RequestBody List<OwnershipHint> hints) {
+        chordNode.acceptOwnershipHints(hints);
+    }
+
+    @PostMapping(value = "/api/notify", consumes = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
+    public StabilizeReply notify(@RequestBody BasicChordNode incomingNode,
+                                 @RequestParam(value = "keyFilterVersion", required = false) Long keyFilterVersion) {
+        return chordNode.notify(incomingNode, keyFilterVersion);
+    }
+
+    @PostMapping(value = "/api/fetch-key-filter", consumes = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
+    public KeyFilter fetchKeyFilter(@RequestBody BasicChordNode holder,
+                                    @RequestParam(value = "keyFilterVersion", required = false) Long keyFilterVersion) {
+        return chordNode.fetchKeyFilter(holder, keyFilterVersion);
+    }
+
+    @PostMapping(value = "/api/key-filter-update", consumes = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
+    public void keyFilterUpdate(@RequestBody KeyFilter update) {
+        chordNode.acceptKeyFilterUpdate(update);
+    }
+
+    @GetMapping(value = "/api/get-immediate-successor", produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
     public BasicChordNode getImmediateSuccessor() {
         return chordNode.getImmediateSuccessor();
     }
 
-    @GetMapping(value = "/api/get-immediate-predecessor", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/api/get-immediate-predecessor", produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
     public BasicChordNode getImmediatePredecessor() {
         return chordNode.getPredecessor();
     }
 
-    @GetMapping(value = "/api/shutdown", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/api/traffic-stats", produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
+    public TrafficStats getTrafficStats() {
+        return chordNode.getTrafficStats();
+    }
+
+    @GetMapping(value = "/api/admission-stats", produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
+    public List<AdmissionStats> getAdmissionStats() {
+        return admissionControl.getStats();
+    }
+
+    @GetMapping(value = "/api/shutdown", produces = {MediaType.APPLICATION_JSON_VALUE, ChordMediaTypes.APPLICATION_SMILE_VALUE})
     public void shutdown() {
         ((ConfigurableApplicationContext) ctx).close();
     }
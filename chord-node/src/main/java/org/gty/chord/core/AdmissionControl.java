@@ -0,0 +1,171 @@
+package org.gty.chord.core;
+
+import org.gty.chord.model.AdmissionStats;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * bounds the number of requests in flight per endpoint class.
+ *
+ * every class has its own permits, so a spike of lookups can not take the threads
+ * stabilize and notify need. lookups over their limit are rejected right away, the
+ * caller can retry through another node. maintenance calls wait a little for a
+ * permit instead, they are cheap and the ring depends on them. key migrations wait
+ * longer still: there is no other node to retry them with, and a migration dropped
+ * halfway leaves keys on the wrong node.
+ */
+public class AdmissionControl {
+
+    private static final long MAINTENANCE_WAIT_MILLIS = 1_000L;
+    private static final long MIGRATION_WAIT_MILLIS = 5_000L;
+    private static final int SPARE_SERVER_THREADS = 56;
+
+    private static final Set<String> LOOKUP_PATHS = Set.of("/api/find-successor", "/api/find-successors", "/api/contains-key");
+
+    private static final Set<String> MAINTENANCE_PATHS = Set.of(
+        "/api/get-basic-info",
+        "/api/get-finger-table",
+        "/api/node-state",
+        "/api/get-predecessor",
+        "/api/find-zone-successor",
+        "/api/get-immediate-successor",
+        "/api/get-immediate-predecessor",
+        "/api/notify",
+        "/api/fetch-key-filter",
+        "/api/key-filter-update",
+        "/api/node-moved",
+        "/api/get-key-count",
+        "/api/assign-replica-key-set",
+        "/api/assign-replica-key-ttls",
+        "/api/get-replica-merkle-hashes",
+        "/api/get-replica-merkle-leaf-keys",
+        "/api/ownership-hints",
+        "/api/traffic-stats",
+        "/api/admission-stats",
+        "/api/shutdown"
+    );
+
+    private static final Set<String> MIGRATION_PATHS = Set.of(
+        "/api/fetch-key-set",
+        "/api/remove-key-set",
+        "/api/assign-key-set",
+        "/api/assign-owned-key-set",
+        "/api/fetch-key-range",
+        "/api/fetch-key-ttls",
+        "/api/assign-key-ttls"
+    );
+
+    public enum EndpointClass {
+        CLIENT_LOOKUP(64),
+        FORWARDED_LOOKUP(96),
+        MAINTENANCE(32),
+        MIGRATION(8);
+
+        private final int limit;
+
+        EndpointClass(int limit) {
+            this.limit = limit;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+    }
+
+    private final Map<EndpointClass, Gate> gates;
+
+    /**
+     * threads the server needs for the limits to hold: one per request admitted in all
+     * classes together, plus spare ones that answer 503 to the requests over their limit
+     * and keep maintenance and migrations waiting for a permit
+     */
+    public static int requiredServerThreads() {
+        return Arrays.stream(EndpointClass.values())
+            .mapToInt(EndpointClass::getLimit)
+            .sum() + SPARE_SERVER_THREADS;
+    }
+
+    public AdmissionControl() {
+        gates = new EnumMap<>(EndpointClass.class);
+        Arrays.stream(EndpointClass.values())
+            .forEach(endpointClass -> gates.put(endpointClass, new Gate(endpointClass.getLimit())));
+    }
+
+    /**
+     * @param forwarded whether the request names a forwarding node
+     */
+    public static EndpointClass classify(String path, boolean forwarded) {
+        if (MAINTENANCE_PATHS.contains(path)) {
+            return EndpointClass.MAINTENANCE;
+        }
+        if (MIGRATION_PATHS.contains(path)) {
+            return EndpointClass.MIGRATION;
+        }
+        if (LOOKUP_PATHS.contains(path) && forwarded) {
+            return EndpointClass.FORWARDED_LOOKUP;
+        }
+        return EndpointClass.CLIENT_LOOKUP;
+    }
+
+    /**
+     * @return whether the request may proceed, if so release must be called once it is done
+     */
+    public boolean tryAdmit(EndpointClass endpointClass) {
+        Gate gate = gates.get(endpointClass);
+
+        boolean admitted;
+        if (endpointClass == EndpointClass.MAINTENANCE || endpointClass == EndpointClass.MIGRATION) {
+            long waitMillis = endpointClass == EndpointClass.MAINTENANCE ? MAINTENANCE_WAIT_MILLIS : MIGRATION_WAIT_MILLIS;
+            try {
+                admitted = gate.permits.tryAcquire(waitMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                admitted = false;
+            }
+        } else {
+            admitted = gate.permits.tryAcquire();
+        }
+
+        if (admitted) {
+            gate.admitted.increment();
+        } else {
+            gate.rejected.increment();
+        }
+        return admitted;
+    }
+
+    public void release(EndpointClass endpointClass) {
+        gates.get(endpointClass).permits.release();
+    }
+
+    public List<AdmissionStats> getStats() {
+        return gates.entrySet().stream()
+            .map(entry -> new AdmissionStats(entry.getKey().name(),
+                entry.getKey().getLimit(),
+                entry.getKey().getLimit() - entry.getValue().permits.availablePermits(),
+                entry.getValue().admitted.sum(),
+                entry.getValue().rejected.sum()))
+            .collect(Collectors.toUnmodifiableList());
+    }
+
+    private static class Gate {
+
+        private final Semaphore permits;
+        private final LongAdder admitted;
+        private final LongAdder rejected;
+
+        private Gate(int limit) {
+            permits = new Semaphore(limit);
+            admitted = new LongAdder();
+            rejected = new LongAdder();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.gty.chord.core;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * keys held by a node, either its own or the replica it keeps for its predecessor.
+ *
+ * besides being a set, a key store answers the merkle tree queries anti-entropy
+ * runs against it. tree nodes are numbered heap-style from {@link #ROOT}.
+ */
+public interface ChordKeyStore extends Set<Long> {
+
+    int ROOT = 1;
+
+    /**
+     * drops every key outside (from, to]
+     */
+    void retainRange(long from, long to);
+
+    /**
+     * keys in (from, to] in ring order starting right after from, at most limit of them.
+     * from == to stands for the whole ring.
+     */
+    List<Long> keysInRange(long from, long to, int limit);
+
+    /**
+     * keys in (from, to] in reverse ring order starting at to, at most limit of them
+     */
+    List<Long> keysInRangeDescending(long from, long to, int limit);
+
+    /**
+     * whether the keys under the given tree node that fall into (from, to] are exchanged
+     * as they are, rather than compared further down the tree
+     */
+    boolean isLeaf(int index, long from, long to);
+
+    /**
+     * hash of the keys under the given tree node that fall into (from, to]
+     */
+    long rangeHash(int index, long from, long to);
+
+    /**
+     * keys under the given leaf that fall into (from, to]
+     */
+    List<Long> leafKeys(int index, long from, long to);
+}
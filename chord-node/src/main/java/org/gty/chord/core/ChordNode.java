@@ -2,39 +2,82 @@ package org.gty.chord.core;
 
 import com.google.common.collect.Range;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
 import org.apache.commons.codec.binary.StringUtils;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.math3.util.ArithmeticUtils;
-import org.gty.chord.client.ChordNodeRestClient;
+import org.gty.chord.client.ChordTransport;
+import org.gty.chord.exception.ChordDeadlineExceededException;
 import org.gty.chord.exception.ChordHealthCheckException;
-import org.gty.chord.init.config.ChordNodeInitializerProperties;
+import org.gty.chord.exception.ChordNodeBusyException;
+import org.gty.chord.exception.ChordTransportException;
 import org.gty.chord.model.BasicChordNode;
+import org.gty.chord.model.KeyFilter;
+import org.gty.chord.model.KeyScanPage;
+import org.gty.chord.model.MerkleRangeRequest;
+import org.gty.chord.model.NodeState;
+import org.gty.chord.model.OwnershipHint;
+import org.gty.chord.model.StabilizeReply;
+import org.gty.chord.model.TrafficStats;
 import org.gty.chord.model.fingertable.FingerTableEntry;
 import org.gty.chord.model.fingertable.FingerTableIdInterval;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClientException;
 
 import java.math.BigInteger;
 import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-@Service
+/**
+ * a chord node, independent of how it is hosted. remote calls go through the
+ * given {@link ChordTransport}, periodic maintenance and serving requests are
+ * up to the host: the spring boot app or an {@link org.gty.chord.embedded.EmbeddedChordNode}.
+ */
 public class ChordNode {
 
     private static final Logger logger = LoggerFactory.getLogger(ChordNode.class);
 
+    private static final double REBALANCE_LOAD_RATIO = 1.25;
+    private static final int REBALANCE_MIN_KEY_DIFFERENCE = 16;
+    private static final long OWNERSHIP_HINT_TTL_MILLIS = 10_000L;
+    private static final int JOIN_FINGER_VERIFY_PARALLELISM = 8;
+    private static final int SUCCESSOR_LIST_LENGTH = 4;
+    private static final long PREDECESSOR_LIVENESS_WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(3_000L);
+    private static final long KEY_EXPIRY_TICK_MILLIS = 1_000L;
+    private static final long REPLICA_TTL_PERMANENT = -1L;
+    private static final int MAX_ZONE_GAP = 32;
+
     private final String nodeName;
     private final String nodeAddress;
     private final Integer nodePort;
-    private final long nodeId;
+    private final String zone;
+    private volatile long nodeId;
     private final Integer fingerRingSizeBits;
+    private final int fingerBase;
+    private final long[] fingerOffsets;
     private final byte[] sha1Hash;
 
     private final long fingerRingSize;
@@ -42,12 +85,33 @@ public class ChordNode {
 
     private final BasicChordNode self;
     private AtomicReference<BasicChordNode> predecessor;
+    private volatile long predecessorHeardAtNanos;
+    private final AtomicReference<List<BasicChordNode>> successorBackups;
+    private final HeldKeyFilters heldKeyFilters;
+    private final KeyFilterLeases keyFilterLeases;
 
     private final List<FingerTableEntry> fingerTable;
     private AtomicInteger fixFingerNext = new AtomicInteger(0);
-    private final Set<Long> keySet;
-
-    private final ChordNodeRestClient chordNodeRestClient;
+    // a restarted node must not repeat the versions of its previous run, they end up in etags
+    private final AtomicLong routingStateVersion = new AtomicLong(ThreadLocalRandom.current().nextLong());
+    private final FilteredKeyStore keySet;
+    private final ChordKeyStore replicaKeySet;
+    private final TimingWheel keyExpiry;
+    private final TimingWheel replicaKeyExpiry;
+    private final Map<Long, Long> pendingReplicaExpiry;
+    private volatile boolean holdsPromotedReplica;
+
+    private final ChordTransport transport;
+
+    private final SingleFlight<Long, BasicChordNode> findSuccessorFlights;
+    private final SingleFlight<Long, StabilizeReply> notifyFlights;
+    private final ExecutorService batchLookupExecutor;
+
+    private final LookupHedger lookupHedger;
+    private final HotKeyTracker hotKeyTracker;
+    private final TrafficCounters trafficCounters;
+    private final OwnershipHintCache ownershipHintCache;
+    private final ZoneRing zoneRing;
 
     public String getNodeName() {
         return nodeName;
@@ -61,6 +125,10 @@ public class ChordNode {
         return nodePort;
     }
 
+    public String getZone() {
+        return zone;
+    }
+
     public long getNodeId() {
         return nodeId;
     }
@@ -69,26 +137,57 @@ public class ChordNode {
         return fingerTable;
     }
 
-    public ChordNode(ChordNodeInitializerProperties properties,
-                     ChordNodeRestClient chordNodeRestClient) {
-        nodeName = properties.getNodeName();
-        nodeAddress = properties.getNodeAddress();
-        nodePort = properties.getNodePort();
-        fingerRingSizeBits = properties.getFingerRingSizeBits();
+    public ChordNode(String nodeName,
+                     String nodeAddress,
+                     Integer nodePort,
+                     String zone,
+                     Integer fingerRingSizeBits,
+                     int fingerBase,
+                     ChordTransport transport,
+                     IntFunction<ChordKeyStore> keyStoreFactory,
+                     boolean hedgingEnabled) {
+        this.nodeName = nodeName;
+        this.nodeAddress = nodeAddress;
+        this.nodePort = nodePort;
+        this.zone = zone;
+        this.fingerRingSizeBits = fingerRingSizeBits;
+        this.fingerBase = fingerBase;
 
         fingerRingSize = ArithmeticUtils.pow(2L, fingerRingSizeBits);
         fingerRingHighestIndex = fingerRingSize - 1L;
+        fingerOffsets = calculateFingerOffsets();
 
         sha1Hash = calculateSha1Hash();
         nodeId = truncateHashToNodeId();
 
         predecessor = new AtomicReference<>();
+        predecessorHeardAtNanos = System.nanoTime() - PREDECESSOR_LIVENESS_WINDOW_NANOS;
+        successorBackups = new AtomicReference<>(List.of());
+        heldKeyFilters = new HeldKeyFilters();
+        keyFilterLeases = new KeyFilterLeases();
         self = new BasicChordNode(this);
 
         fingerTable = initializeFingerTable();
-        keySet = Sets.newConcurrentHashSet();
-
-        this.chordNodeRestClient = chordNodeRestClient;
+        keySet = new FilteredKeyStore(keyStoreFactory.apply(fingerRingSizeBits));
+        replicaKeySet = keyStoreFactory.apply(fingerRingSizeBits);
+        keyExpiry = new TimingWheel(KEY_EXPIRY_TICK_MILLIS, System.currentTimeMillis());
+        replicaKeyExpiry = new TimingWheel(KEY_EXPIRY_TICK_MILLIS, System.currentTimeMillis());
+        pendingReplicaExpiry = new ConcurrentHashMap<>();
+
+        this.transport = transport;
+
+        findSuccessorFlights = new SingleFlight<>();
+        notifyFlights = new SingleFlight<>();
+        batchLookupExecutor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("chord-batch-lookup-%d")
+            .setDaemon(true)
+            .build());
+
+        lookupHedger = hedgingEnabled ? new LookupHedger() : null;
+        hotKeyTracker = new HotKeyTracker(fingerRingSizeBits);
+        trafficCounters = new TrafficCounters(fingerRingSizeBits, fingerOffsets.length);
+        ownershipHintCache = new OwnershipHintCache();
+        zoneRing = zone == null ? null : new ZoneRing(zone, fingerRingSizeBits, fingerOffsets.length);
     }
 
     private byte[] calculateSha1Hash() {
@@ -103,20 +202,42 @@ public class ChordNode {
         return Long.parseLong(truncatedBits, 2);
     }
 
+    /**
+     * distances of the fingers from n. with base b there are b - 1 fingers per
+     * digit of an id written in base b, at j * b^i for j = 1 .. b - 1, which gives
+     * (b - 1) * log_b(2^m) fingers. a lookup resolves a whole base b digit per hop
+     * instead of a bit, so it takes about log_b(N) hops instead of log_2(N).
+     * base 2 is the classic table with one finger at each 2^i.
+     */
+    private long[] calculateFingerOffsets() {
+        if (fingerBase < 2) {
+            throw new IllegalArgumentException("finger base must be at least 2, was " + fingerBase);
+        }
+
+        List<Long> offsets = new ArrayList<>();
+        long power = 1L;
+
+        while (true) {
+            for (long j = 1L; j < fingerBase && power <= fingerRingHighestIndex / j; ++j) {
+                offsets.add(j * power);
+            }
+
+            if (power > fingerRingHighestIndex / fingerBase) {
+                break;
+            }
+            power *= fingerBase;
+        }
+
+        return offsets.stream().mapToLong(Long::longValue).toArray();
+    }
+
     private List<FingerTableEntry> initializeFingerTable() {
         List<FingerTableEntry> fingerTable = new CopyOnWriteArrayList<>();
 
-        for (int i = 0; i < fingerRingSizeBits; ++i) {
-            // initialize start for each finger table entry
-            // start = (n + 2^i) mod 2^m
-            long startFingerId = (nodeId + ArithmeticUtils.pow(2L, i)) % fingerRingSize;
-            fingerTable.add(new FingerTableEntry(startFingerId, null, new AtomicReference<>()));
-
-            // initialize interval for each finger table entry
-            // interval = [(n + 2^i) mod 2^m, (n + 2^(i + 1)) mod 2^m)
-            long endFingerId = (nodeId + ArithmeticUtils.pow(2L, i + 1)) % fingerRingSize;
-            fingerTable.get(i).setInterval(new FingerTableIdInterval(fingerTable.get(i).getStartFingerId(), endFingerId));
+        for (int i = 0; i < fingerOffsets.length; ++i) {
+            fingerTable.add(new FingerTableEntry(null, null, new AtomicReference<>()));
         }
+        positionFingerTable(fingerTable);
 
         // initialize successor to self
         fingerTable.get(0).getNode().set(self);
@@ -124,12 +245,61 @@ public class ChordNode {
         return fingerTable;
     }
 
+    private void positionFingerTable(List<FingerTableEntry> fingerTable) {
+        for (int i = 0; i < fingerOffsets.length; ++i) {
+            // initialize start for each finger table entry
+            // start = (n + offset[i]) mod 2^m, offset[i] = 2^i with base 2
+            long startFingerId = (nodeId + fingerOffsets[i]) % fingerRingSize;
+            fingerTable.get(i).setStartFingerId(startFingerId);
+
+            // initialize interval for each finger table entry
+            // interval = [(n + offset[i]) mod 2^m, (n + offset[i + 1]) mod 2^m), the last one ends at n
+            long endFingerId = i + 1 < fingerOffsets.length
+                ? (nodeId + fingerOffsets[i + 1]) % fingerRingSize
+                : nodeId;
+            fingerTable.get(i).setInterval(new FingerTableIdInterval(startFingerId, endFingerId));
+        }
+    }
+
     public BasicChordNode getImmediateSuccessor() {
         return fingerTable.get(0).getNode().get();
     }
 
     private void setImmediateSuccessor(BasicChordNode successor) {
-        fingerTable.get(0).getNode().set(successor);
+        setFinger(0, successor);
+    }
+
+    /**
+     * the immediate successor followed by the nodes after it, as last heard from the successor
+     */
+    public List<BasicChordNode> getSuccessorList() {
+        List<BasicChordNode> successors = new ArrayList<>();
+        successors.add(getImmediateSuccessor());
+
+        for (BasicChordNode node : successorBackups.get()) {
+            if (successors.size() < SUCCESSOR_LIST_LENGTH
+                && successors.stream().noneMatch(known -> isSameEndpoint(known, node))) {
+                successors.add(node);
+            }
+        }
+
+        return List.copyOf(successors);
+    }
+
+    private void setSuccessorBackups(List<BasicChordNode> nodes) {
+        successorBackups.set(nodes.stream()
+            .filter(Objects::nonNull)
+            .filter(node -> !isSameEndpoint(node, self))
+            .limit(SUCCESSOR_LIST_LENGTH - 1L)
+            .collect(Collectors.toUnmodifiableList()));
+    }
+
+    private void setFinger(int index, BasicChordNode node) {
+        BasicChordNode previous = fingerTable.get(index).getNode().getAndSet(node);
+
+        if (!isSameNode(previous, node)) {
+            routingStateVersion.incrementAndGet();
+        }
     }
 
     public BasicChordNode getPredecessor() {
@@ -137,7 +307,21 @@ public class ChordNode {
     }
 
     private void setPredecessor(BasicChordNode predecessor) {
-        this.predecessor.set(predecessor);
+        BasicChordNode previous = this.predecessor.getAndSet(predecessor);
+
+        if (!isSameNode(previous, predecessor)) {
+            routingStateVersion.incrementAndGet();
+        }
+    }
+
+    /**
+     * successor, predecessor and finger table in one response. the version only
+     * changes when one of them does, so pollers can skip unchanged states.
+     */
+    public NodeState getNodeState() {
+        long version = routingStateVersion.get();
+
+        return new NodeState(self, getImmediateSuccessor(), getPredecessor(), fingerTable, keySet.size(), version, fingerRingSizeBits);
     }
 
     public BasicChordNode getBasicChordNode() {
@@ -162,28 +346,263 @@ public class ChordNode {
      * @return successor of id
      */
     public BasicChordNode findSuccessor(long id) {
+        return findSuccessor(id, null);
+    }
+
+    /**
+     * same as find-successor(id), additionally remembering which node forwarded the lookup.
+     * lookups answered here are sampled to find hot ids and ranges, and a live ownership
+     * hint pushed by a node further down the path answers the lookup without forwarding it.
+     *
+     * @param id identifier to be found
+     * @param forwarder node the lookup was forwarded from, null when it came from a client
+     * @return successor of id
+     */
+    public BasicChordNode findSuccessor(long id, BasicChordNode forwarder) {
+        return findSuccessor(id, forwarder, LookupDeadline.fromTimeoutMillis(null));
+    }
+
+    /**
+     * same as find-successor(id, forwarder), abandoned once the deadline has passed.
+     * the deadline is checked before every hop and handed on to the next one, so
+     * every node along the path stops working on the lookup when its caller stops waiting.
+     *
+     * @param id identifier to be found
+     * @param forwarder node the lookup was forwarded from, null when it came from a client
+     * @param deadline time after which the answer is of no use anymore
+     * @return successor of id
+     */
+    public BasicChordNode findSuccessor(long id, BasicChordNode forwarder, LookupDeadline deadline) {
         BasicChordNode successor = getImmediateSuccessor();
         long successorId = successor.getNodeId();
 
         if ( ( (nodeId <= successorId) && Range.openClosed(nodeId, successorId).contains(id) )
             || ( (nodeId > successorId) && (Range.openClosed(nodeId, fingerRingHighestIndex).contains(id) || Range.closed(0L, successorId).contains(id)) ) ) {
+            hotKeyTracker.record(id, successor, nodeId, successorId, forwarder);
+            trafficCounters.recordServed(id);
             return successor;
         }
 
-        BasicChordNode closetPrecedingNode = closestPrecedingNode(id);
+        OwnershipHint hint = ownershipHintCache.lookup(id);
+        if (hint != null) {
+            hotKeyTracker.record(id, hint.getOwner(), hint.getFrom(), hint.getTo(), forwarder);
+            trafficCounters.recordServed(id);
+            return hint.getOwner();
+        }
+
+        BasicChordNode zoneOwner = zoneOwnerOf(id);
+        if (zoneOwner != null) {
+            trafficCounters.recordServed(id);
+            return zoneOwner;
+        }
+
+        BasicChordNode closetPrecedingNode = nextHop(id);
 
         if (closetPrecedingNode.getNodeId() == nodeId) {
+            trafficCounters.recordServed(id);
             return successor;
         } else {
-            return chordNodeRestClient.findSuccessorRemote(closetPrecedingNode, id);
+            trafficCounters.recordForwarded(id, fingerIndexOf(closetPrecedingNode));
+
+            // concurrent lookups of the same id take the same next hop, share one remote call
+            try {
+                return findSuccessorFlights.execute(id,
+                    () -> forwardFindSuccessor(closetPrecedingNode, id, deadline),
+                    deadline.remainingMillis());
+            } catch (ChordNodeBusyException ex) {
+                // the next hop sheds load, take the best finger before it instead
+                BasicChordNode alternativeNode = closestPrecedingNode(closetPrecedingNode.getNodeId());
+
+                if (alternativeNode.getNodeId() == nodeId) {
+                    throw ex;
+                }
+                deadline.check(id);
+                return transport.findSuccessorRemote(alternativeNode, id, self, deadline.remainingMillis());
+            } catch (ChordDeadlineExceededException ex) {
+                // the shared call may have run under a tighter deadline than this lookup
+                deadline.check(id);
+                return forwardFindSuccessor(closetPrecedingNode, id, deadline);
+            }
+        }
+    }
+
+    private BasicChordNode forwardFindSuccessor(BasicChordNode nextNode, long id, LookupDeadline deadline) {
+        deadline.check(id);
+
+        if (lookupHedger == null) {
+            return transport.findSuccessorRemote(nextNode, id, self, deadline.remainingMillis());
+        }
+
+        // the alternative route goes through the best finger before the next hop
+        return lookupHedger.call(nextNode,
+            () -> {
+                BasicChordNode alternativeNode = closestPrecedingNode(nextNode.getNodeId());
+                return alternativeNode.getNodeId() == nodeId ? null : alternativeNode;
+            },
+            node -> {
+                deadline.check(id);
+                return transport.findSuccessorRemoteAsync(node, id, self, deadline.remainingMillis());
+            });
+    }
+
+    public Map<Long, BasicChordNode> findSuccessors(long[] ids) {
+        return findSuccessors(ids, null);
+    }
+
+    /**
+     * find-successor for many ids at once. ids the successor owns are answered here,
+     * the rest are split by the finger closest-preceding-node picks for them and
+     * forwarded as one sub-batch per finger, so a batch spreads out as a tree
+     * with one message per distinct path rather than one per id.
+     *      n.find-successors(ids)
+     *          for id in ids
+     *              if (id ∈ (n,successor])
+     *                  owner[id] = successor;
+     *              else
+     *                  batch[closest-preceding-node(id)] += id;
+     *          for n' in batch in parallel
+     *              owner += n'.find-successors(batch[n']);
+     *          return owner;
+     *
+     * @param ids identifiers to be found
+     * @param forwarder node the batch was forwarded from, null when it came from a client
+     * @return successor of each id
+     */
+    public Map<Long, BasicChordNode> findSuccessors(long[] ids, BasicChordNode forwarder) {
+        return findSuccessors(ids, forwarder, LookupDeadline.fromTimeoutMillis(null));
+    }
+
+    /**
+     * same as find-successors(ids, forwarder), abandoned once the deadline has passed
+     */
+    public Map<Long, BasicChordNode> findSuccessors(long[] ids, BasicChordNode forwarder, LookupDeadline deadline) {
+        BasicChordNode successor = getImmediateSuccessor();
+        long successorId = successor.getNodeId();
+
+        Map<Long, BasicChordNode> owners = new HashMap<>();
+        Map<Long, BasicChordNode> nextNodes = new LinkedHashMap<>();
+        Map<Long, List<Long>> idsByNextNode = new LinkedHashMap<>();
+
+        for (long id : ids) {
+            if (isInOpenClosedInterval(id, nodeId, successorId)) {
+                hotKeyTracker.record(id, successor, nodeId, successorId, forwarder);
+                trafficCounters.recordServed(id);
+                owners.put(id, successor);
+                continue;
+            }
+
+            OwnershipHint hint = ownershipHintCache.lookup(id);
+            if (hint != null) {
+                hotKeyTracker.record(id, hint.getOwner(), hint.getFrom(), hint.getTo(), forwarder);
+                trafficCounters.recordServed(id);
+                owners.put(id, hint.getOwner());
+                continue;
+            }
+
+            BasicChordNode zoneOwner = zoneOwnerOf(id);
+            if (zoneOwner != null) {
+                trafficCounters.recordServed(id);
+                owners.put(id, zoneOwner);
+                continue;
+            }
+
+            BasicChordNode nextNode = nextHop(id);
+            if (nextNode.getNodeId() == nodeId) {
+                trafficCounters.recordServed(id);
+                owners.put(id, successor);
+                continue;
+            }
+
+            trafficCounters.recordForwarded(id, fingerIndexOf(nextNode));
+            nextNodes.putIfAbsent(nextNode.getNodeId(), nextNode);
+            idsByNextNode.computeIfAbsent(nextNode.getNodeId(), key -> new ArrayList<>()).add(id);
+        }
+
+        List<CompletableFuture<Map<Long, BasicChordNode>>> subBatches = idsByNextNode.entrySet().stream()
+            .map(entry -> CompletableFuture.supplyAsync(
+                () -> forwardFindSuccessors(nextNodes.get(entry.getKey()), entry.getValue(), deadline),
+                batchLookupExecutor))
+            .collect(Collectors.toUnmodifiableList());
+
+        try {
+            subBatches.forEach(subBatch -> owners.putAll(subBatch.join()));
+        } catch (CompletionException ex) {
+            // the batch has failed as a whole, sub-batches not sent yet need not be
+            subBatches.forEach(subBatch -> subBatch.cancel(false));
+
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+
+        return owners;
+    }
+
+    private Map<Long, BasicChordNode> forwardFindSuccessors(BasicChordNode nextNode, List<Long> ids, LookupDeadline deadline) {
+        long[] subBatch = ids.stream().mapToLong(Long::longValue).toArray();
+
+        deadline.check(subBatch[0]);
+        try {
+            return transport.findSuccessorsRemote(nextNode, subBatch, self, deadline.remainingMillis());
+        } catch (ChordDeadlineExceededException ex) {
+            throw ex;
+        } catch (ChordTransportException ex) {
+            // the next hop is busy or gone, take the best finger before it instead
+            BasicChordNode alternativeNode = closestPrecedingNode(nextNode.getNodeId());
+
+            if (alternativeNode.getNodeId() == nodeId) {
+                throw ex;
+            }
+            deadline.check(subBatch[0]);
+            return transport.findSuccessorsRemote(alternativeNode, subBatch, self, deadline.remainingMillis());
+        }
+    }
+
+    /**
+     * owner of id when id falls into the gap between this node and its zone successor.
+     * the answer comes from the gap without asking any other node, which is where a
+     * lookup routed through the zone ends.
+     */
+    private BasicChordNode zoneOwnerOf(long id) {
+        return zoneRing == null ? null : zoneRing.ownerOf(id, nodeId);
+    }
+
+    /**
+     * next hop of a lookup for id. nodes with a zone go to the closest preceding node
+     * of their zone as long as there is one, so a lookup stays in the zone it entered
+     * the ring at until it reaches the gap holding id. otherwise it is
+     * closest-preceding-node of the global ring.
+     */
+    private BasicChordNode nextHop(long id) {
+        if (zoneRing != null) {
+            BasicChordNode zoneNode = zoneRing.closestPrecedingNode(id, nodeId);
+            if (zoneNode != null) {
+                return zoneNode;
+            }
+        }
+        return closestPrecedingNode(id);
+    }
+
+    /**
+     * @return highest index of the finger pointing to node, -1 when no finger does
+     */
+    private int fingerIndexOf(BasicChordNode node) {
+        for (int i = fingerTable.size() - 1; i >= 0; --i) {
+            BasicChordNode currentFinger = fingerTable.get(i).getNode().get();
+
+            if (currentFinger != null && currentFinger.getNodeId() == node.getNodeId()) {
+                return i;
+            }
         }
+        return -1;
     }
 
     /**
      * search the local table for the highest predecessor of id
      *
      * n.closest-preceding-node(id)
-     *      for i = m down-to 1
+     *      for i = |finger| down-to 1
      *          if (finger[i] ∈ (n,id))
      *              return finger[i];
      *      return n;
@@ -192,7 +611,7 @@ public class ChordNode {
      * @return the highest predecessor of id from finger table
      */
     private BasicChordNode closestPrecedingNode(long id) {
-        for (int i = fingerRingSizeBits - 1; i >= 0; --i) {
+        for (int i = fingerTable.size() - 1; i >= 0; --i) {
             BasicChordNode currentFinger = fingerTable.get(i).getNode().get();
 
             if (currentFinger != null) {
@@ -212,19 +631,125 @@ public class ChordNode {
         return self;
     }
 
-    public BasicChordNode addKey(Long key) {
+    /**
+     * @param ttlMillis time to live of the key, null to keep it until it is removed
+     */
+    public BasicChordNode addKey(Long key, Long ttlMillis) {
         BasicChordNode successorNode = findSuccessor(key);
 
-        return chordNodeRestClient.assignKeyRemote(successorNode, key);
+        return transport.assignKeyRemote(successorNode, key, ttlMillis);
     }
 
-    public BasicChordNode assignKey(Long key) {
-        keySet.add(key);
+    /**
+     * assigning a key again replaces its time to live, assigning it without one
+     * makes it permanent. the change reaches the replica with the next expiry run.
+     * a new key reaches the nodes holding this node's key filter before this returns.
+     */
+    public BasicChordNode assignKey(Long key, Long ttlMillis) {
+        boolean wasExpiring = keyExpiry.expiresAt(key) != null;
+
+        if (ttlMillis == null) {
+            keyExpiry.cancel(key);
+            if (wasExpiring) {
+                pendingReplicaExpiry.put(key, Long.MAX_VALUE);
+            }
+        } else {
+            long expiresAt = System.currentTimeMillis() + ttlMillis;
+            keyExpiry.schedule(key, expiresAt);
+            pendingReplicaExpiry.put(key, expiresAt);
+        }
+
+        if (keySet.add(key)) {
+            pushAddedKeys(List.of(key));
+        }
+        trafficCounters.recordAssigned(key);
         return self;
     }
 
+    /**
+     * whether key is held anywhere in the ring. the request travels like a lookup
+     * until it reaches a node with the owner in its successor list, which answers a
+     * miss from the filter of the owner's keys it holds, without asking the owner.
+     * only keys the filter may contain are checked with the owner.
+     *      n.contains-key(k, owned)
+     *          if (owned)
+     *              return k ∈ keys;
+     *          if (k ∈ (successor[i-1],successor[i]] for some i)
+     *              if (k ∉ filter[i])
+     *                  return false;
+     *              return successor[i].contains-key(k, true);
+     *          n' = closest-preceding-node(k);
+     *          return n'.contains-key(k, false);
+     *
+     * a filter is only used under the lease its owner granted with it, and the owner
+     * pushes the keys it adds to the filter's holders before acknowledging them, so
+     * a miss is never answered from a filter older than the owner's keys.
+     *
+     * like find-successor, the request is abandoned once the deadline has passed,
+     * and a next hop that sheds load is routed around through the best finger before it.
+     *
+     * @param owned whether the caller found this node to own key
+     * @param deadline time after which the answer is of no use anymore
+     */
+    public boolean containsKey(long key, boolean owned, LookupDeadline deadline) {
+        if (owned) {
+            return keySet.contains(key);
+        }
+
+        BasicChordNode successor = getImmediateSuccessor();
+        if (isSameEndpoint(successor, self)) {
+            return keySet.contains(key);
+        }
+
+        BasicChordNode owner = successorOwning(key);
+        if (owner != null) {
+            if (isSameEndpoint(owner, self)) {
+                return keySet.contains(key);
+            }
+            if (heldKeyFilters.certainlyMissing(owner, key)) {
+                return false;
+            }
+            deadline.check(key);
+            return transport.containsKeyRemote(owner, key, true, self, deadline.remainingMillis());
+        }
+
+        BasicChordNode nextNode = nextHop(key);
+        deadline.check(key);
+        if (nextNode.getNodeId() == nodeId) {
+            return transport.containsKeyRemote(successor, key, true, self, deadline.remainingMillis());
+        }
+
+        try {
+            return transport.containsKeyRemote(nextNode, key, false, self, deadline.remainingMillis());
+        } catch (ChordNodeBusyException ex) {
+            BasicChordNode alternativeNode = closestPrecedingNode(nextNode.getNodeId());
+
+            if (alternativeNode.getNodeId() == nodeId) {
+                throw ex;
+            }
+            deadline.check(key);
+            return transport.containsKeyRemote(alternativeNode, key, false, self, deadline.remainingMillis());
+        }
+    }
+
+    /**
+     * @return the node of the successor list that owns key, null if it lies beyond the list
+     */
+    private BasicChordNode successorOwning(long key) {
+        long previousId = nodeId;
+
+        for (BasicChordNode successor : getSuccessorList()) {
+            if (isInOpenClosedInterval(key, previousId, successor.getNodeId())) {
+                return successor;
+            }
+            previousId = successor.getNodeId();
+        }
+        return null;
+    }
+
     public void removeKeySet(Set<Long> keySet) {
         this.keySet.removeAll(keySet);
+        keySet.forEach(keyExpiry::cancel);
     }
 
     public void join(String knownNodeAddress, int knownNodePort) {
@@ -233,7 +758,7 @@ public class ChordNode {
     }
 
     private BasicChordNode queryKnownNode(String address, int port) {
-        return chordNodeRestClient.queryNode(address, port);
+        return transport.queryNode(address, port);
     }
 
     /**
@@ -245,14 +770,99 @@ public class ChordNode {
      * @param knownNode node to be joined
      */
     private void join(BasicChordNode knownNode) {
-        BasicChordNode successor = chordNodeRestClient.findSuccessorRemote(knownNode, nodeId);
+        BasicChordNode successor = transport.findSuccessorRemote(knownNode, nodeId);
         setImmediateSuccessor(successor);
 
+        bootstrapFingerTable(successor);
+
         takeOverKeysFromSuccessor(successor);
     }
 
+    /**
+     * the successor sits right after n, so its fingers point close to where n's own
+     * fingers should. they are copied as a first approximation, together with the
+     * successor's predecessor, which is about to become n's predecessor. the copied
+     * fingers are then verified with concurrent lookups through the successor
+     * instead of waiting for fix-fingers to reach each of them.
+     *      n.bootstrap-finger-table(successor)
+     *          predecessor = successor.predecessor;
+     *          for i = 2 to m
+     *              finger[i] = first of successor.fingers clockwise from finger[i].start;
+     *          for i = 2 to m in parallel
+     *              finger[i] = successor.find-successor(finger[i].start);
+     *
+     * @param successor successor found by join
+     */
+    private void bootstrapFingerTable(BasicChordNode successor) {
+        NodeState successorState;
+        try {
+            successorState = transport.getNodeStateRemote(successor);
+        } catch (ChordTransportException ex) {
+            logger.warn("failed to fetch state of successor {}, fingers are left to fix-fingers: {}",
+                successor, ex.getMessage());
+            return;
+        }
+
+        BasicChordNode successorPredecessor = successorState.getPredecessor();
+        if (successorPredecessor != null && !isSameEndpoint(successorPredecessor, self)) {
+            setPredecessor(successorPredecessor);
+        }
+
+        List<BasicChordNode> candidates = Stream.concat(
+            Stream.of(successor, successorPredecessor),
+            successorState.getFingerTable().stream().map(entry -> entry.getNode().get()))
+            .filter(Objects::nonNull)
+            .filter(candidate -> !isSameEndpoint(candidate, self))
+            .collect(Collectors.toUnmodifiableList());
+
+        List<Integer> fingersToVerify = new ArrayList<>();
+        for (int i = 1; i < fingerTable.size(); ++i) {
+            long start = fingerTable.get(i).getStartFingerId();
+
+            if (isInOpenClosedInterval(start, nodeId, successor.getNodeId())) {
+                // the successor is already known to be exact for this finger
+                setFinger(i, successor);
+            } else {
+                int index = i;
+                candidates.stream()
+                    .min(Comparator.comparingLong(candidate -> clockwiseDistance(start, candidate.getNodeId())))
+                    .ifPresent(candidate -> setFinger(index, candidate));
+                fingersToVerify.add(i);
+            }
+        }
+
+        ExecutorService verifyExecutor = Executors.newFixedThreadPool(JOIN_FINGER_VERIFY_PARALLELISM,
+            new ThreadFactoryBuilder()
+                .setNameFormat("chord-join-verify-%d")
+                .setDaemon(true)
+                .build());
+
+        try {
+            CompletableFuture.allOf(fingersToVerify.stream()
+                .map(i -> CompletableFuture.runAsync(() -> verifyFinger(i, successor), verifyExecutor))
+                .toArray(CompletableFuture[]::new))
+                .join();
+        } finally {
+            verifyExecutor.shutdown();
+        }
+
+        logger.info("bootstrapped finger table from successor {}, verified {} fingers",
+            successor, fingersToVerify.size());
+    }
+
+    private void verifyFinger(int index, BasicChordNode successor) {
+        long start = fingerTable.get(index).getStartFingerId();
+
+        try {
+            setFinger(index, transport.findSuccessorRemote(successor, start));
+        } catch (ChordTransportException ex) {
+            // keep the copied approximation, fix-fingers corrects it later
+            logger.debug("failed to verify finger {}: {}", index, ex.getMessage());
+        }
+    }
+
     private void takeOverKeysFromSuccessor(BasicChordNode successor) {
-        Set<Long> successorKeySet = chordNodeRestClient.fetchKeySetRemote(successor);
+        Set<Long> successorKeySet = transport.fetchKeySetRemote(successor);
 
         Set<Long> keySetTakenFromSuccessor = successorKeySet.stream()
             .filter(value -> {
@@ -265,58 +875,116 @@ public class ChordNode {
             })
             .collect(Collectors.toUnmodifiableSet());
 
-        chordNodeRestClient.removeKeySetRemote(successor, keySetTakenFromSuccessor);
+        // the expiring keys keep their remaining time to live
+        Map<Long, Long> keyTtls = transport.fetchKeyTtlsRemote(successor, successor.getNodeId(), nodeId);
 
-        keySet.addAll(keySetTakenFromSuccessor);
+        transport.removeKeySetRemote(successor, keySetTakenFromSuccessor);
+
+        addKeys(keySetTakenFromSuccessor);
+        assignKeyTtls(keyTtls);
     }
 
     /**
      * called periodically. verifies n’s immediate
      * successor, and tells the successor about n.
+     * both take a single round trip: notify answers with the successor's
+     * predecessor and successor list, as they are once n is taken into account.
      *      n.stabilize()
-     *          x = successor.predecessor;
+     *          (x, list) = successor.notify(n);
      *          if (x ∈ (n,successor))
      *              successor = x;
-     *          successor.notify(n);
+     *              successor-list = successor + x + list;
+     *          else
+     *              successor-list = successor + list;
+     *
+     * x is notified in the next round. a successor that does not answer is
+     * replaced by the next node of the successor list that does. a successor that
+     * answers busy is alive, it is kept and stabilized with in the next round.
      *
+     * the reply also carries the filter of the successor's keys whenever it has
+     * changed since the last round, for contains-key to answer misses with. mostly
+     * that is just the keys added since, the whole filter is only sent when this node
+     * has none, its whole filter is a minute old, or the successor no longer knows
+     * all the keys added since. the filters of the rest of the successor list are
+     * refreshed the same way, each asking renews the lease on the filter.
      */
     public void stabilize() {
-        BasicChordNode successor = getImmediateSuccessor();
-        long successorId = successor.getNodeId();
+        for (BasicChordNode successor : getSuccessorList()) {
+            long askedAtNanos = System.nanoTime();
+            StabilizeReply reply;
+            try {
+                reply = notifyRemote(successor);
+            } catch (ChordNodeBusyException ex) {
+                logger.debug("successor {} is busy, keeping it: {}", successor, ex.getMessage());
+                setImmediateSuccessor(successor);
+                refreshKeyFilters(successor);
+                return;
+            } catch (ChordTransportException ex) {
+                logger.info("successor {} did not answer, trying the next one: {}", successor, ex.getMessage());
+                continue;
+            }
 
-        try {
-            BasicChordNode x = chordNodeRestClient.getPredecessorRemote(successor);
+            setImmediateSuccessor(successor);
+            if (reply == null) {
+                heldKeyFilters.remove(successor);
+                refreshKeyFilters(successor);
+                return;
+            }
 
-            if (x != null) {
-                if (nodeId < successorId) {
-                    if (Range.open(nodeId, successorId).contains(x.getNodeId())) {
-                        setImmediateSuccessor(x);
-                    }
-                } else {
-                    if (Range.openClosed(nodeId, fingerRingHighestIndex).contains(x.getNodeId())
-                        || Range.closedOpen(0L, successorId).contains(x.getNodeId())) {
-                        setImmediateSuccessor(x);
-                    }
-                }
+            BasicChordNode x = reply.getPredecessor();
+            List<BasicChordNode> successorList = reply.getSuccessorList() == null ? List.of() : reply.getSuccessorList();
+
+            if (x != null && !isSameEndpoint(x, self) && isInOpenInterval(x.getNodeId(), nodeId, successor.getNodeId())) {
+                setImmediateSuccessor(x);
+                setSuccessorBackups(Stream.concat(Stream.of(successor), successorList.stream())
+                    .collect(Collectors.toUnmodifiableList()));
+            } else {
+                setSuccessorBackups(successorList);
             }
-        } catch (RestClientException ex) {
-            // if successor is not alive
-            // set successor to self
-            setImmediateSuccessor(self);
-            successor = self;
+            heldKeyFilters.update(successor, reply.getKeyFilter(), askedAtNanos);
+            refreshKeyFilters(successor);
+            return;
         }
 
-        // successor.notify(n)
-        logger.info("notifying successor {} about self {}", successor, self);
-        try {
-            chordNodeRestClient.notifyRemote(self, successor);
-        } catch (RestClientException ex) {
-            // if the successor is not alive
-            // set successor to self
-            setImmediateSuccessor(self);
-            successor = self;
-            chordNodeRestClient.notifyRemote(self, successor);
+        // no successor is alive
+        // set successor to self
+        setImmediateSuccessor(self);
+        setSuccessorBackups(List.of());
+        heldKeyFilters.retainOwners(List.of());
+        notify(self, keySet.getFilterVersion());
+    }
+
+    private StabilizeReply notifyRemote(BasicChordNode targetNode) {
+        Long knownFilterVersion = heldKeyFilters.knownVersion(targetNode);
+
+        return notifyFlights.execute(targetNode.getNodeId(),
+            () -> transport.notifyRemote(self, targetNode, knownFilterVersion));
+    }
+
+    /**
+     * refreshes the key filters of the successor list, and drops those of nodes no longer in it
+     *
+     * @param notified successor whose filter came with the notify
+     */
+    private void refreshKeyFilters(BasicChordNode notified) {
+        List<BasicChordNode> successors = getSuccessorList();
+
+        for (BasicChordNode successor : successors) {
+            if (isSameEndpoint(successor, notified) || isSameEndpoint(successor, self)) {
+                continue;
+            }
+
+            long askedAtNanos = System.nanoTime();
+            try {
+                heldKeyFilters.update(successor,
+                    transport.fetchKeyFilterRemote(self, successor, heldKeyFilters.knownVersion(successor)),
+                    askedAtNanos);
+            } catch (ChordTransportException ex) {
+                logger.debug("failed to refresh the key filter of {}: {}", successor, ex.getMessage());
+            }
         }
+
+        heldKeyFilters.retainOwners(successors);
     }
 
     /**
@@ -324,68 +992,846 @@ public class ChordNode {
      *      n.notify(n')
      *          if (predecessor is nil or n' ∈ (predecessor, n))
      *              predecessor = n';
+     *          return (predecessor, successor-list);
+     *
+     * a notify from the predecessor also proves it is alive, check-predecessor
+     * does not ask it again for a while. the incoming node gets a lease on the key
+     * filter sent back, see {@link KeyFilterLeases}.
      *
      * @param incomingNode node to be notified
+     * @param keyFilterVersion version of this node's key filter the incoming node has, null if it has none
+     * @return predecessor and successor list after the notify, and the key filter or the keys added to it
+     *         if the incoming node's is outdated
      */
-    public void notify(BasicChordNode incomingNode) {
+    public StabilizeReply notify(BasicChordNode incomingNode, Long keyFilterVersion) {
         BasicChordNode predecessor = getPredecessor();
 
-        if (predecessor == null) {
+        // a predecessor that re-positioned itself keeps its endpoint
+        if (predecessor == null
+            || isSameEndpoint(predecessor, incomingNode)
+            || isInOpenInterval(incomingNode.getNodeId(), predecessor.getNodeId(), nodeId)) {
             setPredecessor(incomingNode);
-            return;
         }
 
-        if (predecessor.getNodeId() < nodeId) {
-            if (Range.open(predecessor.getNodeId(), nodeId).contains(incomingNode.getNodeId())) {
-                setPredecessor(incomingNode);
-            }
-        } else {
-            if (Range.openClosed(predecessor.getNodeId(), fingerRingHighestIndex).contains(incomingNode.getNodeId())
-                || Range.closedOpen(0L, nodeId).contains(incomingNode.getNodeId())) {
-                setPredecessor(incomingNode);
-            }
+        BasicChordNode currentPredecessor = getPredecessor();
+        if (currentPredecessor != null && isSameEndpoint(currentPredecessor, incomingNode)) {
+            predecessorHeardAtNanos = System.nanoTime();
         }
+
+        grantKeyFilterLease(incomingNode);
+        return new StabilizeReply(currentPredecessor, getSuccessorList(), keySet.getKeyFilter(keyFilterVersion));
     }
 
     /**
-     * called periodically. refreshes finger table entries.
-     * next stores the index of the next finger to fix.
-     *      n.fix-fingers()
-     *          next = next + 1 ;
-     *          if (next > m)
-     *              next = 1 ;
-     *          finger[next] = find-successor(n + 2^(next−1));
+     * the key filter of this node for a node that has it in its successor list, see {@link #notify}
+     *
+     * @param holder node asking for the filter, it gets a lease on it
+     * @param keyFilterVersion version of this node's key filter the holder has, null if it has none
+     * @return null if the holder's filter is current, the keys added since its version
+     *         if they are all known, the whole filter otherwise
      */
-    public void fixFingers() {
-        fixFingerNext.incrementAndGet();
+    public KeyFilter fetchKeyFilter(BasicChordNode holder, Long keyFilterVersion) {
+        grantKeyFilterLease(holder);
+        return keySet.getKeyFilter(keyFilterVersion);
+    }
 
-        fixFingerNext.getAndUpdate(value -> {
-            if (value > fingerRingSizeBits - 1) {
-                return 0;
-            } else {
-                return value;
-            }
-        });
+    /**
+     * @param update keys its owner added since it sent its filter
+     */
+    public void acceptKeyFilterUpdate(KeyFilter update) {
+        heldKeyFilters.addPushedKeys(update.getOwner(), update.getAddedKeys());
+    }
 
-        BasicChordNode node = findSuccessor((nodeId + ArithmeticUtils.pow(2L, fixFingerNext.get())) % fingerRingSize);
+    /**
+     * granted before the filter is taken, so keys added after it are pushed to the holder
+     */
+    private void grantKeyFilterLease(BasicChordNode holder) {
+        if (!isSameEndpoint(holder, self)) {
+            keyFilterLeases.grant(holder);
+        }
+    }
 
-        fingerTable.get(fixFingerNext.get()).getNode().set(node);
+    private void addKeys(Collection<Long> keys) {
+        keySet.addAll(keys);
+        pushAddedKeys(List.copyOf(keys));
     }
 
     /**
-     * called periodically. checks whether predecessor has failed.
-     *      n.check-predecessor()
-     *          if (predecessor has failed)
-     *              predecessor = nil;
+     * pushes keys just added to every node with a lease on this node's key filter.
+     * a holder that cannot be reached may still answer misses from its filter until
+     * its lease ends, so the add is only acknowledged after that.
      */
-    public void checkPredecessor() {
-        BasicChordNode predecessor = getPredecessor();
-        if (predecessor != null) {
-            try {
-                chordNodeRestClient.healthCheck(predecessor);
-            } catch (ChordHealthCheckException ex) {
+    private void pushAddedKeys(List<Long> keys) {
+        List<BasicChordNode> holders = keyFilterLeases.holders();
+        if (keys.isEmpty() || holders.isEmpty()) {
+            return;
+        }
+
+        KeyFilter update = new KeyFilter(keySet.getFilterVersion(), keys);
+        update.setOwner(self);
+
+        long waitNanos = holders.stream()
+            .map(holder -> CompletableFuture.supplyAsync(() -> pushKeyFilterUpdate(holder, update), batchLookupExecutor))
+            .collect(Collectors.toUnmodifiableList())
+            .stream()
+            .mapToLong(CompletableFuture::join)
+            .max()
+            .orElse(0L);
+
+        if (waitNanos > 0L) {
+            Uninterruptibles.sleepUninterruptibly(waitNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @return nanoseconds to wait until the holder no longer trusts its filter, zero if the keys reached it
+     */
+    private long pushKeyFilterUpdate(BasicChordNode holder, KeyFilter update) {
+        try {
+            transport.pushKeyFilterUpdateRemote(holder, update);
+            return 0L;
+        } catch (ChordTransportException ex) {
+            logger.warn("failed to push {} added keys to {}, waiting out its lease: {}",
+                update.getAddedKeys().size(), holder, ex.getMessage());
+            return keyFilterLeases.revoke(holder);
+        }
+    }
+
+    /**
+     * called periodically. refreshes finger table entries.
+     * next stores the index of the next finger to fix.
+     *      n.fix-fingers()
+     *          repeat ⌈|finger| / m⌉ times
+     *              next = next + 1 ;
+     *              if (next > |finger|)
+     *                  next = 1 ;
+     *              finger[next] = find-successor(n + offset[next]);
+     *
+     * a table with a larger base has more fingers, more of them are fixed per round
+     * so that every finger is still refreshed once every m rounds.
+     */
+    public void fixFingers() {
+        int fingersPerRound = (fingerTable.size() + fingerRingSizeBits - 1) / fingerRingSizeBits;
+
+        for (int round = 0; round < fingersPerRound; ++round) {
+            int next = fixFingerNext.updateAndGet(value -> (value + 1) % fingerTable.size());
+
+            setFinger(next, findSuccessor(fingerTable.get(next).getStartFingerId()));
+        }
+    }
+
+    /**
+     * find-successor on the local ring: the first node of this node's zone at or after id
+     *      n.find-zone-successor(id)
+     *          if (id ∈ (n,zone-successor])
+     *              return zone-successor;
+     *          else
+     *              n' = closest-preceding-zone-node(id);
+     *              return n'.find-zone-successor(id);
+     *
+     * @param id identifier to be found
+     * @return successor of id among the nodes of the zone, null when this node has no zone
+     */
+    public BasicChordNode findZoneSuccessor(long id) {
+        if (zoneRing == null) {
+            return null;
+        }
+
+        // before the first zone stabilization this node is the only one of the zone it knows
+        BasicChordNode zoneSuccessor = zoneRing.getZoneSuccessor();
+        if (zoneSuccessor == null) {
+            return self;
+        }
+
+        if (isInOpenClosedInterval(id, nodeId, zoneSuccessor.getNodeId())) {
+            return zoneSuccessor;
+        }
+
+        BasicChordNode nextNode = zoneRing.closestPrecedingNode(id, nodeId);
+        if (nextNode == null) {
+            return zoneSuccessor;
+        }
+        return transport.findZoneSuccessorRemote(nextNode, id);
+    }
+
+    /**
+     * called periodically when the node has a zone. walks the global ring from the
+     * successor to the first node of the zone to refresh the gap, then refreshes
+     * one finger of the local ring.
+     *      n.stabilize-zone()
+     *          gap = ();
+     *          x = successor;
+     *          while (x.zone != n.zone)
+     *              gap += x;
+     *              x = x.successor;
+     *          gap += x;
+     *          next = next + 1 mod m;
+     *          zone-finger[next] = find-zone-successor(n + 2^next);
+     *
+     * the walk starts out on the successor list, further nodes cost a round trip each.
+     * a gap longer than {@value #MAX_ZONE_GAP} nodes is not kept, lookups then
+     * take the global ring.
+     */
+    public void stabilizeZone() {
+        if (zoneRing == null) {
+            return;
+        }
+
+        List<BasicChordNode> successors = getSuccessorList();
+        List<BasicChordNode> gap = new ArrayList<>();
+        BasicChordNode next = successors.get(0);
+
+        try {
+            while (!zoneRing.isLocal(next) && !isSameEndpoint(next, self)) {
+                if (gap.size() == MAX_ZONE_GAP) {
+                    logger.warn("no node of zone {} within {} successors, keeping the previous gap", zone, MAX_ZONE_GAP);
+                    return;
+                }
+
+                gap.add(next);
+                next = gap.size() < successors.size()
+                    ? successors.get(gap.size())
+                    : transport.getNodeStateRemote(next).getSuccessor();
+
+                if (next == null) {
+                    return;
+                }
+            }
+        } catch (ChordTransportException ex) {
+            logger.warn("failed to walk the gap of zone {}: {}", zone, ex.getMessage());
+            return;
+        }
+
+        gap.add(isSameEndpoint(next, self) ? self : next);
+        zoneRing.setGap(gap);
+
+        int index = zoneRing.nextFingerToFix();
+        try {
+            zoneRing.setFinger(index, findZoneSuccessor(fingerTable.get(index).getStartFingerId()));
+        } catch (ChordTransportException ex) {
+            // keep the old finger, the next round comes back to it
+            logger.debug("failed to fix zone finger {}: {}", index, ex.getMessage());
+        }
+    }
+
+    /**
+     * called periodically. checks whether predecessor has failed.
+     *      n.check-predecessor()
+     *          if (predecessor has failed)
+     *              predecessor = nil;
+     *
+     * the failed predecessor's replica is promoted to keys of this node. once a
+     * predecessor shows up again, the promoted keys outside (predecessor, n] are
+     * handed to it and dropped here.
+     */
+    public void checkPredecessor() {
+        BasicChordNode predecessor = getPredecessor();
+
+        if (predecessor != null && holdsPromotedReplica && !isSameEndpoint(predecessor, self)) {
+            handOverKeysOutsideRange(predecessor);
+        }
+
+        // it notified this node recently, so it is alive
+        if (System.nanoTime() - predecessorHeardAtNanos < PREDECESSOR_LIVENESS_WINDOW_NANOS) {
+            return;
+        }
+
+        if (predecessor != null) {
+            try {
+                transport.healthCheck(predecessor);
+            } catch (ChordHealthCheckException ex) {
                 setPredecessor(null);
+
+                // this node now owns the failed predecessor's range, promote its replica
+                replicaKeySet.forEach(key -> {
+                    Long expiresAt = replicaKeyExpiry.expiresAt(key);
+                    if (expiresAt != null) {
+                        keyExpiry.schedule(key, expiresAt);
+                        replicaKeyExpiry.cancel(key);
+                    }
+                });
+                addKeys(Set.copyOf(replicaKeySet));
+                replicaKeySet.clear();
+                holdsPromotedReplica = true;
+            }
+        }
+    }
+
+    private void handOverKeysOutsideRange(BasicChordNode predecessor) {
+        Set<Long> outsideRange = Set.copyOf(keySet.keysInRange(nodeId, predecessor.getNodeId(), Integer.MAX_VALUE));
+
+        if (!outsideRange.isEmpty()) {
+            Set<Long> rejected;
+            try {
+                rejected = transport.assignOwnedKeySetRemote(predecessor, outsideRange);
+
+                Map<Long, Long> keyTtls = remainingTtls(Sets.difference(outsideRange, rejected));
+                if (!keyTtls.isEmpty()) {
+                    transport.assignKeyTtlsRemote(predecessor, keyTtls);
+                }
+            } catch (ChordTransportException ex) {
+                logger.warn("failed to hand {} promoted keys over to predecessor {}: {}",
+                    outsideRange.size(), predecessor, ex.getMessage());
+                return;
+            }
+
+            // rejected keys belong further back on the ring, lookups no longer reach them here
+            keySet.removeAll(outsideRange);
+            outsideRange.forEach(keyExpiry::cancel);
+
+            logger.info("handed {} promoted keys over to predecessor {}, dropped {} it rejected",
+                outsideRange.size() - rejected.size(), predecessor, rejected.size());
+        }
+
+        holdsPromotedReplica = false;
+    }
+
+    /**
+     * lookups answered, lookups forwarded and keys assigned since the node started,
+     * per range of ids, forwarded lookups per finger, and the number of lookups hedged
+     */
+    public TrafficStats getTrafficStats() {
+        TrafficStats trafficStats = trafficCounters.snapshot(nodeId);
+        trafficStats.setHedged(lookupHedger == null ? 0L : lookupHedger.getHedgeCount());
+        return trafficStats;
+    }
+
+    public int getKeyCount() {
+        return keySet.size();
+    }
+
+    /**
+     * keys in (from, to], ordered clockwise from from, at most limit of them
+     *
+     * @param from exclusive lower bound on the ring
+     * @param to inclusive upper bound on the ring
+     * @param limit maximum number of keys to return
+     * @return keys in ring order
+     */
+    public List<Long> getKeyRange(long from, long to, int limit) {
+        return keySet.keysInRange(from, to, limit);
+    }
+
+    /**
+     * one page of a range scan over [origin, to], covering the keys of this node from from on.
+     *
+     * whether this node is the last one to visit is decided by how far the scan has gone
+     * clockwise from origin: the scan ends on the node whose keys take it past to. a scan
+     * that starts right after to, origin == to + 1, covers the whole ring and visits the
+     * owner of origin twice, once from origin and once more for the ids before origin.
+     *
+     * @param origin inclusive lower bound of the whole scan on the ring
+     * @param from where this page starts, taken modulo the ring size
+     * @param to inclusive upper bound on the ring
+     * @param limit maximum number of keys in the page
+     * @return keys in ring order, and where the scan continues
+     */
+    public KeyScanPage scanKeys(long origin, long from, long to, int limit) {
+        long after = Math.floorMod(from - 1L, fingerRingSize);
+        long start = Math.floorMod(from, fingerRingSize);
+
+        // not reduced modulo the ring size, so a second visit to the first owner counts as a full lap
+        long scannedUpTo = clockwiseDistance(origin, start) + clockwiseDistance(start, nodeId);
+        boolean lastOwner = clockwiseDistance(origin, to) <= scannedUpTo;
+
+        List<Long> keys = getKeyRange(after, lastOwner ? to : nodeId, limit + 1);
+        boolean hasMore = keys.size() > limit;
+
+        return new KeyScanPage(hasMore ? keys.subList(0, limit) : keys,
+            self,
+            getImmediateSuccessor(),
+            hasMore,
+            lastOwner);
+    }
+
+    /**
+     * remaining time to live of the expiring keys in (from, to]
+     *
+     * @param from exclusive lower bound on the ring
+     * @param to inclusive upper bound on the ring
+     * @return milliseconds left per key, keys without a time to live are left out
+     */
+    public Map<Long, Long> getKeyTtls(long from, long to) {
+        return remainingTtls(keySet.keysInRange(from, to, Integer.MAX_VALUE));
+    }
+
+    /**
+     * expiring keys handed over by another node, the keys themselves arrive separately
+     *
+     * @param keyTtls remaining time to live in milliseconds per key
+     */
+    public void assignKeyTtls(Map<Long, Long> keyTtls) {
+        long now = System.currentTimeMillis();
+
+        keyTtls.forEach((key, ttlMillis) -> {
+            if (keySet.contains(key)) {
+                keyExpiry.schedule(key, now + ttlMillis);
+                pendingReplicaExpiry.put(key, now + ttlMillis);
+            }
+        });
+    }
+
+    private Map<Long, Long> remainingTtls(Collection<Long> keys) {
+        long now = System.currentTimeMillis();
+        Map<Long, Long> keyTtls = new HashMap<>();
+
+        keys.forEach(key -> {
+            Long expiresAt = keyExpiry.expiresAt(key);
+            if (expiresAt != null) {
+                keyTtls.put(key, Math.max(1L, expiresAt - now));
+            }
+        });
+
+        return keyTtls;
+    }
+
+    /**
+     * called periodically. removes the keys whose time to live ran out, from the
+     * keys this node owns and from the replica it keeps for its predecessor. the
+     * timing wheels only hand out keys that are due, so a run costs the number of
+     * expired keys, not the number of keys.
+     *
+     * every change of a time to live since the last run, expirations included, is
+     * sent to the successor so its replica follows. changes that fail to go out stay
+     * queued for the next run, unless a newer change of the same key replaced them.
+     */
+    public void expireKeys() {
+        long now = System.currentTimeMillis();
+
+        List<Long> expiredReplicas = replicaKeyExpiry.advance(now);
+        if (!expiredReplicas.isEmpty()) {
+            replicaKeySet.removeAll(expiredReplicas);
+        }
+
+        List<Long> expired = keyExpiry.advance(now);
+        if (!expired.isEmpty()) {
+            keySet.removeAll(expired);
+            expired.forEach(key -> pendingReplicaExpiry.put(key, now));
+            logger.debug("expired {} keys", expired.size());
+        }
+
+        sendReplicaExpiry(now);
+    }
+
+    private void sendReplicaExpiry(long now) {
+        if (pendingReplicaExpiry.isEmpty()) {
+            return;
+        }
+
+        BasicChordNode successor = getImmediateSuccessor();
+        if (isSameEndpoint(successor, self)) {
+            pendingReplicaExpiry.clear();
+            return;
+        }
+
+        Map<Long, Long> pending = new HashMap<>(pendingReplicaExpiry);
+        pending.forEach(pendingReplicaExpiry::remove);
+
+        Map<Long, Long> keyTtls = new HashMap<>();
+        pending.forEach((key, expiresAt) -> keyTtls.put(key,
+            expiresAt == Long.MAX_VALUE ? REPLICA_TTL_PERMANENT : Math.max(0L, expiresAt - now)));
+
+        try {
+            transport.assignReplicaKeyTtlsRemote(successor, keyTtls);
+        } catch (ChordTransportException ex) {
+            pending.forEach(pendingReplicaExpiry::putIfAbsent);
+            logger.warn("failed to send {} time to live changes to the replica on {}: {}",
+                keyTtls.size(), successor, ex.getMessage());
+        }
+    }
+
+    public void assignKeySet(Set<Long> keySet) {
+        addKeys(keySet);
+        keySet.forEach(trafficCounters::recordAssigned);
+    }
+
+    /**
+     * keeps the keys this node owns, i.e. the ones in (predecessor, n]
+     *
+     * @param keySet keys the caller believes this node owns
+     * @return keys rejected because they belong to another node
+     */
+    public Set<Long> assignOwnedKeySet(Set<Long> keySet) {
+        BasicChordNode predecessor = getPredecessor();
+
+        // without a predecessor there is nothing to tell the keys apart with
+        if (predecessor == null) {
+            addKeys(keySet);
+            keySet.forEach(trafficCounters::recordAssigned);
+            return Set.of();
+        }
+
+        Map<Boolean, Set<Long>> owned = keySet.stream()
+            .collect(Collectors.partitioningBy(key -> isInOpenClosedInterval(key, predecessor.getNodeId(), nodeId),
+                Collectors.toUnmodifiableSet()));
+
+        addKeys(owned.get(true));
+        owned.get(true).forEach(trafficCounters::recordAssigned);
+        return owned.get(false);
+    }
+
+    /**
+     * a node re-positioned itself, refresh every pointer to its endpoint
+     *
+     * @param movedNode the node with its new id
+     */
+    public void onNodeMoved(BasicChordNode movedNode) {
+        BasicChordNode predecessor = getPredecessor();
+        if (predecessor != null && isSameEndpoint(predecessor, movedNode)) {
+            setPredecessor(movedNode);
+        }
+
+        fingerTable.stream()
+            .map(FingerTableEntry::getNode)
+            .forEach(finger -> finger.updateAndGet(node ->
+                node != null && isSameEndpoint(node, movedNode) ? movedNode : node));
+        routingStateVersion.incrementAndGet();
+    }
+
+    /**
+     * called periodically when rebalancing is enabled. moves the boundary between
+     * this node and its successor, which is this node's id, towards the lighter side.
+     * each node only moves its own id, so the boundary with the predecessor is
+     * balanced by the predecessor.
+     *      n.rebalance()
+     *          if (load(n) > load(successor) * r)
+     *              hand the keys closest to n over to successor, move n backwards;
+     *          else if (load(successor) > load(n) * r)
+     *              take the keys closest to n from successor, move n forwards;
+     *
+     * the id moves before any key does, so new writes for the moved range already
+     * go to the node that ends up owning it. writes routed with the old id can still
+     * land on the other side while the keys move, a sweep of the moved range at the
+     * end picks them up. a round starts by sweeping whatever an earlier, failed
+     * round left on the wrong side.
+     */
+    public synchronized void rebalance() {
+        BasicChordNode successor = getImmediateSuccessor();
+        if (isSameEndpoint(successor, self)) {
+            return;
+        }
+
+        BasicChordNode predecessor = getPredecessor();
+        try {
+            pushKeyRange(successor, nodeId, successor.getNodeId());
+            if (predecessor != null) {
+                pullKeyRange(successor, predecessor.getNodeId(), nodeId);
             }
+        } catch (ChordTransportException ex) {
+            logger.warn("failed to sweep keys left on the wrong side of successor {}: {}", successor, ex.getMessage());
+            return;
+        }
+
+        int localLoad = keySet.size();
+        int successorLoad;
+        try {
+            successorLoad = transport.getKeyCountRemote(successor);
+        } catch (ChordTransportException ex) {
+            return;
+        }
+
+        if (localLoad > successorLoad * REBALANCE_LOAD_RATIO
+            && localLoad - successorLoad >= REBALANCE_MIN_KEY_DIFFERENCE) {
+            handKeysOverToSuccessor(successor, (localLoad - successorLoad) / 2);
+        } else if (successorLoad > localLoad * REBALANCE_LOAD_RATIO
+            && successorLoad - localLoad >= REBALANCE_MIN_KEY_DIFFERENCE) {
+            takeKeysFromSuccessor(successor, (successorLoad - localLoad) / 2);
+        }
+    }
+
+    private void handKeysOverToSuccessor(BasicChordNode successor, int count) {
+        List<Long> keysClosestToSelf = keySet.keysInRangeDescending(nodeId, nodeId, count + 1);
+
+        if (keysClosestToSelf.size() <= count) {
+            return;
         }
+
+        // the first key this node keeps becomes its new id
+        long oldNodeId = nodeId;
+        long newNodeId = keysClosestToSelf.get(count);
+        reposition(newNodeId);
+
+        int handedOver = pushKeyRange(successor, newNodeId, oldNodeId);
+        handedOver += pushKeyRange(successor, newNodeId, oldNodeId);
+
+        logger.info("handed {} keys over to successor {}, moved to id {}", handedOver, successor, newNodeId);
+    }
+
+    private void takeKeysFromSuccessor(BasicChordNode successor, int count) {
+        List<Long> keyRange = transport.fetchKeyRangeRemote(successor, nodeId, successor.getNodeId(), count);
+
+        // the successor's own id has to stay with the successor
+        List<Long> taken = keyRange.stream()
+            .filter(key -> key != successor.getNodeId())
+            .collect(Collectors.toUnmodifiableList());
+
+        if (taken.isEmpty()) {
+            return;
+        }
+
+        // the last key taken over becomes this node's new id
+        long oldNodeId = nodeId;
+        long newNodeId = taken.get(taken.size() - 1);
+        reposition(newNodeId);
+
+        int takenOver = pullKeyRange(successor, oldNodeId, newNodeId);
+        takenOver += pullKeyRange(successor, oldNodeId, newNodeId);
+
+        logger.info("took {} keys over from successor {}, moved to id {}", takenOver, successor, newNodeId);
+    }
+
+    /**
+     * moves the keys this node holds in (from, to] to the successor, with their time to live
+     *
+     * @return number of keys moved
+     */
+    private int pushKeyRange(BasicChordNode successor, long from, long to) {
+        Set<Long> keys = Set.copyOf(keySet.keysInRange(from, to, Integer.MAX_VALUE));
+        if (keys.isEmpty()) {
+            return 0;
+        }
+
+        transport.assignKeySetRemote(successor, keys);
+        Map<Long, Long> keyTtls = remainingTtls(keys);
+        if (!keyTtls.isEmpty()) {
+            transport.assignKeyTtlsRemote(successor, keyTtls);
+        }
+        keySet.removeAll(keys);
+        keys.forEach(keyExpiry::cancel);
+
+        return keys.size();
+    }
+
+    /**
+     * moves the keys the successor holds in (from, to] to this node, with their time to live
+     *
+     * @return number of keys moved
+     */
+    private int pullKeyRange(BasicChordNode successor, long from, long to) {
+        List<Long> keys = transport.fetchKeyRangeRemote(successor, from, to, Integer.MAX_VALUE);
+        if (keys.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Long> keyTtls = transport.fetchKeyTtlsRemote(successor, from, to);
+        addKeys(keys);
+        assignKeyTtls(keyTtls);
+        transport.removeKeySetRemote(successor, Set.copyOf(keys));
+
+        return keys.size();
+    }
+
+    private void reposition(long newNodeId) {
+        nodeId = newNodeId;
+        self.setNodeId(newNodeId);
+        positionFingerTable(fingerTable);
+        routingStateVersion.incrementAndGet();
+
+        // the successor picks the new id up through notify, the predecessor is told directly
+        BasicChordNode successor = getImmediateSuccessor();
+        if (!isSameEndpoint(successor, self)) {
+            try {
+                notifyRemote(successor);
+            } catch (ChordTransportException ex) {
+                logger.warn("failed to notify successor {} about new id: {}", successor, ex.getMessage());
+            }
+        }
+
+        BasicChordNode predecessor = getPredecessor();
+        if (predecessor != null && !isSameEndpoint(predecessor, self)) {
+            try {
+                transport.nodeMovedRemote(predecessor, self);
+            } catch (ChordTransportException ex) {
+                logger.warn("failed to tell predecessor {} about new id: {}", predecessor, ex.getMessage());
+            }
+        }
+    }
+
+    private boolean isInOpenClosedInterval(long id, long from, long to) {
+        if (from < to) {
+            return Range.openClosed(from, to).contains(id);
+        } else {
+            return Range.openClosed(from, fingerRingHighestIndex).contains(id)
+                || Range.closed(0L, to).contains(id);
+        }
+    }
+
+    private boolean isInOpenInterval(long id, long from, long to) {
+        if (from < to) {
+            return Range.open(from, to).contains(id);
+        } else {
+            return Range.openClosed(from, fingerRingHighestIndex).contains(id)
+                || Range.closedOpen(0L, to).contains(id);
+        }
+    }
+
+    private long clockwiseDistance(long from, long to) {
+        return Math.floorMod(to - from, fingerRingSize);
+    }
+
+    private static boolean isSameEndpoint(BasicChordNode a, BasicChordNode b) {
+        return Objects.equals(a.getNodeAddress(), b.getNodeAddress())
+            && Objects.equals(a.getNodePort(), b.getNodePort());
+    }
+
+    private static boolean isSameNode(BasicChordNode a, BasicChordNode b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.getNodeId() == b.getNodeId() && isSameEndpoint(a, b);
+    }
+
+    public void assignReplicaKeySet(Set<Long> keySet) {
+        replicaKeySet.addAll(keySet);
+    }
+
+    /**
+     * replicated keys expire a tick before the keys they replicate, a key that
+     * has no more than a tick left is dropped from the replica right away
+     *
+     * @param keyTtls remaining time to live in milliseconds per key, as on the predecessor,
+     *                a negative one makes the replicated key permanent
+     */
+    public void assignReplicaKeyTtls(Map<Long, Long> keyTtls) {
+        long now = System.currentTimeMillis();
+
+        keyTtls.forEach((key, ttlMillis) -> {
+            if (ttlMillis < 0L) {
+                replicaKeyExpiry.cancel(key);
+            } else if (ttlMillis <= KEY_EXPIRY_TICK_MILLIS) {
+                replicaKeyExpiry.cancel(key);
+                replicaKeySet.remove(key);
+            } else {
+                replicaKeyExpiry.schedule(key, now + ttlMillis - KEY_EXPIRY_TICK_MILLIS);
+            }
+        });
+    }
+
+    /**
+     * hashes of the replica held for the predecessor, restricted to its range
+     *
+     * @param request range and merkle tree nodes to hash
+     * @return hashes in the order of the requested tree nodes
+     */
+    public List<Long> getReplicaMerkleHashes(MerkleRangeRequest request) {
+        // the range is the predecessor's current range, anything outside it is a stale replica
+        if (request.getTreeNodeIndexes().contains(ChordKeyStore.ROOT)) {
+            replicaKeySet.retainRange(request.getFrom(), request.getTo());
+        }
+
+        return request.getTreeNodeIndexes().stream()
+            .map(index -> replicaKeySet.rangeHash(index, request.getFrom(), request.getTo()))
+            .collect(Collectors.toUnmodifiableList());
+    }
+
+    public List<Long> getReplicaMerkleLeafKeys(MerkleRangeRequest request) {
+        return request.getTreeNodeIndexes().stream()
+            .flatMap(index -> replicaKeySet.leafKeys(index, request.getFrom(), request.getTo()).stream())
+            .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * called periodically. reconciles the keys this node owns, (predecessor, n],
+     * with the replica its successor keeps of them. the two merkle trees are compared
+     * level by level from the root, descending only into differing subtrees, and only
+     * the keys of differing leaves are exchanged. a leaf is a subtree this node holds
+     * few enough keys of, so one differing key ships a handful of keys, not a whole bucket. every node does the same with its
+     * own successor, so each node also answers its predecessor about the predecessor's range.
+     *
+     * the owner is authoritative: keys missing on the successor are pushed to it, keys
+     * only the successor has are dropped from its replica. the replica only flows back
+     * when this node takes the range over, see check-predecessor.
+     */
+    public void antiEntropy() {
+        BasicChordNode successor = getImmediateSuccessor();
+        BasicChordNode predecessor = getPredecessor();
+
+        if (predecessor == null || isSameEndpoint(successor, self)) {
+            return;
+        }
+
+        long from = predecessor.getNodeId();
+        long to = nodeId;
+
+        List<Integer> differingLeaves = new ArrayList<>();
+        List<Integer> differing = List.of(ChordKeyStore.ROOT);
+
+        try {
+            while (!differing.isEmpty()) {
+                List<Long> remoteHashes = transport.getReplicaMerkleHashesRemote(successor,
+                    new MerkleRangeRequest(from, to, differing));
+
+                List<Integer> nextLevel = new ArrayList<>();
+                for (int i = 0; i < differing.size(); ++i) {
+                    int index = differing.get(i);
+
+                    if (keySet.rangeHash(index, from, to) == remoteHashes.get(i)) {
+                        continue;
+                    }
+
+                    if (keySet.isLeaf(index, from, to)) {
+                        differingLeaves.add(index);
+                    } else {
+                        nextLevel.add(2 * index);
+                        nextLevel.add(2 * index + 1);
+                    }
+                }
+
+                differing = nextLevel;
+            }
+
+            if (differingLeaves.isEmpty()) {
+                return;
+            }
+
+            Set<Long> remoteKeys = Set.copyOf(transport.getReplicaMerkleLeafKeysRemote(successor,
+                new MerkleRangeRequest(from, to, differingLeaves)));
+            Set<Long> localKeys = differingLeaves.stream()
+                .flatMap(index -> keySet.leafKeys(index, from, to).stream())
+                .collect(Collectors.toUnmodifiableSet());
+
+            Set<Long> missingOnSuccessor = Sets.difference(localKeys, remoteKeys).immutableCopy();
+            Set<Long> staleOnSuccessor = Sets.difference(remoteKeys, localKeys).immutableCopy();
+
+            if (!missingOnSuccessor.isEmpty()) {
+                transport.assignReplicaKeySetRemote(successor, missingOnSuccessor);
+
+                Map<Long, Long> keyTtls = remainingTtls(missingOnSuccessor);
+                if (!keyTtls.isEmpty()) {
+                    transport.assignReplicaKeyTtlsRemote(successor, keyTtls);
+                }
+            }
+            if (!staleOnSuccessor.isEmpty()) {
+                // a time to live of zero drops the replica key
+                transport.assignReplicaKeyTtlsRemote(successor, staleOnSuccessor.stream()
+                    .collect(Collectors.toMap(key -> key, key -> 0L)));
+            }
+
+            logger.info("anti-entropy with {} over {} leaves: pushed {} keys, dropped {} stale keys",
+                successor, differingLeaves.size(), missingOnSuccessor.size(), staleOnSuccessor.size());
+        } catch (ChordTransportException ex) {
+            logger.warn("anti-entropy with {} failed: {}", successor, ex.getMessage());
+        }
+    }
+
+    public void acceptOwnershipHints(List<OwnershipHint> hints) {
+        hints.forEach(ownershipHintCache::put);
+    }
+
+    /**
+     * called periodically. pushes ownership hints for the ids and ranges that were hot
+     * in the last window to the nodes that forwarded most lookups for them.
+     */
+    public void pushOwnershipHints() {
+        ownershipHintCache.evictExpired();
+
+        hotKeyTracker.drainHints(OWNERSHIP_HINT_TTL_MILLIS).forEach(push -> {
+            try {
+                transport.pushOwnershipHintsRemote(push.getForwarder(), push.getHints());
+            } catch (ChordTransportException ex) {
+                logger.warn("failed to push {} ownership hints to {}: {}",
+                    push.getHints().size(), push.getForwarder(), ex.getMessage());
+            }
+        });
     }
 }
@@ -0,0 +1,58 @@
+package org.gty.chord.core;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * fixed-size frequency estimator. estimates never undercount, and overcount
+ * by at most a small fraction of the total with high probability.
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final HashFunction[] rowHashes;
+    private final AtomicLongArray counters;
+
+    public CountMinSketch(int depth, int width) {
+        this.depth = depth;
+        this.width = width;
+
+        rowHashes = new HashFunction[depth];
+        for (int row = 0; row < depth; ++row) {
+            rowHashes[row] = Hashing.murmur3_32(row);
+        }
+        counters = new AtomicLongArray(depth * width);
+    }
+
+    /**
+     * counts one occurrence of item
+     *
+     * @return estimated count of item including this occurrence
+     */
+    public long add(long item) {
+        long estimate = Long.MAX_VALUE;
+
+        for (int row = 0; row < depth; ++row) {
+            estimate = Math.min(estimate, counters.incrementAndGet(indexOf(row, item)));
+        }
+
+        return estimate;
+    }
+
+    /**
+     * ages all counts, so the sketch reflects recent traffic
+     */
+    public void halve() {
+        for (int i = 0; i < counters.length(); ++i) {
+            counters.updateAndGet(i, count -> count / 2);
+        }
+    }
+
+    private int indexOf(int row, long item) {
+        int column = Math.floorMod(rowHashes[row].hashLong(item).asInt(), width);
+        return row * width + column;
+    }
+}
@@ -0,0 +1,142 @@
+package org.gty.chord.core;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import org.gty.chord.model.KeyFilter;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * bloom filter that keeps a counter instead of a bit per position, so keys can be
+ * removed as well as added. a key sets or clears hashCount counters, picked by
+ * double hashing from one 128 bit hash.
+ *
+ * counters are four bits wide, sixteen of them packed into a long. a counter that
+ * reaches fifteen sticks there, since its real count is no longer known, and is only
+ * reset when the filter is rebuilt. at ten counters per key that takes sixteen keys
+ * landing on the same counter, which is rare.
+ *
+ * only the bits, i.e. the counters above zero, leave the node, as a {@link KeyFilter}.
+ * the receiver tests keys against them with {@link #mightContain(KeyFilter, long)}.
+ */
+public class CountingBloomFilter {
+
+    private static final HashFunction KEY_HASH = Hashing.murmur3_128();
+
+    private static final int COUNTER_BITS = 4;
+    private static final int COUNTERS_PER_WORD = Long.SIZE / COUNTER_BITS;
+    private static final long MAX_COUNT = (1L << COUNTER_BITS) - 1L;
+
+    private final int hashCount;
+    private final int counterCount;
+    private final AtomicLongArray counterWords;
+
+    /**
+     * @param counterCount number of counters, rounded up to a multiple of 64
+     */
+    public CountingBloomFilter(int counterCount, int hashCount) {
+        this.hashCount = hashCount;
+        this.counterCount = 64 * ((counterCount + 63) / 64);
+        counterWords = new AtomicLongArray(this.counterCount / COUNTERS_PER_WORD);
+    }
+
+    public void add(long key) {
+        long[] hashes = hashesOf(key);
+
+        for (int i = 0; i < hashCount; ++i) {
+            updateCounter(indexOf(hashes, i, counterCount), count -> count < MAX_COUNT ? count + 1L : count);
+        }
+    }
+
+    public void remove(long key) {
+        long[] hashes = hashesOf(key);
+
+        for (int i = 0; i < hashCount; ++i) {
+            updateCounter(indexOf(hashes, i, counterCount), count -> count > 0L && count < MAX_COUNT ? count - 1L : count);
+        }
+    }
+
+    public boolean mightContain(long key) {
+        long[] hashes = hashesOf(key);
+
+        for (int i = 0; i < hashCount; ++i) {
+            if (counter(indexOf(hashes, i, counterCount)) == 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public KeyFilter toKeyFilter(long version) {
+        long[] bits = new long[counterCount / 64];
+
+        for (int i = 0; i < counterCount; ++i) {
+            if (counter(i) > 0L) {
+                bits[i / 64] |= 1L << (i % 64);
+            }
+        }
+
+        return new KeyFilter(version, hashCount, bits);
+    }
+
+    private long counter(int index) {
+        int shift = (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+        return (counterWords.get(index / COUNTERS_PER_WORD) >>> shift) & MAX_COUNT;
+    }
+
+    private void updateCounter(int index, LongUnaryOperator update) {
+        int shift = (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+
+        counterWords.updateAndGet(index / COUNTERS_PER_WORD, word -> {
+            long count = update.applyAsLong((word >>> shift) & MAX_COUNT);
+            return (word & ~(MAX_COUNT << shift)) | (count << shift);
+        });
+    }
+
+    /**
+     * applies an update to a whole filter
+     *
+     * @param filter whole filter the update was made against
+     * @param update keys added since, see {@link KeyFilter#getAddedKeys()}
+     * @return whole filter at the version of the update
+     */
+    public static KeyFilter withAddedKeys(KeyFilter filter, KeyFilter update) {
+        long[] bits = filter.getBits().clone();
+
+        update.getAddedKeys().forEach(key -> {
+            long[] hashes = hashesOf(key);
+
+            for (int i = 0; i < filter.getHashCount(); ++i) {
+                int index = indexOf(hashes, i, 64 * bits.length);
+                bits[index / 64] |= 1L << (index % 64);
+            }
+        });
+
+        return new KeyFilter(update.getVersion(), filter.getHashCount(), bits);
+    }
+
+    public static boolean mightContain(KeyFilter filter, long key) {
+        long[] bits = filter.getBits();
+        long[] hashes = hashesOf(key);
+
+        for (int i = 0; i < filter.getHashCount(); ++i) {
+            int index = indexOf(hashes, i, 64 * bits.length);
+
+            if ((bits[index / 64] & (1L << (index % 64))) == 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long[] hashesOf(long key) {
+        ByteBuffer hash = ByteBuffer.wrap(KEY_HASH.hashLong(key).asBytes());
+        return new long[] {hash.getLong(0), hash.getLong(8)};
+    }
+
+    private static int indexOf(long[] hashes, int i, int size) {
+        return (int) Math.floorMod(hashes[0] + i * hashes[1], (long) size);
+    }
+}
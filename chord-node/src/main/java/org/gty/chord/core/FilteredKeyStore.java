@@ -0,0 +1,274 @@
+package org.gty.chord.core;
+
+import org.gty.chord.model.KeyFilter;
+
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * key store that keeps a counting bloom filter of its keys up to date on every change.
+ *
+ * the filter is sized for {@value #COUNTERS_PER_KEY} counters per key, which gives about
+ * one percent false positives. once the store outgrows the filter, or shrinks far below
+ * it, the filter is rebuilt four times larger or smaller from the keys. changes update
+ * the filter concurrently with each other, only a rebuild holds them off.
+ *
+ * the version changes with every change of the keys, so a node that already has the
+ * filter can tell whether it needs a new one. the keys added lately are kept with the
+ * version they were added at, so that node can often be sent just those instead of
+ * the whole filter. no more are kept than fit into the size of the filter's bits.
+ */
+public class FilteredKeyStore extends AbstractSet<Long> implements ChordKeyStore {
+
+    private static final int COUNTERS_PER_KEY = 10;
+    private static final int HASH_COUNT = 7;
+    private static final int INITIAL_CAPACITY = 1_024;
+    private static final int RESIZE_FACTOR = 4;
+
+    private final ChordKeyStore delegate;
+    private final ReadWriteLock filterLock;
+    private final AtomicLong version;
+    private final Deque<AddedKey> addedKeys;
+    private long addedKeysSinceVersion;
+
+    private volatile CountingBloomFilter filter;
+    private volatile int capacity;
+
+    public FilteredKeyStore(ChordKeyStore delegate) {
+        this.delegate = delegate;
+
+        filterLock = new ReentrantReadWriteLock();
+        // a restarted node must not repeat the versions of its previous run
+        version = new AtomicLong(ThreadLocalRandom.current().nextLong());
+        addedKeys = new ArrayDeque<>();
+        addedKeysSinceVersion = version.get();
+
+        capacity = INITIAL_CAPACITY;
+        filter = new CountingBloomFilter(capacity * COUNTERS_PER_KEY, HASH_COUNT);
+        delegate.forEach(filter::add);
+        resizeIfNeeded();
+    }
+
+    @Override
+    public boolean add(Long key) {
+        boolean added;
+
+        filterLock.readLock().lock();
+        try {
+            added = delegate.add(key);
+            if (added) {
+                filter.add(key);
+                recordAdded(key);
+            }
+        } finally {
+            filterLock.readLock().unlock();
+        }
+
+        if (added) {
+            resizeIfNeeded();
+        }
+        return added;
+    }
+
+    @Override
+    public boolean remove(Object key) {
+        boolean removed;
+
+        filterLock.readLock().lock();
+        try {
+            removed = delegate.remove(key);
+            if (removed) {
+                filter.remove((Long) key);
+                recordRemoved();
+            }
+        } finally {
+            filterLock.readLock().unlock();
+        }
+
+        if (removed) {
+            resizeIfNeeded();
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        return delegate.contains(key);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+        Iterator<Long> keys = delegate.iterator();
+
+        return new Iterator<>() {
+            private Long current;
+
+            @Override
+            public boolean hasNext() {
+                return keys.hasNext();
+            }
+
+            @Override
+            public Long next() {
+                current = keys.next();
+                return current;
+            }
+
+            @Override
+            public void remove() {
+                FilteredKeyStore.this.remove(current);
+            }
+        };
+    }
+
+    @Override
+    public void retainRange(long from, long to) {
+        Set<Long> before = Set.copyOf(delegate);
+        delegate.retainRange(from, to);
+
+        filterLock.readLock().lock();
+        try {
+            before.stream()
+                .filter(key -> !delegate.contains(key))
+                .forEach(filter::remove);
+            recordRemoved();
+        } finally {
+            filterLock.readLock().unlock();
+        }
+
+        resizeIfNeeded();
+    }
+
+    @Override
+    public List<Long> keysInRange(long from, long to, int limit) {
+        return delegate.keysInRange(from, to, limit);
+    }
+
+    @Override
+    public List<Long> keysInRangeDescending(long from, long to, int limit) {
+        return delegate.keysInRangeDescending(from, to, limit);
+    }
+
+    @Override
+    public boolean isLeaf(int index, long from, long to) {
+        return delegate.isLeaf(index, from, to);
+    }
+
+    @Override
+    public long rangeHash(int index, long from, long to) {
+        return delegate.rangeHash(index, from, to);
+    }
+
+    @Override
+    public List<Long> leafKeys(int index, long from, long to) {
+        return delegate.leafKeys(index, from, to);
+    }
+
+    public long getFilterVersion() {
+        return version.get();
+    }
+
+    /**
+     * @param knownVersion version of the filter the caller has, null if it has none
+     * @return null if the caller's filter is current, the keys added since its version
+     *         if they are all known, the whole filter otherwise
+     */
+    public KeyFilter getKeyFilter(Long knownVersion) {
+        synchronized (addedKeys) {
+            long currentVersion = version.get();
+
+            if (knownVersion != null && knownVersion == currentVersion) {
+                return null;
+            }
+            // versions may wrap around, so they are only compared through their difference
+            if (knownVersion != null && knownVersion - addedKeysSinceVersion >= 0L && currentVersion - knownVersion > 0L) {
+                List<Long> keys = new ArrayList<>();
+                addedKeys.stream()
+                    .filter(addedKey -> addedKey.version - knownVersion > 0L)
+                    .forEach(addedKey -> keys.add(addedKey.key));
+                return new KeyFilter(currentVersion, keys);
+            }
+        }
+
+        // taken first, so a change racing with the copy shows up as a newer version later
+        long currentVersion = version.get();
+        return filter.toKeyFilter(currentVersion);
+    }
+
+    private void recordAdded(long key) {
+        synchronized (addedKeys) {
+            addedKeys.addLast(new AddedKey(version.incrementAndGet(), key));
+
+            // past this many keys the whole filter is smaller
+            if (addedKeys.size() > capacity * COUNTERS_PER_KEY / Long.SIZE) {
+                addedKeysSinceVersion = addedKeys.removeFirst().version;
+            }
+        }
+    }
+
+    private void recordRemoved() {
+        synchronized (addedKeys) {
+            version.incrementAndGet();
+        }
+    }
+
+    private void resizeIfNeeded() {
+        int size = delegate.size();
+        if (size <= capacity && (capacity == INITIAL_CAPACITY || size * RESIZE_FACTOR * RESIZE_FACTOR >= capacity)) {
+            return;
+        }
+
+        filterLock.writeLock().lock();
+        try {
+            int newCapacity = capacity;
+            while (delegate.size() > newCapacity) {
+                newCapacity *= RESIZE_FACTOR;
+            }
+            while (newCapacity > INITIAL_CAPACITY && delegate.size() * RESIZE_FACTOR * RESIZE_FACTOR < newCapacity) {
+                newCapacity /= RESIZE_FACTOR;
+            }
+            if (newCapacity == capacity) {
+                return;
+            }
+
+            CountingBloomFilter resized = new CountingBloomFilter(newCapacity * COUNTERS_PER_KEY, HASH_COUNT);
+            delegate.forEach(resized::add);
+
+            filter = resized;
+            capacity = newCapacity;
+
+            // the added keys set bits at other positions in the resized filter
+            synchronized (addedKeys) {
+                addedKeys.clear();
+                addedKeysSinceVersion = version.incrementAndGet();
+            }
+        } finally {
+            filterLock.writeLock().unlock();
+        }
+    }
+
+    private static class AddedKey {
+
+        private final long version;
+        private final long key;
+
+        private AddedKey(long version, long key) {
+            this.version = version;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.gty.chord.core;
+
+import org.gty.chord.model.BasicChordNode;
+import org.gty.chord.model.KeyFilter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * key filters of the nodes in this node's successor list, for contains-key to answer
+ * misses with. a filter is trusted for the lease its owner granted with it, counted from
+ * when it was asked for, see {@link KeyFilterLeases}. the owner pushes the keys it adds
+ * in the meantime, so a filter that is trusted is never older than the owner's keys.
+ *
+ * a filter fetched while keys were pushed may have been taken before them, the keys
+ * pushed since it was asked for are added to it again. keys pushed before the first
+ * filter of an owner arrives are kept for it the same way.
+ */
+public class HeldKeyFilters {
+
+    private static final long WHOLE_FILTER_MAX_AGE_NANOS = TimeUnit.SECONDS.toNanos(60L);
+
+    private final ConcurrentMap<String, HeldKeyFilter> filters;
+
+    public HeldKeyFilters() {
+        filters = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * asking without a version gets the whole filter, which also forgets removed keys
+     *
+     * @return version of owner's filter to ask for the keys added since, null to ask for the whole filter
+     */
+    public Long knownVersion(BasicChordNode owner) {
+        HeldKeyFilter held = filters.get(KeyFilterLeases.endpointOf(owner));
+
+        return held != null
+            && held.filter != null
+            && System.nanoTime() - held.wholeSentAtNanos < WHOLE_FILTER_MAX_AGE_NANOS
+            ? held.filter.getVersion()
+            : null;
+    }
+
+    /**
+     * @param keyFilter filter or update of it sent by owner, null if the one already held is still current
+     * @param askedAtNanos when it was asked for, the new lease is counted from then
+     */
+    public void update(BasicChordNode owner, KeyFilter keyFilter, long askedAtNanos) {
+        filters.compute(KeyFilterLeases.endpointOf(owner), (endpoint, held) -> {
+            List<PushedKeys> pushedSince = held == null ? List.of() : held.pushedSince(askedAtNanos);
+            KeyFilter filter;
+            long wholeSentAtNanos;
+
+            if (keyFilter != null && keyFilter.getBits() != null) {
+                filter = keyFilter;
+                wholeSentAtNanos = askedAtNanos;
+            } else if (held != null && held.filter != null) {
+                filter = keyFilter == null ? held.filter : CountingBloomFilter.withAddedKeys(held.filter, keyFilter);
+                wholeSentAtNanos = held.wholeSentAtNanos;
+            } else {
+                // an update is of no use without the filter it was made against
+                return pushedSince.isEmpty() ? null : new HeldKeyFilter(null, 0L, askedAtNanos, pushedSince);
+            }
+
+            for (PushedKeys pushed : pushedSince) {
+                filter = CountingBloomFilter.withAddedKeys(filter, new KeyFilter(filter.getVersion(), pushed.keys));
+            }
+
+            filter.setOwner(owner);
+            return new HeldKeyFilter(filter, wholeSentAtNanos, askedAtNanos + KeyFilterLeases.LEASE_NANOS, pushedSince);
+        });
+    }
+
+    /**
+     * @param keys keys owner added since it sent its filter
+     */
+    public void addPushedKeys(BasicChordNode owner, List<Long> keys) {
+        long now = System.nanoTime();
+        PushedKeys pushed = new PushedKeys(now, keys);
+
+        filters.compute(KeyFilterLeases.endpointOf(owner), (endpoint, held) -> {
+            if (held == null) {
+                // the first filter is still on its way, it gets the keys once it arrives
+                return new HeldKeyFilter(null, 0L, now, List.of(pushed));
+            }
+
+            return new HeldKeyFilter(
+                held.filter == null ? null : CountingBloomFilter.withAddedKeys(held.filter, new KeyFilter(held.filter.getVersion(), keys)),
+                held.wholeSentAtNanos,
+                held.trustedUntilNanos,
+                Stream.concat(held.pushedKeys.stream(), Stream.of(pushed))
+                    .collect(Collectors.toUnmodifiableList()));
+        });
+    }
+
+    /**
+     * @return whether a trusted filter of owner rules key out, false if key might be held
+     *         or there is no trusted filter to tell
+     */
+    public boolean certainlyMissing(BasicChordNode owner, long key) {
+        HeldKeyFilter held = filters.get(KeyFilterLeases.endpointOf(owner));
+
+        return held != null
+            && held.filter != null
+            && System.nanoTime() - held.trustedUntilNanos < 0L
+            && !CountingBloomFilter.mightContain(held.filter, key);
+    }
+
+    /**
+     * drops the filters of nodes that are no longer among owners
+     */
+    public void retainOwners(Collection<BasicChordNode> owners) {
+        Set<String> endpoints = owners.stream()
+            .map(KeyFilterLeases::endpointOf)
+            .collect(Collectors.toUnmodifiableSet());
+
+        filters.keySet().retainAll(endpoints);
+    }
+
+    public void remove(BasicChordNode owner) {
+        filters.remove(KeyFilterLeases.endpointOf(owner));
+    }
+
+    private static class HeldKeyFilter {
+
+        /**
+         * null until the first filter of the owner arrives
+         */
+        private final KeyFilter filter;
+        private final long wholeSentAtNanos;
+        private final long trustedUntilNanos;
+        private final List<PushedKeys> pushedKeys;
+
+        private HeldKeyFilter(KeyFilter filter, long wholeSentAtNanos, long trustedUntilNanos, List<PushedKeys> pushedKeys) {
+            this.filter = filter;
+            this.wholeSentAtNanos = wholeSentAtNanos;
+            this.trustedUntilNanos = trustedUntilNanos;
+            this.pushedKeys = pushedKeys;
+        }
+
+        /**
+         * keys pushed before the filter was asked for are already in it
+         */
+        private List<PushedKeys> pushedSince(long askedAtNanos) {
+            return pushedKeys.stream()
+                .filter(pushed -> pushed.receivedAtNanos - askedAtNanos >= 0L)
+                .collect(Collectors.toUnmodifiableList());
+        }
+    }
+
+    private static class PushedKeys {
+
+        private final long receivedAtNanos;
+        private final List<Long> keys;
+
+        private PushedKeys(long receivedAtNanos, List<Long> keys) {
+            this.receivedAtNanos = receivedAtNanos;
+            this.keys = keys;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package org.gty.chord.core;
+
+import org.gty.chord.model.BasicChordNode;
+import org.gty.chord.model.OwnershipHint;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * samples the lookups a node answers to find hot ids and hot id ranges.
+ *
+ * every answered lookup is counted in two count-min sketches, one per id and one
+ * per range bucket. once an id or bucket crosses its threshold within the current
+ * window, the tracker also remembers which nodes forwarded the lookups, so the
+ * owner can be hinted to the busiest of them at the end of the window.
+ */
+public class HotKeyTracker {
+
+    private static final int SKETCH_DEPTH = 4;
+    private static final int SKETCH_WIDTH = 2_048;
+
+    private static final long HOT_KEY_THRESHOLD = 64L;
+    private static final long HOT_RANGE_THRESHOLD = 512L;
+    private static final int RANGE_BUCKET_BITS = 8;
+    private static final int MAX_HOT_ITEMS = 1_024;
+    private static final int HINT_FANOUT = 2;
+
+    private final long ringSize;
+    private final int rangeBucketShift;
+
+    private final CountMinSketch keySketch;
+    private final CountMinSketch rangeSketch;
+    private final ConcurrentMap<Long, HotItem> hotKeys;
+    private final ConcurrentMap<Long, HotItem> hotRanges;
+
+    public HotKeyTracker(int ringSizeBits) {
+        ringSize = 1L << ringSizeBits;
+        rangeBucketShift = Math.max(0, ringSizeBits - RANGE_BUCKET_BITS);
+
+        keySketch = new CountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH);
+        rangeSketch = new CountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH);
+        hotKeys = new ConcurrentHashMap<>();
+        hotRanges = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * records a lookup of id answered with owner, which owns (ownerFrom, ownerTo]
+     * as far as this node knows
+     *
+     * @param forwarder node the lookup came from, null when it came from a client
+     */
+    public void record(long id, BasicChordNode owner, long ownerFrom, long ownerTo, BasicChordNode forwarder) {
+        if (keySketch.add(id) >= HOT_KEY_THRESHOLD) {
+            track(hotKeys, id, id - 1L, id, owner, forwarder);
+        }
+
+        long bucket = id >> rangeBucketShift;
+        if (rangeSketch.add(bucket) >= HOT_RANGE_THRESHOLD) {
+            long bucketLow = bucket << rangeBucketShift;
+            long bucketHigh = Math.min(ringSize - 1L, bucketLow + (1L << rangeBucketShift) - 1L);
+
+            // the hinted range is the part of the bucket this owner is known to own around id
+            long from;
+            long to;
+            if (ownerFrom < ownerTo || id > ownerFrom) {
+                from = Math.max(ownerFrom, bucketLow - 1L);
+                to = ownerFrom < ownerTo ? Math.min(ownerTo, bucketHigh) : bucketHigh;
+            } else {
+                from = bucketLow - 1L;
+                to = Math.min(ownerTo, bucketHigh);
+            }
+
+            track(hotRanges, bucket, from, to, owner, forwarder);
+        }
+    }
+
+    private void track(ConcurrentMap<Long, HotItem> hotItems,
+                       long item,
+                       long from,
+                       long to,
+                       BasicChordNode owner,
+                       BasicChordNode forwarder) {
+        if (forwarder == null || from >= to) {
+            return;
+        }
+
+        HotItem hotItem = hotItems.get(item);
+        if (hotItem == null) {
+            if (hotItems.size() >= MAX_HOT_ITEMS) {
+                return;
+            }
+            hotItem = hotItems.computeIfAbsent(item, key -> new HotItem());
+        }
+
+        hotItem.update(from, to, owner);
+        hotItem.countForwarder(forwarder);
+    }
+
+    /**
+     * ends the current window: hints for every hot item, addressed to the nodes
+     * that forwarded most lookups for it, and ages the sketches
+     *
+     * @param ttlMillis how long the hints stay valid
+     * @return hints grouped by the forwarder they go to
+     */
+    public List<HintPush> drainHints(long ttlMillis) {
+        Map<String, HintPush> pushes = new HashMap<>();
+
+        for (ConcurrentMap<Long, HotItem> hotItems : List.of(hotKeys, hotRanges)) {
+            hotItems.values().forEach(hotItem -> {
+                OwnershipHint hint = new OwnershipHint(hotItem.from, hotItem.to, hotItem.owner, ttlMillis);
+
+                hotItem.forwarders.values().stream()
+                    .sorted(Comparator.comparingLong((ForwarderCount forwarder) -> forwarder.count.sum()).reversed())
+                    .limit(HINT_FANOUT)
+                    .forEach(forwarder -> pushes
+                        .computeIfAbsent(endpointOf(forwarder.node), endpoint -> new HintPush(forwarder.node))
+                        .hints.add(hint));
+            });
+
+            hotItems.clear();
+        }
+
+        keySketch.halve();
+        rangeSketch.halve();
+
+        return List.copyOf(pushes.values());
+    }
+
+    private static String endpointOf(BasicChordNode node) {
+        return node.getNodeAddress() + ":" + node.getNodePort();
+    }
+
+    public static class HintPush {
+
+        private final BasicChordNode forwarder;
+        private final List<OwnershipHint> hints;
+
+        private HintPush(BasicChordNode forwarder) {
+            this.forwarder = forwarder;
+            this.hints = new ArrayList<>();
+        }
+
+        public BasicChordNode getForwarder() {
+            return forwarder;
+        }
+
+        public List<OwnershipHint> getHints() {
+            return hints;
+        }
+    }
+
+    private static class HotItem {
+
+        private volatile long from;
+        private volatile long to;
+        private volatile BasicChordNode owner;
+        private final ConcurrentMap<String, ForwarderCount> forwarders = new ConcurrentHashMap<>();
+
+        private void update(long from, long to, BasicChordNode owner) {
+            this.from = from;
+            this.to = to;
+            this.owner = owner;
+        }
+
+        private void countForwarder(BasicChordNode forwarder) {
+            forwarders.computeIfAbsent(endpointOf(forwarder), endpoint -> new ForwarderCount(forwarder))
+                .count.increment();
+        }
+    }
+
+    private static class ForwarderCount {
+
+        private final BasicChordNode node;
+        private final LongAdder count = new LongAdder();
+
+        private ForwarderCount(BasicChordNode node) {
+            this.node = node;
+        }
+    }
+}
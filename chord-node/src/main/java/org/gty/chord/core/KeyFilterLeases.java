@@ -0,0 +1,77 @@
+package org.gty.chord.core;
+
+import org.gty.chord.model.BasicChordNode;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * the nodes this node has sent its key filter to, each with a lease on it. a holder
+ * answers misses from the filter only while its lease lasts, see {@link HeldKeyFilters},
+ * so the keys added here are pushed to every holder whose lease still runs before the
+ * add is acknowledged. an added key is then never reported missing from an old filter.
+ *
+ * the lease is granted before the filter is taken, and counted from then. the holder
+ * counts its own from when it asked, so it always stops trusting the filter first.
+ */
+public class KeyFilterLeases {
+
+    /**
+     * a few stabilize rounds, so a holder that misses one keeps its lease
+     */
+    public static final long LEASE_NANOS = TimeUnit.MILLISECONDS.toNanos(3_000L);
+
+    private final ConcurrentMap<String, Lease> leases;
+
+    public KeyFilterLeases() {
+        leases = new ConcurrentHashMap<>();
+    }
+
+    public void grant(BasicChordNode holder) {
+        leases.put(endpointOf(holder), new Lease(holder, System.nanoTime() + LEASE_NANOS));
+    }
+
+    /**
+     * @return holders whose lease still runs
+     */
+    public List<BasicChordNode> holders() {
+        long now = System.nanoTime();
+        leases.values().removeIf(lease -> lease.isExpired(now));
+
+        return leases.values().stream()
+            .map(lease -> lease.holder)
+            .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * ends the lease of a holder the added keys could not be pushed to
+     *
+     * @return nanoseconds until the holder stops trusting its filter on its own
+     */
+    public long revoke(BasicChordNode holder) {
+        Lease lease = leases.remove(endpointOf(holder));
+        return lease == null ? 0L : Math.max(0L, lease.expiresAtNanos - System.nanoTime());
+    }
+
+    static String endpointOf(BasicChordNode node) {
+        return node.getNodeAddress() + ":" + node.getNodePort();
+    }
+
+    private static class Lease {
+
+        private final BasicChordNode holder;
+        private final long expiresAtNanos;
+
+        private Lease(BasicChordNode holder, long expiresAtNanos) {
+            this.holder = holder;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0L;
+        }
+    }
+}
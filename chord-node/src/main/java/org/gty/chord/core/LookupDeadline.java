@@ -0,0 +1,59 @@
+package org.gty.chord.core;
+
+import org.gty.chord.exception.ChordDeadlineExceededException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * point in time after which nobody waits for the answer of a lookup anymore.
+ *
+ * it travels from hop to hop as the budget left in milliseconds rather than as a
+ * timestamp, so the clocks of the nodes do not have to agree. every hop checks it
+ * before forwarding and gives up with 504 once it has passed, which unwinds the
+ * rest of the chain instead of letting it finish work nobody will read.
+ */
+public final class LookupDeadline {
+
+    /**
+     * budget of lookups whose caller did not give one
+     */
+    public static final long DEFAULT_TIMEOUT_MILLIS = 10_000L;
+
+    private final long deadlineNanos;
+
+    private LookupDeadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static LookupDeadline afterMillis(long timeoutMillis) {
+        return new LookupDeadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+    }
+
+    /**
+     * @param timeoutMillis budget sent along with a request, null when there was none
+     */
+    public static LookupDeadline fromTimeoutMillis(Long timeoutMillis) {
+        return afterMillis(timeoutMillis == null ? DEFAULT_TIMEOUT_MILLIS : timeoutMillis);
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0L;
+    }
+
+    public long remainingMillis() {
+        return Math.max(0L, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * called before every hop. a lookup whose thread was interrupted is abandoned
+     * the same way as an expired one.
+     */
+    public void check(long id) {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new ChordDeadlineExceededException("Lookup of id: " + id + " was cancelled");
+        }
+        if (isExpired()) {
+            throw new ChordDeadlineExceededException("Lookup of id: " + id + " has run past its deadline");
+        }
+    }
+}
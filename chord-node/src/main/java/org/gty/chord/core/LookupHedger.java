@@ -0,0 +1,164 @@
+package org.gty.chord.core;
+
+import org.gty.chord.model.BasicChordNode;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * hedges forwarded lookups against slow next hops.
+ *
+ * a lookup that has not been answered within the recent 95th percentile latency is
+ * sent a second time through an alternative next hop. whichever answers first wins,
+ * the other request is cancelled. every lookup earns a fraction of a hedge, so at
+ * most about one lookup in {@value #LOOKUPS_PER_HEDGE} is ever hedged.
+ *
+ * the requests are asynchronous, so neither holds a thread of its own while it runs,
+ * and cancelling the losing one abandons its exchange instead of waiting it out.
+ */
+public class LookupHedger {
+
+    private static final int LATENCY_WINDOW = 256;
+    private static final int MIN_LATENCY_SAMPLES = 32;
+    private static final int BUDGET_REFRESH_SAMPLES = 32;
+    private static final double HEDGE_PERCENTILE = 0.95;
+
+    private static final long LOOKUPS_PER_HEDGE = 10L;
+    private static final long MAX_HEDGE_CREDITS = 10L * LOOKUPS_PER_HEDGE;
+
+    private final AtomicLongArray latencies;
+    private final AtomicLong latencySamples;
+    private volatile long budgetNanos;
+
+    private final AtomicLong hedgeCredits;
+    private final LongAdder hedges;
+
+    public LookupHedger() {
+        latencies = new AtomicLongArray(LATENCY_WINDOW);
+        latencySamples = new AtomicLong(0L);
+        budgetNanos = -1L;
+
+        hedgeCredits = new AtomicLong(0L);
+        hedges = new LongAdder();
+    }
+
+    /**
+     * @param primary next hop to ask first
+     * @param alternative next hop to hedge through, may answer null when there is none
+     * @param request the asynchronous remote call to make through a next hop, cancelling it abandons the call
+     */
+    public <T> T call(BasicChordNode primary, Supplier<BasicChordNode> alternative, Function<BasicChordNode, CompletableFuture<T>> request) {
+        hedgeCredits.getAndUpdate(credits -> Math.min(MAX_HEDGE_CREDITS, credits + 1L));
+
+        long start = System.nanoTime();
+        long budget = budgetNanos;
+
+        CompletableFuture<T> first = request.apply(primary);
+        CompletableFuture<T> second = null;
+
+        try {
+            if (budget < 0L) {
+                // too few samples yet to know what slow means
+                return first.get();
+            }
+
+            try {
+                return first.get(budget, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException ex) {
+                BasicChordNode alternativeNode = alternative.get();
+
+                if (alternativeNode == null || !tryTakeHedgeCredits()) {
+                    return first.get();
+                }
+                hedges.increment();
+                second = request.apply(alternativeNode);
+            }
+
+            return firstAnswer(first, second).get();
+        } catch (ExecutionException ex) {
+            throw propagate(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for a lookup", ex);
+        } finally {
+            recordLatency(System.nanoTime() - start);
+
+            first.cancel(true);
+            if (second != null) {
+                second.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * @return completes with the first of the two to answer, or fails once both have failed
+     */
+    private static <T> CompletableFuture<T> firstAnswer(CompletableFuture<T> first, CompletableFuture<T> second) {
+        CompletableFuture<T> answer = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger(0);
+
+        // a route that fails leaves the answer to the other one
+        for (CompletableFuture<T> route : List.of(first, second)) {
+            route.whenComplete((result, ex) -> {
+                if (ex == null) {
+                    answer.complete(result);
+                } else if (failures.incrementAndGet() == 2) {
+                    answer.completeExceptionally(ex);
+                }
+            });
+        }
+        return answer;
+    }
+
+    public long getHedgeCount() {
+        return hedges.sum();
+    }
+
+    private boolean tryTakeHedgeCredits() {
+        long credits;
+        do {
+            credits = hedgeCredits.get();
+            if (credits < LOOKUPS_PER_HEDGE) {
+                return false;
+            }
+        } while (!hedgeCredits.compareAndSet(credits, credits - LOOKUPS_PER_HEDGE));
+
+        return true;
+    }
+
+    private void recordLatency(long nanos) {
+        long sample = latencySamples.getAndIncrement();
+        latencies.set((int) (sample % LATENCY_WINDOW), nanos);
+
+        if (sample + 1 >= MIN_LATENCY_SAMPLES && (sample + 1) % BUDGET_REFRESH_SAMPLES == 0) {
+            int size = (int) Math.min(sample + 1, LATENCY_WINDOW);
+            long[] window = new long[size];
+            for (int i = 0; i < size; ++i) {
+                window[i] = latencies.get(i);
+            }
+            Arrays.sort(window);
+
+            budgetNanos = window[(int) Math.min(size - 1, Math.round(HEDGE_PERCENTILE * (size - 1)))];
+        }
+    }
+
+    private static RuntimeException propagate(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+}
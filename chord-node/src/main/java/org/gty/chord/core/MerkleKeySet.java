@@ -0,0 +1,249 @@
+package org.gty.chord.core;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * key set that keeps a merkle tree over the identifier ring up to date on every change.
+ *
+ * the tree has a fixed shape: a complete binary tree stored heap-style, root at index 1,
+ * whose leaves split the ring into equally wide buckets. the hash of a tree node is the
+ * xor of the hashes of all keys under it, so adding or removing a key only flips the
+ * hashes on the path from its leaf to the root.
+ *
+ * hashes can be asked for restricted to a ring range (from, to]. tree nodes entirely
+ * inside the range answer from the tree, only the two boundary paths are recomputed.
+ *
+ * below the leaves the tree goes on, halving the buckets down to single ids, but it
+ * is not stored: those tree nodes are hashed from their keys when asked for. a leaf
+ * of a large store holds thousands of keys, so a difference is narrowed down through
+ * them until at most {@value #LEAF_KEY_COUNT} keys are left to exchange.
+ */
+public class MerkleKeySet extends AbstractSet<Long> implements ChordKeyStore {
+
+    private static final int MAX_LEAF_BITS = 12;
+    private static final int LEAF_KEY_COUNT = 64;
+    // deepest level an int tree node index can reach
+    private static final int MAX_LEVEL = 30;
+    private static final HashFunction KEY_HASH = Hashing.murmur3_128();
+
+    private final NavigableSet<Long> keys;
+    private final AtomicInteger size;
+
+    private final long ringSize;
+    private final int leafBits;
+    private final int leafCount;
+    private final int maxLevel;
+    private final AtomicLongArray hashes;
+
+    public MerkleKeySet(int ringSizeBits) {
+        keys = new ConcurrentSkipListSet<>();
+        size = new AtomicInteger(0);
+
+        ringSize = 1L << ringSizeBits;
+        leafBits = Math.min(ringSizeBits, MAX_LEAF_BITS);
+        leafCount = 1 << leafBits;
+        maxLevel = Math.min(ringSizeBits, MAX_LEVEL);
+        hashes = new AtomicLongArray(2 * leafCount);
+    }
+
+    @Override
+    public boolean add(Long key) {
+        if (keys.add(key)) {
+            size.incrementAndGet();
+            flip(key);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean remove(Object key) {
+        if (keys.remove(key)) {
+            size.decrementAndGet();
+            flip((Long) key);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        return keys.contains(key);
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+        Iterator<Long> delegate = keys.iterator();
+
+        return new Iterator<>() {
+            private Long current;
+
+            @Override
+            public boolean hasNext() {
+                return delegate.hasNext();
+            }
+
+            @Override
+            public Long next() {
+                current = delegate.next();
+                return current;
+            }
+
+            @Override
+            public void remove() {
+                MerkleKeySet.this.remove(current);
+            }
+        };
+    }
+
+    @Override
+    public void retainRange(long from, long to) {
+        keys.stream()
+            .filter(key -> !inRange(key, from, to))
+            .forEach(this::remove);
+    }
+
+    @Override
+    public List<Long> keysInRange(long from, long to, int limit) {
+        Stream<Long> ordered = from < to
+            ? keys.subSet(from, false, to, true).stream()
+            : Stream.concat(keys.tailSet(from, false).stream(), keys.headSet(to, true).stream());
+
+        return ordered.limit(limit).collect(Collectors.toUnmodifiableList());
+    }
+
+    @Override
+    public List<Long> keysInRangeDescending(long from, long to, int limit) {
+        Stream<Long> ordered = from < to
+            ? keys.subSet(from, false, to, true).descendingSet().stream()
+            : Stream.concat(keys.headSet(to, true).descendingSet().stream(),
+                keys.tailSet(from, false).descendingSet().stream());
+
+        return ordered.limit(limit).collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * stored tree nodes above the leaves are always descended into, from the leaves on
+     * a tree node is a leaf once it holds few enough keys of the range
+     */
+    @Override
+    public boolean isLeaf(int index, long from, long to) {
+        if (index < leafCount) {
+            return false;
+        }
+        if (levelOf(index) >= maxLevel) {
+            return true;
+        }
+
+        return keys.subSet(lowestIdOf(index), true, highestIdOf(index), true).stream()
+            .filter(key -> inRange(key, from, to))
+            .limit(LEAF_KEY_COUNT + 1L)
+            .count() <= LEAF_KEY_COUNT;
+    }
+
+    @Override
+    public long rangeHash(int index, long from, long to) {
+        long lo = lowestIdOf(index);
+        long hi = highestIdOf(index);
+
+        if (isDisjoint(lo, hi, from, to)) {
+            return 0L;
+        }
+        if (index < hashes.length() && isContained(lo, hi, from, to)) {
+            return hashes.get(index);
+        }
+        if (index >= leafCount) {
+            // a leaf or below it, hashed from the keys
+            return keys.subSet(lo, true, hi, true).stream()
+                .filter(key -> inRange(key, from, to))
+                .mapToLong(MerkleKeySet::hashOf)
+                .reduce(0L, (a, b) -> a ^ b);
+        }
+
+        return rangeHash(2 * index, from, to) ^ rangeHash(2 * index + 1, from, to);
+    }
+
+    @Override
+    public List<Long> leafKeys(int index, long from, long to) {
+        return keys.subSet(lowestIdOf(index), true, highestIdOf(index), true).stream()
+            .filter(key -> inRange(key, from, to))
+            .collect(Collectors.toUnmodifiableList());
+    }
+
+    private void flip(long key) {
+        long keyHash = hashOf(key);
+
+        for (int index = leafIndexOf(key); index >= ROOT; index /= 2) {
+            hashes.accumulateAndGet(index, keyHash, (a, b) -> a ^ b);
+        }
+    }
+
+    private int leafIndexOf(long key) {
+        long bucketWidth = ringSize >> leafBits;
+        return leafCount + (int) (Math.floorMod(key, ringSize) / bucketWidth);
+    }
+
+    private static int levelOf(int index) {
+        return 31 - Integer.numberOfLeadingZeros(index);
+    }
+
+    private long lowestIdOf(int index) {
+        int level = levelOf(index);
+        long width = ringSize >> level;
+        return (index - (1L << level)) * width;
+    }
+
+    private long highestIdOf(int index) {
+        int level = levelOf(index);
+        long width = ringSize >> level;
+        return lowestIdOf(index) + width - 1L;
+    }
+
+    private static long hashOf(long key) {
+        return KEY_HASH.hashLong(key).asLong();
+    }
+
+    private static boolean inRange(long id, long from, long to) {
+        if (from < to) {
+            return id > from && id <= to;
+        } else {
+            return id > from || id <= to;
+        }
+    }
+
+    private static boolean isContained(long lo, long hi, long from, long to) {
+        if (from < to) {
+            return lo > from && hi <= to;
+        } else if (from == to) {
+            return true;
+        } else {
+            return lo > from || hi <= to;
+        }
+    }
+
+    private static boolean isDisjoint(long lo, long hi, long from, long to) {
+        if (from < to) {
+            return hi <= from || lo > to;
+        } else if (from == to) {
+            return false;
+        } else {
+            return lo > to && hi <= from;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.gty.chord.core;
+
+import org.gty.chord.model.OwnershipHint;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * short-lived hints about who owns a hot id range, pushed by nodes further down
+ * the lookup path, so lookups for hot ids can be answered before reaching them.
+ */
+public class OwnershipHintCache {
+
+    private static final int MAX_HINTS = 10_000;
+
+    private final ConcurrentNavigableMap<Long, CachedHint> hintsByRangeEnd;
+
+    public OwnershipHintCache() {
+        hintsByRangeEnd = new ConcurrentSkipListMap<>();
+    }
+
+    public void put(OwnershipHint hint) {
+        if (hint.getFrom() >= hint.getTo() || hintsByRangeEnd.size() >= MAX_HINTS) {
+            return;
+        }
+
+        hintsByRangeEnd.put(hint.getTo(), new CachedHint(hint, System.nanoTime() + hint.getTtlMillis() * 1_000_000L));
+    }
+
+    /**
+     * @return a live hint whose range contains id, or null
+     */
+    public OwnershipHint lookup(long id) {
+        Map.Entry<Long, CachedHint> entry = hintsByRangeEnd.ceilingEntry(id);
+
+        if (entry == null) {
+            return null;
+        }
+
+        CachedHint cached = entry.getValue();
+        if (cached.isExpired(System.nanoTime())) {
+            hintsByRangeEnd.remove(entry.getKey(), cached);
+            return null;
+        }
+
+        return cached.hint.getFrom() < id ? cached.remaining() : null;
+    }
+
+    public void evictExpired() {
+        long now = System.nanoTime();
+        hintsByRangeEnd.values().removeIf(cached -> cached.isExpired(now));
+    }
+
+    private static class CachedHint {
+
+        private final OwnershipHint hint;
+        private final long expiresAtNanos;
+
+        private CachedHint(OwnershipHint hint, long expiresAtNanos) {
+            this.hint = hint;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+
+        private OwnershipHint remaining() {
+            long ttlMillis = Math.max(0L, (expiresAtNanos - System.nanoTime()) / 1_000_000L);
+            return new OwnershipHint(hint.getFrom(), hint.getTo(), hint.getOwner(), ttlMillis);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.gty.chord.core;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * coalesces concurrent calls sharing the same key into one execution.
+ *
+ * the first caller of a key runs the call on its own thread, every caller
+ * arriving while it is in flight waits for and shares the same result (or exception).
+ * a waiter that is not answered within the wait limit runs the call itself,
+ * so a lookup that cycles back to the node it started from can not deadlock.
+ *
+ * @param <K> key identifying identical calls
+ * @param <V> result of the call
+ */
+public class SingleFlight<K, V> {
+
+    private static final long DEFAULT_WAIT_LIMIT_MILLIS = 5_000L;
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight;
+    private final long waitLimitMillis;
+
+    public SingleFlight() {
+        this(DEFAULT_WAIT_LIMIT_MILLIS);
+    }
+
+    public SingleFlight(long waitLimitMillis) {
+        this.waitLimitMillis = waitLimitMillis;
+
+        inFlight = new ConcurrentHashMap<>();
+    }
+
+    public V execute(K key, Supplier<V> call) {
+        return execute(key, call, waitLimitMillis);
+    }
+
+    /**
+     * @param maxWaitMillis upper bound on the wait limit for this caller, e.g. the time left until its deadline
+     */
+    public V execute(K key, Supplier<V> call, long maxWaitMillis) {
+        CompletableFuture<V> leader = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, leader);
+
+        if (existing != null) {
+            return await(existing, call, Math.min(waitLimitMillis, maxWaitMillis));
+        }
+
+        try {
+            V value = call.get();
+            leader.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            leader.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, leader);
+        }
+    }
+
+    private V await(CompletableFuture<V> existing, Supplier<V> call, long waitMillis) {
+        try {
+            return existing.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException ex) {
+            return call.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for an in-flight call", ex);
+        }
+    }
+}
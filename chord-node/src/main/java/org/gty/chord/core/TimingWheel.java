@@ -0,0 +1,166 @@
+package org.gty.chord.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * hierarchical timing wheel keeping the expiration times of keys.
+ *
+ * every level is a ring of {@value #WHEEL_SIZE} slots, a slot of level i spans
+ * {@value #WHEEL_SIZE}^i ticks. a key goes into the lowest level whose current
+ * rotation still covers its expiration time. whenever the clock enters the span of
+ * a slot on a higher level, the keys in it move down to where they belong. so a key
+ * moves at most once per level, and a tick only touches the keys that expire in it,
+ * or that move down, instead of scanning all keys.
+ *
+ * rescheduled and cancelled keys are not searched for in the slots. their old
+ * entries stay behind and are dropped when their slot comes up, because they no
+ * longer match the expiration the key has now.
+ */
+public class TimingWheel {
+
+    private static final int WHEEL_SIZE = 64;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final List<List<Deque<Entry>>> levels;
+    private final Map<Long, Long> expirations;
+
+    private long currentTick;
+
+    public TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+
+        levels = new ArrayList<>(LEVELS);
+        for (int level = 0; level < LEVELS; ++level) {
+            List<Deque<Entry>> slots = new ArrayList<>(WHEEL_SIZE);
+            for (int slot = 0; slot < WHEEL_SIZE; ++slot) {
+                slots.add(new ArrayDeque<>());
+            }
+            levels.add(slots);
+        }
+        expirations = new HashMap<>();
+
+        currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * (re)schedules key to expire at the given time, rounded up to the next tick
+     */
+    public synchronized void schedule(long key, long expiresAtMillis) {
+        long expiresAtTick = Math.max(currentTick + 1L, (expiresAtMillis + tickMillis - 1L) / tickMillis);
+
+        expirations.put(key, expiresAtTick);
+        place(new Entry(key, expiresAtTick));
+    }
+
+    public synchronized void cancel(long key) {
+        expirations.remove(key);
+    }
+
+    /**
+     * @return expiration time of key, null if it does not expire
+     */
+    public synchronized Long expiresAt(long key) {
+        Long expiresAtTick = expirations.get(key);
+        return expiresAtTick == null ? null : expiresAtTick * tickMillis;
+    }
+
+    public synchronized int size() {
+        return expirations.size();
+    }
+
+    /**
+     * moves the clock forward tick by tick up to now
+     *
+     * @return keys that expired on the way
+     */
+    public synchronized List<Long> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<Long> expired = new ArrayList<>();
+
+        if (expirations.isEmpty()) {
+            // nothing can expire, the slots only hold stale entries
+            currentTick = Math.max(currentTick, targetTick);
+            return expired;
+        }
+
+        while (currentTick < targetTick) {
+            ++currentTick;
+
+            // coarse levels first, their keys may move down into the slot fired below
+            for (int level = LEVELS - 1; level > 0; --level) {
+                long span = spanOf(level);
+                if (currentTick % span == 0L) {
+                    cascade(slotOf(level, currentTick / span), expired);
+                }
+            }
+
+            cascade(slotOf(0, currentTick), expired);
+        }
+
+        return expired;
+    }
+
+    private void cascade(Deque<Entry> slot, List<Long> expired) {
+        Entry entry;
+        while ((entry = slot.pollFirst()) != null) {
+            Long expiresAtTick = expirations.get(entry.key);
+
+            if (expiresAtTick == null || expiresAtTick != entry.expiresAtTick) {
+                // cancelled or rescheduled since
+                continue;
+            }
+
+            if (entry.expiresAtTick <= currentTick) {
+                expirations.remove(entry.key);
+                expired.add(entry.key);
+            } else {
+                place(entry);
+            }
+        }
+    }
+
+    private void place(Entry entry) {
+        for (int level = 0; level < LEVELS; ++level) {
+            long span = spanOf(level);
+            long slotsAhead = entry.expiresAtTick / span - currentTick / span;
+
+            if (slotsAhead < WHEEL_SIZE) {
+                slotOf(level, entry.expiresAtTick / span).addLast(entry);
+                return;
+            }
+        }
+
+        // beyond the last level, park in the top slot that comes up last, it is placed again from there
+        long topSpan = spanOf(LEVELS - 1);
+        slotOf(LEVELS - 1, currentTick / topSpan + WHEEL_SIZE - 1L).addLast(entry);
+    }
+
+    private Deque<Entry> slotOf(int level, long slotNumber) {
+        return levels.get(level).get((int) Math.floorMod(slotNumber, (long) WHEEL_SIZE));
+    }
+
+    private static long spanOf(int level) {
+        long span = 1L;
+        for (int i = 0; i < level; ++i) {
+            span *= WHEEL_SIZE;
+        }
+        return span;
+    }
+
+    private static class Entry {
+
+        private final long key;
+        private final long expiresAtTick;
+
+        private Entry(long key, long expiresAtTick) {
+            this.key = key;
+            this.expiresAtTick = expiresAtTick;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.gty.chord.core;
+
+import org.gty.chord.model.TrafficStats;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * counts the traffic a node handles, per range of ids and per finger.
+ *
+ * the ring is cut into at most {@value #MAX_BUCKETS} buckets of equal width. for each
+ * bucket it counts the lookups answered here, the lookups forwarded to another node
+ * and the keys assigned here. forwarded lookups are also counted per finger they went
+ * through. counters are striped, so recording costs about as much as an uncontended
+ * increment even when every request thread records at once. they only ever grow, a
+ * reader gets rates from the difference of two snapshots.
+ */
+public class TrafficCounters {
+
+    private static final int BUCKET_BITS = 6;
+    private static final int MAX_BUCKETS = 1 << BUCKET_BITS;
+
+    private final int bucketShift;
+    private final long startedAtMillis;
+
+    private final LongAdder[] served;
+    private final LongAdder[] forwarded;
+    private final LongAdder[] assigned;
+    private final LongAdder[] fingerForwarded;
+
+    public TrafficCounters(int ringSizeBits, int fingerCount) {
+        int bucketBits = Math.min(BUCKET_BITS, ringSizeBits);
+        bucketShift = ringSizeBits - bucketBits;
+        startedAtMillis = System.currentTimeMillis();
+
+        served = newCounters(1 << bucketBits);
+        forwarded = newCounters(1 << bucketBits);
+        assigned = newCounters(1 << bucketBits);
+        fingerForwarded = newCounters(fingerCount);
+    }
+
+    public void recordServed(long id) {
+        served[bucketOf(id)].increment();
+    }
+
+    /**
+     * @param fingerIndex finger the lookup went through, -1 when the next hop is no finger of the global ring
+     */
+    public void recordForwarded(long id, int fingerIndex) {
+        forwarded[bucketOf(id)].increment();
+
+        if (fingerIndex >= 0 && fingerIndex < fingerForwarded.length) {
+            fingerForwarded[fingerIndex].increment();
+        }
+    }
+
+    public void recordAssigned(long key) {
+        assigned[bucketOf(key)].increment();
+    }
+
+    public TrafficStats snapshot(long nodeId) {
+        return new TrafficStats(nodeId,
+            1L << bucketShift,
+            startedAtMillis,
+            sums(served),
+            sums(forwarded),
+            sums(assigned),
+            sums(fingerForwarded));
+    }
+
+    private int bucketOf(long id) {
+        return (int) (id >>> bucketShift) & (served.length - 1);
+    }
+
+    private static LongAdder[] newCounters(int size) {
+        LongAdder[] counters = new LongAdder[size];
+        Arrays.setAll(counters, i -> new LongAdder());
+        return counters;
+    }
+
+    private static List<Long> sums(LongAdder[] counters) {
+        return Arrays.stream(counters)
+            .map(LongAdder::sum)
+            .collect(Collectors.toUnmodifiableList());
+    }
+}
@@ -0,0 +1,139 @@
+package org.gty.chord.core;
+
+import org.gty.chord.model.BasicChordNode;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * the local ring of a node: the nodes of its own zone, on the same identifier
+ * circle as the global ring. it has its own finger table, whose fingers only
+ * point to nodes of the zone, so lookups can be routed without leaving the zone.
+ *
+ * it also keeps the gap: all nodes of the global ring from the node's global
+ * successor up to and including its zone successor. ids in (n, zone successor]
+ * belong to one of them, so the last node of the zone before an id knows the
+ * id's owner without asking any node of another zone.
+ */
+public class ZoneRing {
+
+    private final String zone;
+    private final long fingerRingSize;
+    private final int fingerCount;
+
+    private final AtomicReferenceArray<BasicChordNode> fingers;
+    private final AtomicInteger fixFingerNext;
+    private final AtomicReference<List<BasicChordNode>> gap;
+
+    /**
+     * @param fingerCount size of the finger table of the global ring, zone finger i starts where finger i does
+     */
+    public ZoneRing(String zone, int fingerRingSizeBits, int fingerCount) {
+        this.zone = zone;
+        this.fingerCount = fingerCount;
+        fingerRingSize = 1L << fingerRingSizeBits;
+
+        fingers = new AtomicReferenceArray<>(fingerCount);
+        fixFingerNext = new AtomicInteger(0);
+        gap = new AtomicReference<>(List.of());
+    }
+
+    public String getZone() {
+        return zone;
+    }
+
+    public boolean isLocal(BasicChordNode node) {
+        return node != null && Objects.equals(zone, node.getZone());
+    }
+
+    /**
+     * @return nodes from the global successor to the zone successor, empty until the first zone stabilization
+     */
+    public List<BasicChordNode> getGap() {
+        return gap.get();
+    }
+
+    public void setGap(List<BasicChordNode> nodes) {
+        gap.set(List.copyOf(nodes));
+    }
+
+    public BasicChordNode getZoneSuccessor() {
+        List<BasicChordNode> nodes = gap.get();
+        return nodes.isEmpty() ? null : nodes.get(nodes.size() - 1);
+    }
+
+    public void setFinger(int index, BasicChordNode node) {
+        fingers.set(index, node);
+    }
+
+    /**
+     * @return index of the zone finger to fix next, going round the table
+     */
+    public int nextFingerToFix() {
+        return fixFingerNext.getAndUpdate(i -> (i + 1) % fingerCount);
+    }
+
+    /**
+     * owner of id, as far as the gap tells
+     *
+     * @param id identifier to be found
+     * @param nodeId id of the node this ring belongs to
+     * @return successor of id, null when id is not in (n, zone successor]
+     */
+    public BasicChordNode ownerOf(long id, long nodeId) {
+        List<BasicChordNode> nodes = gap.get();
+        if (nodes.isEmpty() || !isInOpenClosedInterval(id, nodeId, nodes.get(nodes.size() - 1).getNodeId())) {
+            return null;
+        }
+
+        long from = nodeId;
+        for (BasicChordNode node : nodes) {
+            if (isInOpenClosedInterval(id, from, node.getNodeId())) {
+                return node;
+            }
+            from = node.getNodeId();
+        }
+        return null;
+    }
+
+    /**
+     * zone-local counterpart of closest-preceding-node
+     *
+     * @param id identifier to be found
+     * @param nodeId id of the node this ring belongs to
+     * @return the highest node of the zone in (n, id), null when none is known
+     */
+    public BasicChordNode closestPrecedingNode(long id, long nodeId) {
+        for (int i = fingerCount - 1; i >= 0; --i) {
+            BasicChordNode finger = fingers.get(i);
+
+            if (finger != null && isInOpenInterval(finger.getNodeId(), nodeId, id)) {
+                return finger;
+            }
+        }
+
+        BasicChordNode zoneSuccessor = getZoneSuccessor();
+        if (isLocal(zoneSuccessor) && isInOpenInterval(zoneSuccessor.getNodeId(), nodeId, id)) {
+            return zoneSuccessor;
+        }
+        return null;
+    }
+
+    private boolean isInOpenClosedInterval(long id, long from, long to) {
+        long distance = Math.floorMod(id - from, fingerRingSize);
+        long span = Math.floorMod(to - from, fingerRingSize);
+
+        // from == to stands for the whole ring
+        return span == 0L || (distance > 0L && distance <= span);
+    }
+
+    private boolean isInOpenInterval(long id, long from, long to) {
+        long distance = Math.floorMod(id - from, fingerRingSize);
+        long span = Math.floorMod(to - from, fingerRingSize);
+
+        return distance > 0L && (span == 0L || distance < span);
+    }
+}
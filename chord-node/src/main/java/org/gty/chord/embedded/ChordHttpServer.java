@@ -0,0 +1,369 @@
+package org.gty.chord.embedded;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.gty.chord.config.ChordMediaTypes;
+import org.gty.chord.core.AdmissionControl;
+import org.gty.chord.core.AdmissionControl.EndpointClass;
+import org.gty.chord.core.ChordNode;
+import org.gty.chord.core.LookupDeadline;
+import org.gty.chord.exception.ChordDeadlineExceededException;
+import org.gty.chord.exception.ChordNodeBusyException;
+import org.gty.chord.model.BasicChordNode;
+import org.gty.chord.model.KeyFilter;
+import org.gty.chord.model.MerkleRangeRequest;
+import org.gty.chord.model.NodeState;
+import org.gty.chord.model.OwnershipHint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * small http server exposing the same /api endpoints as the spring boot controller,
+ * on top of the http server shipped with the jdk. requests go through the same
+ * admission control, bodies are json or smile depending on the request headers.
+ */
+public class ChordHttpServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChordHttpServer.class);
+
+    private static final String API_PATH_PREFIX = "/api/";
+    private static final String JSON = "application/json";
+
+    private static final TypeReference<Set<Long>> KEY_SET = new TypeReference<>() {};
+    private static final TypeReference<Map<Long, Long>> KEY_TTLS = new TypeReference<>() {};
+    private static final TypeReference<List<OwnershipHint>> OWNERSHIP_HINTS = new TypeReference<>() {};
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper smileMapper;
+    private final Map<String, Route> routes;
+
+    private final ChordNode chordNode;
+    private final AdmissionControl admissionControl;
+
+    public ChordHttpServer(ChordNode chordNode,
+                           AdmissionControl admissionControl,
+                           Runnable onShutdown) throws IOException {
+        this.chordNode = chordNode;
+        this.admissionControl = admissionControl;
+
+        jsonMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        smileMapper = new ObjectMapper(new SmileFactory())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        routes = createRoutes(onShutdown);
+
+        executor = Executors.newFixedThreadPool(AdmissionControl.requiredServerThreads(), new ThreadFactoryBuilder()
+            .setNameFormat("chord-http-%d")
+            .setDaemon(true)
+            .build());
+        server = HttpServer.create(new InetSocketAddress(chordNode.getNodePort()), 0);
+        server.setExecutor(executor);
+        server.createContext(API_PATH_PREFIX, this::handle);
+    }
+
+    public void start() {
+        server.start();
+        logger.info("embedded chord http server listening on port {}", chordNode.getNodePort());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private Map<String, Route> createRoutes(Runnable onShutdown) {
+        Map<String, Route> routes = new HashMap<>();
+
+        routes.put("/api/get-basic-info", request -> chordNode.getBasicChordNode());
+        routes.put("/api/get-finger-table", request -> chordNode.getFingerTable());
+        routes.put("/api/node-state", this::nodeState);
+        routes.put("/api/find-successor", request -> {
+            long id = request.longParameter("id");
+            String forwarderAddress = request.parameter("forwarderAddress");
+            String forwarderPort = request.parameter("forwarderPort");
+            LookupDeadline deadline = request.deadline();
+
+            if (forwarderAddress == null || forwarderPort == null) {
+                return chordNode.findSuccessor(id, null, deadline);
+            }
+            return chordNode.findSuccessor(id, new BasicChordNode(null, forwarderAddress, Integer.valueOf(forwarderPort), 0L), deadline);
+        });
+        routes.put("/api/find-successors", request -> {
+            long[] ids = request.body(long[].class);
+            String forwarderAddress = request.parameter("forwarderAddress");
+            String forwarderPort = request.parameter("forwarderPort");
+            LookupDeadline deadline = request.deadline();
+
+            if (forwarderAddress == null || forwarderPort == null) {
+                return chordNode.findSuccessors(ids, null, deadline);
+            }
+            return chordNode.findSuccessors(ids, new BasicChordNode(null, forwarderAddress, Integer.valueOf(forwarderPort), 0L), deadline);
+        });
+        routes.put("/api/find-zone-successor", request -> chordNode.findZoneSuccessor(request.longParameter("id")));
+        routes.put("/api/get-predecessor", request -> chordNode.getPredecessor());
+        routes.put("/api/add-key", request -> chordNode.addKey(request.longParameter("key"),
+            request.optionalLongParameter("ttlMillis")));
+        routes.put("/api/assign-key", request -> chordNode.assignKey(request.longParameter("key"),
+            request.optionalLongParameter("ttlMillis")));
+        routes.put("/api/fetch-key-set", request -> chordNode.getKeySet());
+        routes.put("/api/remove-key-set", request -> {
+            chordNode.removeKeySet(request.collectionBody(KEY_SET));
+            return null;
+        });
+        routes.put("/api/assign-key-set", request -> {
+            chordNode.assignKeySet(request.collectionBody(KEY_SET));
+            return null;
+        });
+        routes.put("/api/assign-owned-key-set", request -> chordNode.assignOwnedKeySet(request.collectionBody(KEY_SET)));
+        routes.put("/api/fetch-key-range", request -> chordNode.getKeyRange(request.longParameter("from"),
+            request.longParameter("to"),
+            (int) request.longParameter("limit")));
+        routes.put("/api/fetch-key-ttls", request -> chordNode.getKeyTtls(request.longParameter("from"),
+            request.longParameter("to")));
+        routes.put("/api/assign-key-ttls", request -> {
+            chordNode.assignKeyTtls(request.collectionBody(KEY_TTLS));
+            return null;
+        });
+        routes.put("/api/scan-keys", request -> {
+            long from = request.longParameter("from");
+            Long origin = request.optionalLongParameter("origin");
+
+            return chordNode.scanKeys(origin == null ? from : origin,
+                from,
+                request.longParameter("to"),
+                (int) request.longParameter("limit"));
+        });
+        routes.put("/api/contains-key", request -> chordNode.containsKey(request.longParameter("key"),
+            Boolean.parseBoolean(request.parameter("owned")),
+            request.deadline()));
+        routes.put("/api/get-key-count", request -> chordNode.getKeyCount());
+        routes.put("/api/node-moved", request -> {
+            chordNode.onNodeMoved(request.body(BasicChordNode.class));
+            return null;
+        });
+        routes.put("/api/assign-replica-key-set", request -> {
+            chordNode.assignReplicaKeySet(request.collectionBody(KEY_SET));
+            return null;
+        });
+        routes.put("/api/assign-replica-key-ttls", request -> {
+            chordNode.assignReplicaKeyTtls(request.collectionBody(KEY_TTLS));
+            return null;
+        });
+        routes.put("/api/get-replica-merkle-hashes",
+            request -> chordNode.getReplicaMerkleHashes(request.body(MerkleRangeRequest.class)));
+        routes.put("/api/get-replica-merkle-leaf-keys",
+            request -> chordNode.getReplicaMerkleLeafKeys(request.body(MerkleRangeRequest.class)));
+        routes.put("/api/ownership-hints", request -> {
+            chordNode.acceptOwnershipHints(request.collectionBody(OWNERSHIP_HINTS));
+            return null;
+        });
+        routes.put("/api/notify", request -> chordNode.notify(request.body(BasicChordNode.class),
+            request.optionalLongParameter("keyFilterVersion")));
+        routes.put("/api/fetch-key-filter", request -> chordNode.fetchKeyFilter(request.body(BasicChordNode.class),
+            request.optionalLongParameter("keyFilterVersion")));
+        routes.put("/api/key-filter-update", request -> {
+            chordNode.acceptKeyFilterUpdate(request.body(KeyFilter.class));
+            return null;
+        });
+        routes.put("/api/get-immediate-successor", request -> chordNode.getImmediateSuccessor());
+        routes.put("/api/get-immediate-predecessor", request -> chordNode.getPredecessor());
+        routes.put("/api/traffic-stats", request -> chordNode.getTrafficStats());
+        routes.put("/api/admission-stats", request -> admissionControl.getStats());
+        routes.put("/api/shutdown", request -> {
+            // stop the server this request runs on only once the answer is out. the thread
+            // is a daemon, so it does not keep the jvm alive once the shutdown is done
+            request.afterResponse = () -> new ThreadFactoryBuilder()
+                .setNameFormat("chord-http-shutdown")
+                .setDaemon(true)
+                .build()
+                .newThread(onShutdown)
+                .start();
+            return null;
+        });
+
+        return Map.copyOf(routes);
+    }
+
+    private Object nodeState(ApiRequest request) {
+        NodeState nodeState = chordNode.getNodeState();
+        String entityTag = "\"" + nodeState.getVersion() + "-" + nodeState.getKeyCount() + "\"";
+
+        request.exchange.getResponseHeaders().set("ETag", entityTag);
+        if (entityTag.equals(request.exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            request.notModified = true;
+            return null;
+        }
+        return nodeState;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        Runnable afterResponse = null;
+
+        try {
+            String path = exchange.getRequestURI().getPath();
+            Route route = routes.get(path);
+
+            if (route == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            ApiRequest request = new ApiRequest(exchange);
+            EndpointClass endpointClass = AdmissionControl.classify(path, request.parameter("forwarderAddress") != null);
+
+            if (!admissionControl.tryAdmit(endpointClass)) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+
+            try {
+                respond(request, route.handle(request));
+                afterResponse = request.afterResponse;
+            } finally {
+                admissionControl.release(endpointClass);
+            }
+        } catch (ChordNodeBusyException ex) {
+            exchange.sendResponseHeaders(503, -1);
+        } catch (ChordDeadlineExceededException ex) {
+            exchange.sendResponseHeaders(504, -1);
+        } catch (IllegalArgumentException ex) {
+            exchange.sendResponseHeaders(400, -1);
+        } catch (RuntimeException ex) {
+            logger.warn("request {} failed: {}", exchange.getRequestURI(), ex.getMessage());
+            exchange.sendResponseHeaders(500, -1);
+        } finally {
+            exchange.close();
+        }
+
+        if (afterResponse != null) {
+            afterResponse.run();
+        }
+    }
+
+    private void respond(ApiRequest request, Object result) throws IOException {
+        HttpExchange exchange = request.exchange;
+
+        if (request.notModified) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        if (result == null) {
+            exchange.sendResponseHeaders(200, -1);
+            return;
+        }
+
+        boolean smile = accepts(exchange, ChordMediaTypes.APPLICATION_SMILE_VALUE);
+        byte[] body = (smile ? smileMapper : jsonMapper).writeValueAsBytes(result);
+
+        exchange.getResponseHeaders().set("Content-Type", smile ? ChordMediaTypes.APPLICATION_SMILE_VALUE : JSON);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static boolean accepts(HttpExchange exchange, String mediaType) {
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        return accept != null && accept.contains(mediaType);
+    }
+
+    @FunctionalInterface
+    private interface Route {
+
+        Object handle(ApiRequest request) throws IOException;
+    }
+
+    private class ApiRequest {
+
+        private final HttpExchange exchange;
+        private final Map<String, String> parameters;
+        private boolean notModified;
+        /**
+         * run once the response has been sent
+         */
+        private Runnable afterResponse;
+
+        private ApiRequest(HttpExchange exchange) {
+            this.exchange = exchange;
+
+            parameters = new HashMap<>();
+            String query = exchange.getRequestURI().getRawQuery();
+            if (query != null) {
+                Arrays.stream(query.split("&"))
+                    .map(pair -> pair.split("=", 2))
+                    .filter(pair -> pair.length == 2)
+                    .forEach(pair -> parameters.put(URLDecoder.decode(pair[0], StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair[1], StandardCharsets.UTF_8)));
+            }
+        }
+
+        private String parameter(String name) {
+            return parameters.get(name);
+        }
+
+        private long longParameter(String name) {
+            String value = parameters.get(name);
+            if (value == null) {
+                throw new IllegalArgumentException("missing parameter: " + name);
+            }
+            return Long.parseLong(value);
+        }
+
+        private Long optionalLongParameter(String name) {
+            String value = parameters.get(name);
+            return value == null ? null : Long.valueOf(value);
+        }
+
+        private LookupDeadline deadline() {
+            String timeoutMillis = parameters.get("timeoutMillis");
+            return LookupDeadline.fromTimeoutMillis(timeoutMillis == null ? null : Long.valueOf(timeoutMillis));
+        }
+
+        private <T> T body(Class<T> type) {
+            try (InputStream in = exchange.getRequestBody()) {
+                return bodyMapper().readValue(in, type);
+            } catch (IOException ex) {
+                // answered with 400 like a malformed parameter
+                throw new IllegalArgumentException("malformed request body", ex);
+            }
+        }
+
+        private <T> T collectionBody(TypeReference<T> type) {
+            try (InputStream in = exchange.getRequestBody()) {
+                return bodyMapper().readValue(in, type);
+            } catch (IOException ex) {
+                throw new IllegalArgumentException("malformed request body", ex);
+            }
+        }
+
+        private ObjectMapper bodyMapper() {
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            return contentType != null && contentType.startsWith(ChordMediaTypes.APPLICATION_SMILE_VALUE)
+                ? smileMapper
+                : jsonMapper;
+        }
+    }
+}
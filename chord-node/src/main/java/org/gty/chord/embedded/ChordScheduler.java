@@ -0,0 +1,13 @@
+package org.gty.chord.embedded;
+
+/**
+ * runs the periodic maintenance of an embedded node. a task never overlaps
+ * with itself: the next run starts an interval after the previous one ended.
+ */
+public interface ChordScheduler extends AutoCloseable {
+
+    void schedule(String name, Runnable task, long intervalMillis);
+
+    @Override
+    void close();
+}
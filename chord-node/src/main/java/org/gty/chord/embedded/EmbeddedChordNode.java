@@ -0,0 +1,268 @@
+package org.gty.chord.embedded;
+
+import org.gty.chord.client.ChordTransport;
+import org.gty.chord.client.HttpClientChordTransport;
+import org.gty.chord.client.ZoneLatencyTransport;
+import org.gty.chord.core.AdmissionControl;
+import org.gty.chord.core.ChordKeyStore;
+import org.gty.chord.core.ChordNode;
+import org.gty.chord.core.MerkleKeySet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * a chord node hosted in plain java: no spring context, no servlet container and
+ * no quartz. it starts in milliseconds and can be packed densely, e.g. many nodes
+ * in one jvm for tests and simulations.
+ *
+ * the spring boot app hosts one as well, without the http server and with the
+ * maintenance on its quartz scheduler, so the schedule below is the only one.
+ *
+ * <pre>
+ * EmbeddedChordNode node = EmbeddedChordNode.builder()
+ *     .nodeName("node-1")
+ *     .nodeAddress("localhost")
+ *     .nodePort(9001)
+ *     .fingerRingSizeBits(16)
+ *     .joiningTo("localhost", 9000)
+ *     .build()
+ *     .start();
+ * </pre>
+ */
+public class EmbeddedChordNode implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedChordNode.class);
+
+    private static final long STABILIZE_INTERVAL_MILLIS = 1_000L;
+    private static final long FIX_FINGERS_INTERVAL_MILLIS = 1_500L;
+    private static final long CHECK_PREDECESSOR_INTERVAL_MILLIS = 1_800L;
+    private static final long ANTI_ENTROPY_INTERVAL_MILLIS = 5_000L;
+    private static final long HOT_KEY_INTERVAL_MILLIS = 5_000L;
+    private static final long KEY_EXPIRY_INTERVAL_MILLIS = 1_000L;
+    private static final long ZONE_STABILIZE_INTERVAL_MILLIS = 2_000L;
+    private static final long REBALANCE_INTERVAL_MILLIS = 10_000L;
+
+    private final ChordNode chordNode;
+    private final ChordScheduler scheduler;
+    private final ChordHttpServer httpServer;
+
+    private final String joiningToAddress;
+    private final Integer joiningToPort;
+    private final boolean rebalancingEnabled;
+
+    private EmbeddedChordNode(Builder builder) {
+        chordNode = new ChordNode(builder.nodeName,
+            builder.nodeAddress,
+            builder.nodePort,
+            builder.zone,
+            builder.fingerRingSizeBits,
+            builder.fingerBase,
+            builder.transport,
+            builder.keyStoreFactory,
+            builder.hedgingEnabled);
+        scheduler = builder.scheduler;
+
+        joiningToAddress = builder.joiningToAddress;
+        joiningToPort = builder.joiningToPort;
+        rebalancingEnabled = builder.rebalancingEnabled;
+
+        if (builder.httpServerEnabled) {
+            try {
+                httpServer = new ChordHttpServer(chordNode, new AdmissionControl(), this::close);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("failed to bind port " + builder.nodePort, ex);
+            }
+        } else {
+            httpServer = null;
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public ChordNode getChordNode() {
+        return chordNode;
+    }
+
+    /**
+     * starts serving requests and the periodic maintenance, then joins the ring if a node to join was given
+     */
+    public EmbeddedChordNode start() {
+        if (httpServer != null) {
+            httpServer.start();
+        }
+
+        scheduler.schedule("stabilize", chordNode::stabilize, STABILIZE_INTERVAL_MILLIS);
+        scheduler.schedule("fix-fingers", chordNode::fixFingers, FIX_FINGERS_INTERVAL_MILLIS);
+        scheduler.schedule("check-predecessor", chordNode::checkPredecessor, CHECK_PREDECESSOR_INTERVAL_MILLIS);
+        scheduler.schedule("anti-entropy", chordNode::antiEntropy, ANTI_ENTROPY_INTERVAL_MILLIS);
+        scheduler.schedule("hot-key", chordNode::pushOwnershipHints, HOT_KEY_INTERVAL_MILLIS);
+        scheduler.schedule("key-expiry", chordNode::expireKeys, KEY_EXPIRY_INTERVAL_MILLIS);
+        if (chordNode.getZone() != null) {
+            scheduler.schedule("zone-stabilize", chordNode::stabilizeZone, ZONE_STABILIZE_INTERVAL_MILLIS);
+        }
+        if (rebalancingEnabled) {
+            scheduler.schedule("rebalance", chordNode::rebalance, REBALANCE_INTERVAL_MILLIS);
+        }
+
+        logger.info("Chord Initialized: {}", chordNode.getBasicChordNode());
+
+        if (joiningToAddress != null && joiningToPort != null) {
+            chordNode.join(joiningToAddress, joiningToPort);
+        }
+
+        return this;
+    }
+
+    @Override
+    public void close() {
+        scheduler.close();
+        if (httpServer != null) {
+            httpServer.close();
+        }
+    }
+
+    public static class Builder {
+
+        private String nodeName;
+        private String nodeAddress = "localhost";
+        private Integer nodePort;
+        private Integer fingerRingSizeBits = 16;
+        private int fingerBase = 2;
+        private String zone;
+        private long simulatedInterZoneLatencyMillis;
+
+        private String joiningToAddress;
+        private Integer joiningToPort;
+        private boolean rebalancingEnabled;
+        private boolean hedgingEnabled;
+
+        private ChordTransport transport;
+        private ChordScheduler scheduler;
+        private IntFunction<ChordKeyStore> keyStoreFactory = MerkleKeySet::new;
+        private boolean httpServerEnabled = true;
+
+        private Builder() {
+        }
+
+        public Builder nodeName(String nodeName) {
+            this.nodeName = nodeName;
+            return this;
+        }
+
+        public Builder nodeAddress(String nodeAddress) {
+            this.nodeAddress = nodeAddress;
+            return this;
+        }
+
+        public Builder nodePort(int nodePort) {
+            this.nodePort = nodePort;
+            return this;
+        }
+
+        public Builder fingerRingSizeBits(int fingerRingSizeBits) {
+            this.fingerRingSizeBits = fingerRingSizeBits;
+            return this;
+        }
+
+        /**
+         * fingers sit at j * base^i from the node, a larger base means more fingers and fewer hops per lookup
+         */
+        public Builder fingerBase(int fingerBase) {
+            this.fingerBase = fingerBase;
+            return this;
+        }
+
+        /**
+         * zone of the node, lookups entering the ring here are routed through nodes of
+         * the same zone and leave it at most once. null for a flat ring
+         */
+        public Builder zone(String zone) {
+            this.zone = zone;
+            return this;
+        }
+
+        /**
+         * delay added to every call to a node of another zone, to try zones out on one machine
+         */
+        public Builder simulatedInterZoneLatencyMillis(long simulatedInterZoneLatencyMillis) {
+            this.simulatedInterZoneLatencyMillis = simulatedInterZoneLatencyMillis;
+            return this;
+        }
+
+        /**
+         * node of an existing ring to join on start, a bootstrapping node leaves this unset
+         */
+        public Builder joiningTo(String address, int port) {
+            this.joiningToAddress = address;
+            this.joiningToPort = port;
+            return this;
+        }
+
+        public Builder rebalancingEnabled(boolean rebalancingEnabled) {
+            this.rebalancingEnabled = rebalancingEnabled;
+            return this;
+        }
+
+        public Builder hedgingEnabled(boolean hedgingEnabled) {
+            this.hedgingEnabled = hedgingEnabled;
+            return this;
+        }
+
+        /**
+         * defaults to {@link HttpClientChordTransport}
+         */
+        public Builder transport(ChordTransport transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        /**
+         * defaults to {@link ExecutorChordScheduler}
+         */
+        public Builder scheduler(ChordScheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * creates the key store and the replica store for a ring of the given size in bits,
+         * defaults to in-memory {@link MerkleKeySet}s
+         */
+        public Builder keyStoreFactory(IntFunction<ChordKeyStore> keyStoreFactory) {
+            this.keyStoreFactory = keyStoreFactory;
+            return this;
+        }
+
+        /**
+         * whether to serve the /api endpoints, a node reached only through an in-process transport does not need to
+         */
+        public Builder httpServerEnabled(boolean httpServerEnabled) {
+            this.httpServerEnabled = httpServerEnabled;
+            return this;
+        }
+
+        public EmbeddedChordNode build() {
+            Objects.requireNonNull(nodeName, "nodeName");
+            Objects.requireNonNull(nodePort, "nodePort");
+
+            if (transport == null) {
+                transport = new HttpClientChordTransport();
+            }
+            if (simulatedInterZoneLatencyMillis > 0L) {
+                transport = new ZoneLatencyTransport(transport, zone, simulatedInterZoneLatencyMillis);
+            }
+            if (scheduler == null) {
+                scheduler = new ExecutorChordScheduler();
+            }
+
+            return new EmbeddedChordNode(this);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.gty.chord.embedded;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * default scheduler: one small scheduled thread pool shared by all tasks.
+ */
+public class ExecutorChordScheduler implements ChordScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorChordScheduler.class);
+
+    private static final int DEFAULT_POOL_SIZE = 4;
+
+    private final ScheduledExecutorService executor;
+
+    public ExecutorChordScheduler() {
+        this(DEFAULT_POOL_SIZE);
+    }
+
+    public ExecutorChordScheduler(int poolSize) {
+        executor = Executors.newScheduledThreadPool(poolSize, new ThreadFactoryBuilder()
+            .setNameFormat("chord-scheduler-%d")
+            .setDaemon(true)
+            .build());
+    }
+
+    @Override
+    public void schedule(String name, Runnable task, long intervalMillis) {
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException ex) {
+                // a failed run must not cancel the following ones
+                logger.warn("{} failed: {}", name, ex.getMessage());
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,19 @@
+package org.gty.chord.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+public class ChordDeadlineExceededException extends ChordTransportException {
+
+    public ChordDeadlineExceededException() {
+    }
+
+    public ChordDeadlineExceededException(String msg) {
+        super(msg);
+    }
+
+    public ChordDeadlineExceededException(String msg, Throwable ex) {
+        super(msg, ex);
+    }
+}
@@ -0,0 +1,19 @@
+package org.gty.chord.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ChordNodeBusyException extends ChordTransportException {
+
+    public ChordNodeBusyException() {
+    }
+
+    public ChordNodeBusyException(String msg) {
+        super(msg);
+    }
+
+    public ChordNodeBusyException(String msg, Throwable ex) {
+        super(msg, ex);
+    }
+}
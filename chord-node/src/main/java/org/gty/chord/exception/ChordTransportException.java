@@ -0,0 +1,15 @@
+package org.gty.chord.exception;
+
+public class ChordTransportException extends RuntimeException {
+
+    public ChordTransportException() {
+    }
+
+    public ChordTransportException(String msg) {
+        super(msg);
+    }
+
+    public ChordTransportException(String msg, Throwable ex) {
+        super(msg, ex);
+    }
+}
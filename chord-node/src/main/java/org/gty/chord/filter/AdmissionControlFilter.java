@@ -0,0 +1,58 @@
+package org.gty.chord.filter;
+
+import org.gty.chord.core.AdmissionControl;
+import org.gty.chord.core.AdmissionControl.EndpointClass;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.annotation.Nonnull;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * sheds load before a request takes a servlet thread for longer than it needs to:
+ * requests over the limit of their endpoint class are answered with 503 right away.
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final String API_PATH_PREFIX = "/api/";
+    private static final String FORWARDER_PARAMETER = "forwarderAddress";
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final AdmissionControl admissionControl;
+
+    public AdmissionControlFilter(AdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@Nonnull HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(API_PATH_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(@Nonnull HttpServletRequest request,
+                                    @Nonnull HttpServletResponse response,
+                                    @Nonnull FilterChain filterChain) throws ServletException, IOException {
+        EndpointClass endpointClass = AdmissionControl.classify(request.getRequestURI(),
+            request.getParameter(FORWARDER_PARAMETER) != null);
+
+        if (!admissionControl.tryAdmit(endpointClass)) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "busy: " + endpointClass + " limit reached");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            admissionControl.release(endpointClass);
+        }
+    }
+}
@@ -11,20 +11,34 @@ public class ChordNodeInitializerProperties {
     private final String nodeAddress;
     private final Integer nodePort;
     private final Integer fingerRingSizeBits;
+    private final Integer fingerBase;
 
     private final Boolean bootstrappingNode;
     private final String joiningToAddress;
     private final Integer joiningToPort;
 
-    public ChordNodeInitializerProperties(String nodeName, String nodeAddress, Integer nodePort, Integer fingerRingSizeBits, Boolean bootstrappingNode, String joiningToAddress, Integer joiningToPort) {
+    private final Boolean rebalancingEnabled;
+    private final Boolean hedgingEnabled;
+
+    private final String zone;
+    private final Long simulatedInterZoneLatencyMillis;
+
+    public ChordNodeInitializerProperties(String nodeName, String nodeAddress, Integer nodePort, Integer fingerRingSizeBits, Integer fingerBase, Boolean bootstrappingNode, String joiningToAddress, Integer joiningToPort, Boolean rebalancingEnabled, Boolean hedgingEnabled, String zone, Long simulatedInterZoneLatencyMillis) {
         this.nodeName = nodeName;
         this.nodeAddress = nodeAddress;
         this.nodePort = nodePort;
         this.fingerRingSizeBits = fingerRingSizeBits;
+        this.fingerBase = fingerBase;
 
         this.bootstrappingNode = bootstrappingNode;
         this.joiningToAddress = joiningToAddress;
         this.joiningToPort = joiningToPort;
+
+        this.rebalancingEnabled = rebalancingEnabled;
+        this.hedgingEnabled = hedgingEnabled;
+
+        this.zone = zone;
+        this.simulatedInterZoneLatencyMillis = simulatedInterZoneLatencyMillis;
     }
 
     public String getNodeName() {
@@ -39,6 +53,10 @@ public class ChordNodeInitializerProperties {
         return fingerRingSizeBits;
     }
 
+    public Integer getFingerBase() {
+        return fingerBase;
+    }
+
     public Boolean getBootstrappingNode() {
         return bootstrappingNode;
     }
@@ -54,4 +72,20 @@ public class ChordNodeInitializerProperties {
     public String getJoiningToAddress() {
         return joiningToAddress;
     }
+
+    public Boolean getRebalancingEnabled() {
+        return rebalancingEnabled;
+    }
+
+    public Boolean getHedgingEnabled() {
+        return hedgingEnabled;
+    }
+
+    public String getZone() {
+        return zone;
+    }
+
+    public Long getSimulatedInterZoneLatencyMillis() {
+        return simulatedInterZoneLatencyMillis;
+    }
 }
@@ -0,0 +1,47 @@
+package org.gty.chord.job;
+
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+import javax.annotation.Nonnull;
+
+/**
+ * runs one maintenance task of the node, see {@link QuartzChordScheduler}
+ */
+@DisallowConcurrentExecution
+public class ChordNodeTaskJob extends QuartzJobBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChordNodeTaskJob.class);
+
+    private String name;
+    private Runnable task;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Runnable getTask() {
+        return task;
+    }
+
+    public void setTask(Runnable task) {
+        this.task = task;
+    }
+
+    @Override
+    protected void executeInternal(@Nonnull JobExecutionContext context) {
+        try {
+            task.run();
+        } catch (RuntimeException ex) {
+            // a failed run must not cancel the following ones
+            logger.warn("{} failed: {}", name, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.gty.chord.job;
+
+import org.gty.chord.embedded.ChordScheduler;
+import org.quartz.JobBuilder;
+import org.quartz.JobDataMap;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * runs the maintenance tasks of an {@link org.gty.chord.embedded.EmbeddedChordNode} as
+ * quartz jobs, on the scheduler of the spring boot app. the node decides what runs and
+ * how often, quartz only provides the threads.
+ *
+ * a job does not run concurrently with itself, a run that comes due while the previous
+ * one is still going waits for it to end.
+ */
+public class QuartzChordScheduler implements ChordScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuartzChordScheduler.class);
+
+    private static final String JOB_GROUP = "chordNode";
+
+    private final Scheduler scheduler;
+    private final List<JobKey> jobKeys;
+
+    public QuartzChordScheduler(Scheduler scheduler) {
+        this.scheduler = scheduler;
+        jobKeys = new CopyOnWriteArrayList<>();
+    }
+
+    @Override
+    public void schedule(String name, Runnable task, long intervalMillis) {
+        JobDetail jobDetail = JobBuilder.newJob(ChordNodeTaskJob.class)
+            .withIdentity(name, JOB_GROUP)
+            .usingJobData(new JobDataMap(Map.of("name", name, "task", task)))
+            .build();
+
+        Trigger trigger = TriggerBuilder.newTrigger()
+            .withIdentity(name, JOB_GROUP)
+            .startAt(new Date(System.currentTimeMillis() + intervalMillis))
+            .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                .withIntervalInMilliseconds(intervalMillis)
+                .repeatForever()
+                .withMisfireHandlingInstructionNextWithRemainingCount())
+            .build();
+
+        try {
+            scheduler.scheduleJob(jobDetail, trigger);
+        } catch (SchedulerException ex) {
+            throw new IllegalStateException("failed to schedule " + name, ex);
+        }
+        jobKeys.add(jobDetail.getKey());
+    }
+
+    @Override
+    public void close() {
+        try {
+            scheduler.deleteJobs(List.copyOf(jobKeys));
+        } catch (SchedulerException ex) {
+            logger.warn("failed to unschedule the chord node jobs: {}", ex.getMessage());
+        }
+        jobKeys.clear();
+    }
+}
@@ -0,0 +1,74 @@
+package org.gty.chord.model;
+
+import com.google.common.base.MoreObjects;
+
+public class AdmissionStats {
+
+    private String endpointClass;
+    private int limit;
+    private int inFlight;
+    private long admitted;
+    private long rejected;
+
+    public AdmissionStats() {
+    }
+
+    public AdmissionStats(String endpointClass, int limit, int inFlight, long admitted, long rejected) {
+        this.endpointClass = endpointClass;
+        this.limit = limit;
+        this.inFlight = inFlight;
+        this.admitted = admitted;
+        this.rejected = rejected;
+    }
+
+    public String getEndpointClass() {
+        return endpointClass;
+    }
+
+    public void setEndpointClass(String endpointClass) {
+        this.endpointClass = endpointClass;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public void setInFlight(int inFlight) {
+        this.inFlight = inFlight;
+    }
+
+    public long getAdmitted() {
+        return admitted;
+    }
+
+    public void setAdmitted(long admitted) {
+        this.admitted = admitted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("endpointClass", endpointClass)
+            .add("limit", limit)
+            .add("inFlight", inFlight)
+            .add("admitted", admitted)
+            .add("rejected", rejected)
+            .toString();
+    }
+}
@@ -9,6 +9,7 @@ public class BasicChordNode {
     private String nodeAddress;
     private Integer nodePort;
     private long nodeId;
+    private String zone;
 
     public BasicChordNode() {
     }
@@ -17,14 +18,20 @@ public class BasicChordNode {
         this(chordNode.getNodeName(),
             chordNode.getNodeAddress(),
             chordNode.getNodePort(),
-            chordNode.getNodeId());
+            chordNode.getNodeId(),
+            chordNode.getZone());
     }
 
     public BasicChordNode(String nodeName, String nodeAddress, Integer nodePort, long nodeId) {
+        this(nodeName, nodeAddress, nodePort, nodeId, null);
+    }
+
+    public BasicChordNode(String nodeName, String nodeAddress, Integer nodePort, long nodeId, String zone) {
         this.nodeName = nodeName;
         this.nodeAddress = nodeAddress;
         this.nodePort = nodePort;
         this.nodeId = nodeId;
+        this.zone = zone;
     }
 
     public String getNodeName() {
@@ -59,6 +66,14 @@ public class BasicChordNode {
         this.nodeAddress = nodeAddress;
     }
 
+    public String getZone() {
+        return zone;
+    }
+
+    public void setZone(String zone) {
+        this.zone = zone;
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
@@ -66,6 +81,7 @@ public class BasicChordNode {
             .add("nodeAddress", nodeAddress)
             .add("nodePort", nodePort)
             .add("nodeId", nodeId)
+            .add("zone", zone)
             .toString();
     }
 }
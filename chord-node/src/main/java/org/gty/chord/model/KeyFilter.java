@@ -0,0 +1,95 @@
+package org.gty.chord.model;
+
+import com.google.common.base.MoreObjects;
+
+import java.util.List;
+
+/**
+ * bloom filter of the keys a node holds, as it is sent to other nodes.
+ * a key whose bits are not all set was not held by the node when the filter was
+ * taken. the node may have added it since, a filter is only current as long as
+ * the keys its owner adds are pushed to it, see HeldKeyFilters.
+ *
+ * it either carries the bits of the whole filter, or, as an update of the filter
+ * the receiver already has, only the keys added since. removed keys are left out of
+ * an update, their bits stay set until the next whole filter.
+ */
+public class KeyFilter {
+
+    private BasicChordNode owner;
+    private long version;
+    private int hashCount;
+    private long[] bits;
+    private List<Long> addedKeys;
+
+    public KeyFilter() {
+    }
+
+    public KeyFilter(long version, int hashCount, long[] bits) {
+        this.version = version;
+        this.hashCount = hashCount;
+        this.bits = bits;
+    }
+
+    public KeyFilter(long version, List<Long> addedKeys) {
+        this.version = version;
+        this.addedKeys = addedKeys;
+    }
+
+    /**
+     * @return node whose keys the filter holds
+     */
+    public BasicChordNode getOwner() {
+        return owner;
+    }
+
+    public void setOwner(BasicChordNode owner) {
+        this.owner = owner;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    public void setHashCount(int hashCount) {
+        this.hashCount = hashCount;
+    }
+
+    public long[] getBits() {
+        return bits;
+    }
+
+    public void setBits(long[] bits) {
+        this.bits = bits;
+    }
+
+    /**
+     * @return keys added since the version the receiver has, null for a whole filter
+     */
+    public List<Long> getAddedKeys() {
+        return addedKeys;
+    }
+
+    public void setAddedKeys(List<Long> addedKeys) {
+        this.addedKeys = addedKeys;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("owner", owner)
+            .add("version", version)
+            .add("hashCount", hashCount)
+            .add("bitCount", bits == null ? 0 : 64 * bits.length)
+            .add("addedKeyCount", addedKeys == null ? 0 : addedKeys.size())
+            .toString();
+    }
+}
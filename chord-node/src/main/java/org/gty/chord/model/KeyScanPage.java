@@ -0,0 +1,80 @@
+package org.gty.chord.model;
+
+import com.google.common.base.MoreObjects;
+
+import java.util.List;
+
+public class KeyScanPage {
+
+    private List<Long> keys;
+    private BasicChordNode node;
+    private BasicChordNode successor;
+    private boolean hasMore;
+    private boolean lastOwner;
+
+    public KeyScanPage() {
+    }
+
+    public KeyScanPage(List<Long> keys,
+                       BasicChordNode node,
+                       BasicChordNode successor,
+                       boolean hasMore,
+                       boolean lastOwner) {
+        this.keys = keys;
+        this.node = node;
+        this.successor = successor;
+        this.hasMore = hasMore;
+        this.lastOwner = lastOwner;
+    }
+
+    public List<Long> getKeys() {
+        return keys;
+    }
+
+    public void setKeys(List<Long> keys) {
+        this.keys = keys;
+    }
+
+    public BasicChordNode getNode() {
+        return node;
+    }
+
+    public void setNode(BasicChordNode node) {
+        this.node = node;
+    }
+
+    public BasicChordNode getSuccessor() {
+        return successor;
+    }
+
+    public void setSuccessor(BasicChordNode successor) {
+        this.successor = successor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public boolean isLastOwner() {
+        return lastOwner;
+    }
+
+    public void setLastOwner(boolean lastOwner) {
+        this.lastOwner = lastOwner;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("keys", keys.size())
+            .add("node", node)
+            .add("successor", successor)
+            .add("hasMore", hasMore)
+            .add("lastOwner", lastOwner)
+            .toString();
+    }
+}
@@ -0,0 +1,54 @@
+package org.gty.chord.model;
+
+import com.google.common.base.MoreObjects;
+
+import java.util.List;
+
+public class MerkleRangeRequest {
+
+    private long from;
+    private long to;
+    private List<Integer> treeNodeIndexes;
+
+    public MerkleRangeRequest() {
+    }
+
+    public MerkleRangeRequest(long from, long to, List<Integer> treeNodeIndexes) {
+        this.from = from;
+        this.to = to;
+        this.treeNodeIndexes = treeNodeIndexes;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public void setFrom(long from) {
+        this.from = from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    public void setTo(long to) {
+        this.to = to;
+    }
+
+    public List<Integer> getTreeNodeIndexes() {
+        return treeNodeIndexes;
+    }
+
+    public void setTreeNodeIndexes(List<Integer> treeNodeIndexes) {
+        this.treeNodeIndexes = treeNodeIndexes;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("from", from)
+            .add("to", to)
+            .add("treeNodeIndexes", treeNodeIndexes)
+            .toString();
+    }
+}
@@ -0,0 +1,105 @@
+package org.gty.chord.model;
+
+import com.google.common.base.MoreObjects;
+import org.gty.chord.model.fingertable.FingerTableEntry;
+
+import java.util.List;
+
+public class NodeState {
+
+    private BasicChordNode node;
+    private BasicChordNode successor;
+    private BasicChordNode predecessor;
+    private List<FingerTableEntry> fingerTable;
+    private int keyCount;
+    private long version;
+    private int fingerRingSizeBits;
+
+    public NodeState() {
+    }
+
+    public NodeState(BasicChordNode node,
+                     BasicChordNode successor,
+                     BasicChordNode predecessor,
+                     List<FingerTableEntry> fingerTable,
+                     int keyCount,
+                     long version,
+                     int fingerRingSizeBits) {
+        this.node = node;
+        this.successor = successor;
+        this.predecessor = predecessor;
+        this.fingerTable = fingerTable;
+        this.keyCount = keyCount;
+        this.version = version;
+        this.fingerRingSizeBits = fingerRingSizeBits;
+    }
+
+    public BasicChordNode getNode() {
+        return node;
+    }
+
+    public void setNode(BasicChordNode node) {
+        this.node = node;
+    }
+
+    public BasicChordNode getSuccessor() {
+        return successor;
+    }
+
+    public void setSuccessor(BasicChordNode successor) {
+        this.successor = successor;
+    }
+
+    public BasicChordNode getPredecessor() {
+        return predecessor;
+    }
+
+    public void setPredecessor(BasicChordNode predecessor) {
+        this.predecessor = predecessor;
+    }
+
+    public List<FingerTableEntry> getFingerTable() {
+        return fingerTable;
+    }
+
+    public void setFingerTable(List<FingerTableEntry> fingerTable) {
+        this.fingerTable = fingerTable;
+    }
+
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    public void setKeyCount(int keyCount) {
+        this.keyCount = keyCount;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public int getFingerRingSizeBits() {
+        return fingerRingSizeBits;
+    }
+
+    public void setFingerRingSizeBits(int fingerRingSizeBits) {
+        this.fingerRingSizeBits = fingerRingSizeBits;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("node", node)
+            .add("successor", successor)
+            .add("predecessor", predecessor)
+            .add("fingerTable", fingerTable)
+            .add("keyCount", keyCount)
+            .add("version", version)
+            .add("fingerRingSizeBits", fingerRingSizeBits)
+            .toString();
+    }
+}
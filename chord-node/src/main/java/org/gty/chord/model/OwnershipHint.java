@@ -0,0 +1,62 @@
+package org.gty.chord.model;
+
+import com.google.common.base.MoreObjects;
+
+public class OwnershipHint {
+
+    private long from;
+    private long to;
+    private BasicChordNode owner;
+    private long ttlMillis;
+
+    public OwnershipHint() {
+    }
+
+    public OwnershipHint(long from, long to, BasicChordNode owner, long ttlMillis) {
+        this.from = from;
+        this.to = to;
+        this.owner = owner;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public void setFrom(long from) {
+        this.from = from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    public void setTo(long to) {
+        this.to = to;
+    }
+
+    public BasicChordNode getOwner() {
+        return owner;
+    }
+
+    public void setOwner(BasicChordNode owner) {
+        this.owner = owner;
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    public void setTtlMillis(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("range", "(" + from + ", " + to + "]")
+            .add("owner", owner)
+            .add("ttlMillis", ttlMillis)
+            .toString();
+    }
+}
@@ -0,0 +1,62 @@
+package org.gty.chord.model;
+
+import com.google.common.base.MoreObjects;
+
+import java.util.List;
+
+/**
+ * answer to notify: what the notified node knows about its neighbours once it has
+ * taken the notifying node into account, and the filter of its keys unless the
+ * notifying node already has the current one
+ */
+public class StabilizeReply {
+
+    private BasicChordNode predecessor;
+    private List<BasicChordNode> successorList;
+    private KeyFilter keyFilter;
+
+    public StabilizeReply() {
+    }
+
+    public StabilizeReply(BasicChordNode predecessor, List<BasicChordNode> successorList, KeyFilter keyFilter) {
+        this.predecessor = predecessor;
+        this.successorList = successorList;
+        this.keyFilter = keyFilter;
+    }
+
+    public BasicChordNode getPredecessor() {
+        return predecessor;
+    }
+
+    public void setPredecessor(BasicChordNode predecessor) {
+        this.predecessor = predecessor;
+    }
+
+    public List<BasicChordNode> getSuccessorList() {
+        return successorList;
+    }
+
+    public void setSuccessorList(List<BasicChordNode> successorList) {
+        this.successorList = successorList;
+    }
+
+    /**
+     * @return filter of the notified node's keys, null when it has not changed since the version the notifying node sent
+     */
+    public KeyFilter getKeyFilter() {
+        return keyFilter;
+    }
+
+    public void setKeyFilter(KeyFilter keyFilter) {
+        this.keyFilter = keyFilter;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("predecessor", predecessor)
+            .add("successorList", successorList)
+            .add("keyFilter", keyFilter)
+            .toString();
+    }
+}
@@ -0,0 +1,114 @@
+package org.gty.chord.model;
+
+import com.google.common.base.MoreObjects;
+
+import java.util.List;
+
+public class TrafficStats {
+
+    private long nodeId;
+    private long bucketWidth;
+    private long startedAtMillis;
+    private List<Long> served;
+    private List<Long> forwarded;
+    private List<Long> assigned;
+    private List<Long> fingerForwarded;
+    private long hedged;
+
+    public TrafficStats() {
+    }
+
+    public TrafficStats(long nodeId,
+                        long bucketWidth,
+                        long startedAtMillis,
+                        List<Long> served,
+                        List<Long> forwarded,
+                        List<Long> assigned,
+                        List<Long> fingerForwarded) {
+        this.nodeId = nodeId;
+        this.bucketWidth = bucketWidth;
+        this.startedAtMillis = startedAtMillis;
+        this.served = served;
+        this.forwarded = forwarded;
+        this.assigned = assigned;
+        this.fingerForwarded = fingerForwarded;
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(long nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public long getBucketWidth() {
+        return bucketWidth;
+    }
+
+    public void setBucketWidth(long bucketWidth) {
+        this.bucketWidth = bucketWidth;
+    }
+
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    public void setStartedAtMillis(long startedAtMillis) {
+        this.startedAtMillis = startedAtMillis;
+    }
+
+    public List<Long> getServed() {
+        return served;
+    }
+
+    public void setServed(List<Long> served) {
+        this.served = served;
+    }
+
+    public List<Long> getForwarded() {
+        return forwarded;
+    }
+
+    public void setForwarded(List<Long> forwarded) {
+        this.forwarded = forwarded;
+    }
+
+    public List<Long> getAssigned() {
+        return assigned;
+    }
+
+    public void setAssigned(List<Long> assigned) {
+        this.assigned = assigned;
+    }
+
+    public List<Long> getFingerForwarded() {
+        return fingerForwarded;
+    }
+
+    public void setFingerForwarded(List<Long> fingerForwarded) {
+        this.fingerForwarded = fingerForwarded;
+    }
+
+    public long getHedged() {
+        return hedged;
+    }
+
+    public void setHedged(long hedged) {
+        this.hedged = hedged;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("nodeId", nodeId)
+            .add("bucketWidth", bucketWidth)
+            .add("startedAtMillis", startedAtMillis)
+            .add("served", served)
+            .add("forwarded", forwarded)
+            .add("assigned", assigned)
+            .add("fingerForwarded", fingerForwarded)
+            .add("hedged", hedged)
+            .toString();
+    }
+}
@@ -11,6 +11,10 @@ public class FingerTableEntry {
     private FingerTableIdInterval interval;
     private AtomicReference<BasicChordNode> node;
 
+    public FingerTableEntry() {
+        this.node = new AtomicReference<>();
+    }
+
     public FingerTableEntry(Long startFingerId,
                             FingerTableIdInterval interval,
                             AtomicReference<BasicChordNode> node) {
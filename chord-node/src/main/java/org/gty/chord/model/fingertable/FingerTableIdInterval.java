@@ -5,6 +5,9 @@ public class FingerTableIdInterval {
     private Long begin;
     private Long end;
 
+    public FingerTableIdInterval() {
+    }
+
     public FingerTableIdInterval(Long begin, Long end) {
         this.begin = begin;
         this.end = end;